@@ -65,13 +65,28 @@ export const editprofile = async (
     return data;
   } catch (error) {}
 };
-export const getflight = async () => {
+// The listing is paged: one page per call, nextCursor fetches the one after it and is
+// missing on the last page
+const getpage = async (path, cursor) => {
+  const url = `${BACKEND_URL}${path}${cursor ? `?cursor=${encodeURIComponent(cursor)}` : ""}`;
+  const res = await axios.get(url);
+  return { items: res.data, nextCursor: res.headers["x-next-cursor"] };
+};
+
+export const getflight = async (cursor) => {
   try {
-    const res = await axios.get(`${BACKEND_URL}/flight`);
-    const data = res.data;
-    return data;
+    return await getpage("/flight", cursor);
   } catch (error) {
-    console.log(data);
+    console.log(error);
+  }
+};
+
+export const getflightbyid = async (id) => {
+  try {
+    const res = await axios.get(`${BACKEND_URL}/flight/${id}`);
+    return res.data;
+  } catch (error) {
+    console.log(error);
   }
 };
 
@@ -128,13 +143,20 @@ export const editflight = async (
   }
 };
 
-export const gethotel = async () => {
+export const gethotel = async (cursor) => {
   try {
-    const res = await axios.get(`${BACKEND_URL}/hotel`);
-    const data = res.data;
-    return data;
+    return await getpage("/hotel", cursor);
   } catch (error) {
-    console.log(data);
+    console.log(error);
+  }
+};
+
+export const gethotelbyid = async (id) => {
+  try {
+    const res = await axios.get(`${BACKEND_URL}/hotel/${id}`);
+    return res.data;
+  } catch (error) {
+    console.log(error);
   }
 };
 
@@ -194,6 +216,17 @@ export const handleflightbooking = async (userId, flightId, seats, price) => {
   }
 };
 
+export const getuserbookings = async (userId, cursor) => {
+  try {
+    const url = `${BACKEND_URL}/booking/user/${userId}${cursor ? `?cursor=${cursor}` : ""}`;
+    const res = await axios.get(url);
+    return { bookings: res.data, nextCursor: res.headers["x-next-cursor"] };
+  } catch (error) {
+    console.log(error);
+    return { bookings: [], nextCursor: undefined };
+  }
+};
+
 export const handlehotelbooking = async (userId, hotelId, rooms, price) => {
   try {
     const url = `${BACKEND_URL}/booking/flight?userId=${userId}&hotelId=${hotelId}&rooms=${rooms}&price=${price}`;
@@ -13,20 +13,29 @@ import Loader from "../Loader";
 const FlightList = ({ onSelect }: any) => {
   const [flight, setflight] = useState<any[]>([]);
   const [loading, setloading] = useState(true);
+  const [nextcursor, setnextcursor] = useState<string | undefined>();
+  const [loadingmore, setloadingmore] = useState(false);
+  // One page at a time; "Load more" asks for the next one
+  const fetchflight = async (cursor?: string) => {
+    try {
+      const data = await getflight(cursor);
+      setflight((loaded) => (cursor ? [...loaded, ...(data?.items ?? [])] : data?.items ?? []));
+      setnextcursor(data?.nextCursor);
+    } catch (error) {
+      console.error(error);
+    } finally {
+      setloading(false);
+      setloadingmore(false);
+    }
+  };
   useEffect(() => {
-    const fetchflight = async () => {
-      try {
-        const data = await getflight();
-        setflight(data);
-      } catch (error) {
-        console.error(error);
-      } finally {
-        setloading(false);
-      }
-    };
     fetchflight();
   }, []);
-  
+  const loadmore = () => {
+    setloadingmore(true);
+    fetchflight(nextcursor);
+  };
+
   if (loading) {
     return <Loader />;
   }
@@ -61,6 +70,11 @@ const FlightList = ({ onSelect }: any) => {
           )}
         </TableBody>
       </Table>
+      {nextcursor && (
+        <Button variant="outline" className="mt-4" onClick={loadmore} disabled={loadingmore}>
+          {loadingmore ? "Loading..." : "Load more"}
+        </Button>
+      )}
     </div>
   );
 };
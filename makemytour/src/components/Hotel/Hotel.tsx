@@ -14,20 +14,29 @@ import Loader from "../Loader";
 const HotelList = ({ onSelect }: any) => {
   const [hotel, sethotel] = useState<any[]>([]);
   const [loading, setloading] = useState(true);
+  const [nextcursor, setnextcursor] = useState<string | undefined>();
+  const [loadingmore, setloadingmore] = useState(false);
+  // One page at a time; "Load more" asks for the next one
+  const fetchhotel = async (cursor?: string) => {
+    try {
+      const data = await gethotel(cursor);
+      sethotel((loaded) => (cursor ? [...loaded, ...(data?.items ?? [])] : data?.items ?? []));
+      setnextcursor(data?.nextCursor);
+    } catch (error) {
+      console.error(error);
+    } finally {
+      setloading(false);
+      setloadingmore(false);
+    }
+  };
   useEffect(() => {
-    const fetchhotel = async () => {
-      try {
-        const data = await gethotel();
-        sethotel(data);
-      } catch (error) {
-        console.error(error);
-      } finally {
-        setloading(false);
-      }
-    };
     fetchhotel();
   }, []);
-  
+  const loadmore = () => {
+    setloadingmore(true);
+    fetchhotel(nextcursor);
+  };
+
   if (loading) {
     return <Loader />;
   }
@@ -62,6 +71,11 @@ const HotelList = ({ onSelect }: any) => {
           )}
         </TableBody>
       </Table>
+      {nextcursor && (
+        <Button variant="outline" className="mt-4" onClick={loadmore} disabled={loadingmore}>
+          {loadingmore ? "Loading..." : "Load more"}
+        </Button>
+      )}
     </div>
   );
 };
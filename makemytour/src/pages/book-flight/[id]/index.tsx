@@ -15,7 +15,7 @@ import {
   ArrowRight,
 } from "lucide-react";
 import { useEffect, useState } from "react";
-import { getflight, handleflightbooking } from "@/api";
+import { getflightbyid, handleflightbooking } from "@/api";
 import { useDispatch, useSelector } from "react-redux";
 interface Flight {
   id: string; // Unique identifier for the flight
@@ -52,11 +52,10 @@ const BookFlightPage = () => {
   const dispatch = useDispatch();
   useEffect(() => {
     const fetchFlights = async () => {
+      if (!id) return;
       try {
-        const data = await getflight();
-        const filteredData = data.filter((flight: any) => flight.id === id);
-        setFlights(filteredData);
-        console.log(filteredData);
+        const data = await getflightbyid(id);
+        setFlights(data ? [data] : []);
       } catch (error) {
         console.error("Error fetching flights:", error);
       } finally {
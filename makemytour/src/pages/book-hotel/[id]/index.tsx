@@ -15,7 +15,7 @@ import {
   Home,
 } from "lucide-react";
 import { useEffect, useState } from "react";
-import { gethotel, handlehotelbooking } from "@/api";
+import { gethotelbyid, handlehotelbooking } from "@/api";
 interface Hotel {
   id: string; // Unique identifier for the hotel
   hotelName: string; // Name of the hotel
@@ -49,10 +49,10 @@ const BookHotelPage = () => {
   const dispatch = useDispatch();
   useEffect(() => {
     const fetchhotels = async () => {
+      if (!id) return;
       try {
-        const data = await gethotel();
-        const filteredData = data.filter((hotel: any) => hotel.id === id);
-        sethotels(filteredData);
+        const data = await gethotelbyid(id);
+        sethotels(data ? [data] : []);
       } catch (error) {
         console.error("Error fetching flights:", error);
       } finally {
@@ -60,7 +60,7 @@ const BookHotelPage = () => {
       }
     };
     fetchhotels();
-  }, []);
+  }, [id]);
 
   if (loading) {
     return <Loader />;
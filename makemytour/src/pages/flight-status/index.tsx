@@ -29,13 +29,22 @@ export default function FlightStatusPage() {
   useEffect(() => {
     fetchFlightStatuses();
     initializeMockData();
-    
-    // Set up auto-refresh every 30 seconds
-    const interval = setInterval(() => {
-      simulateStatusUpdates();
-    }, 30000);
 
-    return () => clearInterval(interval);
+    // Server pushes only the flights that changed; merge them into the list
+    const source = new EventSource('http://localhost:8080/api/flight-status/stream');
+    source.addEventListener('status', (event) => {
+      const changed: FlightStatus[] = JSON.parse((event as MessageEvent).data);
+      setFlightStatuses((current) => {
+        const byNumber = new Map(current.map((flight) => [flight.flightNumber, flight]));
+        changed.forEach((flight) => byNumber.set(flight.flightNumber, flight));
+        return Array.from(byNumber.values());
+      });
+      setLastUpdated(new Date());
+    });
+    // Sent when updates were dropped because this client fell behind
+    source.addEventListener('resync', () => fetchFlightStatuses());
+
+    return () => source.close();
   }, []);
 
   const fetchFlightStatuses = async () => {
@@ -58,15 +67,6 @@ export default function FlightStatusPage() {
     }
   };
 
-  const simulateStatusUpdates = async () => {
-    try {
-      await axios.post('http://localhost:8080/api/flight-status/simulate-all');
-      fetchFlightStatuses();
-    } catch (error) {
-      console.error('Error simulating status updates:', error);
-    }
-  };
-
   const searchFlights = async () => {
     if (!searchQuery.trim()) {
       fetchFlightStatuses();
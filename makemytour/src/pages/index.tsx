@@ -1,5 +1,3 @@
-import { getflight, gethotel } from "@/api";
-import Loader from "@/components/Loader";
 import EnhancedSearch from "@/components/EnhancedSearch";
 import SignupDialog from "@/components/SignupDialog";
 import { Button } from "@/components/ui/button";
@@ -22,17 +20,12 @@ import {
   ArrowRight,
 } from "lucide-react";
 import { useRouter } from "next/router";
-import { useEffect, useMemo, useState } from "react";
-import { useSelector } from "react-redux";
+import { useMemo, useState } from "react";
 import Link from "next/link";
 
 export default function Home() {
   const [searchresults, setsearchresult] = useState<any[]>([]);
   const [searchType, setSearchType] = useState<string>('flights');
-  const [hotel, sethotel] = useState<any[]>([]);
-  const [loading, setloading] = useState(true);
-  const [flight, setflight] = useState<any[]>([]);
-  const user = useSelector((state: any) => state.user.user);
   const router = useRouter();
 
   const offers = [
@@ -106,32 +99,11 @@ export default function Home() {
     },
   ];
 
-  useEffect(() => {
-    const fetchdata = async () => {
-      try {
-        const data = await gethotel();
-        sethotel(data);
-        const flightdata = await getflight();
-        setflight(flightdata);
-      } catch (error) {
-        console.error(error);
-      } finally {
-        setloading(false);
-      }
-    };
-
-    fetchdata();
-  }, [user]);
-
   const handleSearchResults = (results: any[], type: string) => {
     setsearchresult(results);
     setSearchType(type);
   };
 
-  if (loading) {
-    return <Loader />;
-  }
-
   const formatDate = (dateString: string): string => {
     const options: Intl.DateTimeFormatOptions = {
       year: "numeric",
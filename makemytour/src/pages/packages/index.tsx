@@ -40,6 +40,8 @@ export default function PackagesPage() {
   const [packages, setPackages] = useState<TravelPackage[]>([]);
   const [filteredPackages, setFilteredPackages] = useState<TravelPackage[]>([]);
   const [loading, setLoading] = useState(true);
+  const [nextCursor, setNextCursor] = useState<string | undefined>();
+  const [loadingMore, setLoadingMore] = useState(false);
   const [searchQuery, setSearchQuery] = useState('');
   const [selectedType, setSelectedType] = useState('ALL');
   const [priceRange, setPriceRange] = useState({ min: 0, max: 50000 });
@@ -56,17 +58,27 @@ export default function PackagesPage() {
     filterPackages();
   }, [packages, searchQuery, selectedType, priceRange, durationRange]);
 
-  const fetchPackages = async () => {
+  // The listing is paged; X-Next-Cursor fetches the page after this one and is missing on the last
+  const fetchPackages = async (cursor?: string) => {
     try {
-      const response = await axios.get('http://localhost:8080/api/packages');
-      setPackages(response.data);
+      const response = await axios.get('http://localhost:8080/api/packages', {
+        params: cursor ? { cursor } : {}
+      });
+      setPackages(loaded => (cursor ? [...loaded, ...response.data] : response.data));
+      setNextCursor(response.headers['x-next-cursor']);
     } catch (error) {
       console.error('Error fetching packages:', error);
     } finally {
       setLoading(false);
+      setLoadingMore(false);
     }
   };
 
+  const loadMorePackages = () => {
+    setLoadingMore(true);
+    fetchPackages(nextCursor);
+  };
+
   const initializeMockData = async () => {
     try {
       await axios.post('http://localhost:8080/api/packages/initialize-mock-data');
@@ -280,6 +292,15 @@ export default function PackagesPage() {
             ))
           )}
         </div>
+
+        {/* Filters only see the pages loaded so far */}
+        {nextCursor && (
+          <div className="mt-8 text-center">
+            <Button variant="outline" onClick={loadMorePackages} disabled={loadingMore}>
+              {loadingMore ? 'Loading...' : 'Load more packages'}
+            </Button>
+          </div>
+        )}
       </div>
     </div>
   );
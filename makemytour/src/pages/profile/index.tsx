@@ -1,4 +1,4 @@
-import React, { useState } from "react";
+import React, { useEffect, useState } from "react";
 import {
   User,
   Phone,
@@ -16,7 +16,7 @@ import {
 import { useDispatch, useSelector } from "react-redux";
 import { useRouter } from "next/router";
 import { clearUser, setUser } from "@/store";
-import { editprofile } from "@/api";
+import { editprofile, getuserbookings } from "@/api";
 const index = () => {
   const dispatch = useDispatch();
   const user = useSelector((state: any) => state.user.user);
@@ -61,6 +61,12 @@ const index = () => {
   });
 
   const [editForm, setEditForm] = useState({ ...userData });
+  const [bookings, setBookings] = useState<any[]>(user?.bookings ?? []);
+
+  useEffect(() => {
+    if (!user?.id) return;
+    getuserbookings(user.id).then((page: any) => setBookings(page.bookings));
+  }, [user?.id]);
   const handleSave = async () => {
     try {
       const data = await editprofile(
@@ -214,7 +220,7 @@ const index = () => {
             <div className="bg-white rounded-xl shadow-lg p-6">
               <h2 className="text-2xl font-bold mb-6">My Bookings</h2>
               <div className="space-y-6">
-                {user?.bookings.map((booking: any, index: any) => (
+                {bookings.map((booking: any, index: any) => (
                   <div
                     key={index}
                     className="border rounded-lg p-4 hover:shadow-md transition-shadow"
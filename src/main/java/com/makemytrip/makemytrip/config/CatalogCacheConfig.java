@@ -0,0 +1,32 @@
+package com.makemytrip.makemytrip.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Flight and hotel pages carry seat and room counts that change with every booking. Evicting them
+// on each booking left them almost never warm, so instead they expire quickly on their own and
+// the other catalog caches keep spring.cache.caffeine.spec.
+@Configuration
+public class CatalogCacheConfig {
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> inventoryPagesCustomizer(
+            @Value("${catalog-cache.inventory-pages-ttl:30s}") Duration ttl,
+            @Value("${catalog-cache.inventory-pages-size:10000}") long maxSize) {
+        return cacheManager -> {
+            for (String name : new String[] {CatalogCaches.FLIGHT_PAGES, CatalogCaches.HOTEL_PAGES}) {
+                cacheManager.registerCustomCache(name, Caffeine.newBuilder()
+                    .maximumSize(maxSize)
+                    .expireAfterWrite(ttl)
+                    .recordStats()
+                    .build());
+            }
+        };
+    }
+}
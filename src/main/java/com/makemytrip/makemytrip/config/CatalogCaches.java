@@ -0,0 +1,14 @@
+package com.makemytrip.makemytrip.config;
+
+// Names of the read-through catalog caches, sized and expired by spring.cache.caffeine.spec
+public final class CatalogCaches {
+    public static final String PACKAGES = "packages";
+    public static final String PACKAGE_PAGES = "packagePages";
+    public static final String PACKAGE = "package";
+    public static final String FLIGHT_STATUS = "flightStatus";
+    public static final String FLIGHT_PAGES = "flightPages";
+    public static final String HOTEL_PAGES = "hotelPages";
+
+    private CatalogCaches() {
+    }
+}
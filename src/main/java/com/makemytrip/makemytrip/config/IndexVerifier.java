@@ -0,0 +1,281 @@
+package com.makemytrip.makemytrip.config;
+
+import com.makemytrip.makemytrip.models.BookingRecord;
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.models.FlightStatus;
+import com.makemytrip.makemytrip.models.Hotel;
+import com.makemytrip.makemytrip.models.IdempotencyKey;
+import com.makemytrip.makemytrip.models.SearchHistory;
+import com.makemytrip.makemytrip.models.SearchKeys;
+import com.makemytrip.makemytrip.models.TravelPackage;
+import com.makemytrip.makemytrip.models.Users;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.support.RepositoryFactoryInformation;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Creates the indexes declared on the @Document models, then asks Mongo to explain the shape of
+// each repository finder and keyset listing and warns about any that would still scan the whole
+// collection. Finders that match most of a collection (seats or rooms left, active packages) are
+// expected to scan, since an index on them costs more on every write than it saves. A repository
+// finder without a probe is reported too, so the list below cannot silently fall behind.
+// Index creation is done here rather than by spring.data.mongodb.auto-index-creation so a
+// failure (e.g. duplicates blocking a unique index) is logged instead of stopping startup.
+@Component
+public class IndexVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexVerifier.class);
+
+    // One sample query per repository finder and keyset listing; the values only need the right type
+    private static final List<Probe> PROBES = List.of(
+        new Probe("FlightRepository.findByFromAndTo", Flight.class, new Document("from", "DEL").append("to", "BOM")),
+        new Probe("FlightRepository.findByFlightName", Flight.class, new Document("flightName", "IndiGo")),
+        new Probe("FlightRepository.findByPriceRange", Flight.class, range("price", 0.0, 10000.0)),
+        Probe.scan("FlightRepository.findByAvailableSeatsGreaterThan", Flight.class,
+            new Document("availableSeats", new Document("$gt", 0))),
+        new Probe("FlightRepository.findByFromPrefix", Flight.class, prefix("from", "del")),
+        new Probe("FlightRepository.findByToPrefix", Flight.class, prefix("to", "bom")),
+        new Probe("FlightRepository.findByFromOrToPrefix", Flight.class,
+            new Document("$or", List.of(prefix("from", "del"), prefix("to", "del")))),
+        new Probe("FlightRepository.findByFlightNamePrefix", Flight.class, prefix("flightName", "indi")),
+        new Probe("HotelRepository.findByLocation", Hotel.class, new Document("location", "Goa")),
+        new Probe("HotelRepository.findByPriceRange", Hotel.class, range("pricePerNight", 0.0, 10000.0)),
+        Probe.scan("HotelRepository.findByAvailableRoomsGreaterThan", Hotel.class,
+            new Document("availableRooms", new Document("$gt", 0))),
+        new Probe("HotelRepository.findByLocationPrefix", Hotel.class, prefix("location", "goa")),
+        new Probe("HotelRepository.findByHotelNamePrefix", Hotel.class, prefix("hotelName", "taj")),
+        new Probe("HotelRepository.findByAmenitiesPrefix", Hotel.class, prefix("amenities", "pool")),
+        new Probe("HotelRepository.findByLocationPrefixAndPriceRange", Hotel.class,
+            new Document("$and", List.of(prefix("location", "goa"), range("pricePerNight", 0.0, 10000.0)))),
+        new Probe("FlightStatusRepository.findByFlightNumber", FlightStatus.class, new Document("flightNumber", "AI101")),
+        new Probe("FlightStatusRepository.findByAirline", FlightStatus.class, new Document("airline", "IndiGo")),
+        new Probe("FlightStatusRepository.findByOriginAndDestination", FlightStatus.class,
+            new Document("origin", "DEL").append("destination", "BOM")),
+        new Probe("FlightStatusRepository.findByStatus", FlightStatus.class, new Document("status", "DELAYED")),
+        new Probe("FlightStatusRepository.findByFlightNumberPrefix", FlightStatus.class, prefix("flightNumber", "ai")),
+        new Probe("FlightStatusRepository.findByOriginOrDestinationPrefix", FlightStatus.class,
+            new Document("$or", List.of(prefix("origin", "del"), prefix("destination", "del")))),
+        new Probe("SearchHistoryRepository.findByUserIdOrderBySearchDateTimeDesc", SearchHistory.class,
+            new Document("userId", "u"), new Document("searchDateTime", -1)),
+        new Probe("SearchHistoryRepository.findByUserIdAndSearchTypeOrderBySearchDateTimeDesc", SearchHistory.class,
+            new Document("userId", "u").append("searchType", "FLIGHT"), new Document("searchDateTime", -1)),
+        new Probe("SearchHistoryRepository.findTop10ByUserIdOrderBySearchDateTimeDesc", SearchHistory.class,
+            new Document("userId", "u"), new Document("searchDateTime", -1)),
+        new Probe("SearchHistoryRepository.findTop10ByUserIdAndSearchTypeOrderBySearchDateTimeDesc", SearchHistory.class,
+            new Document("userId", "u").append("searchType", "FLIGHT"), new Document("searchDateTime", -1)),
+        new Probe("SearchHistoryRepository.deleteByUserId", SearchHistory.class, new Document("userId", "u")),
+        new Probe("BookingRepository.countByUserId", BookingRecord.class, new Document("userId", "u")),
+        new Probe("TravelPackageRepository.findByDestination", TravelPackage.class, new Document("destination", "Goa")),
+        new Probe("TravelPackageRepository.findByPackageType", TravelPackage.class, new Document("packageType", "PRE_BUILT")),
+        Probe.scan("TravelPackageRepository.findByIsActiveTrue", TravelPackage.class, new Document("isActive", true)),
+        new Probe("TravelPackageRepository.findByPriceRange", TravelPackage.class, range("discountedPrice", 0.0, 10000.0)),
+        new Probe("TravelPackageRepository.findByDurationRange", TravelPackage.class, range("duration", 1, 30)),
+        new Probe("TravelPackageRepository.findByDestinationPrefix", TravelPackage.class, prefix("destination", "goa")),
+        new Probe("TravelPackageService.searchPackages (name)", TravelPackage.class, prefix("packageName", "goa")),
+        new Probe("TravelPackageService.searchPackages (text)", TravelPackage.class,
+            new Document("$text", new Document("$search", "goa"))),
+        new Probe("UserRepository.findByEmail", Users.class, new Document("email", "user@example.com")),
+        // Keyset listings: the default sort plus the _id tie-break, as KeysetPaging.scroll sends them
+        new Probe("CatalogService.flights", Flight.class, new Document(),
+            new Document("price", 1).append("_id", 1)),
+        new Probe("CatalogService.hotels", Hotel.class, new Document(),
+            new Document("pricePerNight", 1).append("_id", 1)),
+        new Probe("TravelPackageService.getAllPackages", TravelPackage.class, new Document("isActive", true),
+            new Document("discountedPrice", 1).append("_id", 1)),
+        new Probe("AdminController.getallusers", Users.class, new Document(), new Document("_id", 1)),
+        new Probe("BookingService.getBookings", BookingRecord.class, new Document("userId", "u"),
+            new Document("createdAt", -1).append("_id", 1)),
+        new Probe("IdempotencyKeys.complete", IdempotencyKey.class, new Document("_id", "u:key")),
+        new Probe("IdempotencyKeys.release", IdempotencyKey.class,
+            new Document("_id", "u:key").append("state", IdempotencyKey.IN_PROGRESS)));
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Value("${search.text-indexes.enabled:false}")
+    private boolean textIndexesEnabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            ensureIndexes();
+            verifyQueries();
+            for (String finder : unprobedFinders()) {
+                log.warn("{} has no query plan probe in IndexVerifier", finder);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Index verification did not complete: {}", e.getMessage());
+        }
+    }
+
+    public void ensureIndexes() {
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(org.springframework.data.mongodb.core.mapping.Document.class)) {
+                continue;
+            }
+            IndexOperations indexOps = mongoTemplate.indexOps(entity.getType());
+            for (IndexDefinition index : resolver.resolveIndexFor(entity.getTypeInformation())) {
+                try {
+                    indexOps.ensureIndex(index);
+                } catch (RuntimeException e) {
+                    log.warn("Could not create index {} on {}: {}",
+                        index.getIndexKeys().toJson(), entity.getCollection(), e.getMessage());
+                }
+            }
+        }
+
+        // Optional, for free-text package search; a collection can only have one text index
+        if (textIndexesEnabled) {
+            try {
+                mongoTemplate.indexOps(TravelPackage.class).ensureIndex(new TextIndexDefinition.TextIndexDefinitionBuilder()
+                    .named("package_text")
+                    .onField("packageName", 3F)
+                    .onField("destination", 2F)
+                    .onField("description")
+                    .build());
+            } catch (RuntimeException e) {
+                log.warn("Could not create the package text index: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Returns the finders whose winning plan is a collection scan
+    public List<String> verifyQueries() {
+        List<String> scans = new ArrayList<>();
+        for (Probe probe : PROBES) {
+            // Text queries fail outright without the optional text index
+            if (!textIndexesEnabled && probe.filter.containsKey("$text")) {
+                continue;
+            }
+            Document plan;
+            try {
+                plan = mongoTemplate.getCollection(mongoTemplate.getCollectionName(probe.type))
+                    .find(probe.filter)
+                    .sort(probe.sort)
+                    .explain();
+            } catch (RuntimeException e) {
+                log.info("Query plans not checked, explain is not available: {}", e.getMessage());
+                return scans;
+            }
+            Document queryPlanner = plan.get("queryPlanner", Document.class);
+            if (!probe.scanAccepted && queryPlanner != null && hasStage(queryPlanner.get("winningPlan"), "COLLSCAN")) {
+                scans.add(probe.name);
+                log.warn("{} runs as a collection scan on {}", probe.name, probe.filter.toJson());
+            }
+        }
+        if (scans.isEmpty()) {
+            log.info("Query plans checked: all {} probed queries use an index where expected", PROBES.size());
+        }
+        return scans;
+    }
+
+    // Query methods declared on the blocking repositories that no probe covers
+    public List<String> unprobedFinders() {
+        Set<String> probed = new HashSet<>();
+        for (Probe probe : PROBES) {
+            probed.add(probe.name);
+        }
+        List<String> missing = new ArrayList<>();
+        for (String beanName : BeanFactoryUtils.beanNamesForTypeIncludingAncestors(
+                applicationContext, RepositoryFactoryInformation.class, false, false)) {
+            RepositoryInformation repository = applicationContext
+                .getBean(beanName, RepositoryFactoryInformation.class).getRepositoryInformation();
+            if (repository.isReactiveRepository()) {
+                continue;
+            }
+            for (Method method : repository.getQueryMethods()) {
+                String name = repository.getRepositoryInterface().getSimpleName() + "." + method.getName();
+                if (!probed.contains(name) && !missing.contains(name)) {
+                    missing.add(name);
+                }
+            }
+        }
+        return missing;
+    }
+
+    private static boolean hasStage(Object plan, String stage) {
+        if (plan instanceof Document) {
+            Document node = (Document) plan;
+            if (stage.equals(node.getString("stage"))) {
+                return true;
+            }
+            for (Object child : node.values()) {
+                if (hasStage(child, stage)) {
+                    return true;
+                }
+            }
+        } else if (plan instanceof List) {
+            for (Object child : (List<?>) plan) {
+                if (hasStage(child, stage)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Document range(String field, Object min, Object max) {
+        return new Document(field, new Document("$gte", min).append("$lte", max));
+    }
+
+    private static Document prefix(String field, String text) {
+        return new Document(SearchKeys.path(field), SearchKeys.prefix(text));
+    }
+
+    private static final class Probe {
+        private final String name;
+        private final Class<?> type;
+        private final Document filter;
+        private final Document sort;
+        private final boolean scanAccepted;
+
+        private Probe(String name, Class<?> type, Document filter) {
+            this(name, type, filter, new Document());
+        }
+
+        private Probe(String name, Class<?> type, Document filter, Document sort) {
+            this(name, type, filter, sort, false);
+        }
+
+        private Probe(String name, Class<?> type, Document filter, Document sort, boolean scanAccepted) {
+            this.name = name;
+            this.type = type;
+            this.filter = filter;
+            this.sort = sort;
+            this.scanAccepted = scanAccepted;
+        }
+
+        // A finder that matches most of its collection, where a scan is the right plan
+        private static Probe scan(String name, Class<?> type, Document filter) {
+            return new Probe(name, type, filter, new Document(), true);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.makemytrip.makemytrip.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+// Connection pool limits; once requests run on virtual threads this pool is what bounds
+// concurrent Mongo calls, so it is sized per profile
+@Configuration
+public class MongoPoolConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoPoolCustomizer(
+            @Value("${mongodb.pool.max-size:100}") int maxSize,
+            @Value("${mongodb.pool.max-wait-ms:120000}") long maxWaitMillis) {
+        return settings -> settings.applyToConnectionPoolSettings(pool -> pool
+            .maxSize(maxSize)
+            .maxWaitTime(maxWaitMillis, TimeUnit.MILLISECONDS));
+    }
+}
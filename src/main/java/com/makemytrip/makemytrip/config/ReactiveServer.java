@@ -0,0 +1,129 @@
+package com.makemytrip.makemytrip.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.makemytrip.makemytrip.controllers.reactive.ReactiveFlightStatusHandler;
+import com.makemytrip.makemytrip.controllers.reactive.ReactiveSearchHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import org.springframework.web.server.handler.ResponseStatusExceptionHandler;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.util.List;
+
+// With the "reactive" profile, the search and flight-status reads are also served by WebFlux
+// handlers on a separate Netty port, next to the servlet API, so the two stacks can be compared
+// under the same load. Requests run on a few event-loop threads and never block them.
+@Component
+@Profile("reactive")
+public class ReactiveServer {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveServer.class);
+
+    @Autowired
+    private ReactiveSearchHandler searchHandler;
+
+    @Autowired
+    private ReactiveFlightStatusHandler flightStatusHandler;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${reactive.server.port:8081}")
+    private int port;
+
+    @Value("${reactive.server.event-loop-threads:4}")
+    private int eventLoopThreads;
+
+    private LoopResources loops;
+    private volatile DisposableServer server;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // Same JSON as the MVC endpoints
+        HandlerStrategies strategies = HandlerStrategies.builder()
+            .codecs(codecs -> {
+                codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+            })
+            .build();
+        HttpHandler httpHandler = WebHttpHandlerBuilder
+            .webHandler(RouterFunctions.toWebHandler(routes(), strategies))
+            .filter(new CorsWebFilter(cors()))
+            .exceptionHandler(new ResponseStatusExceptionHandler())
+            .build();
+
+        loops = LoopResources.create("reactive-http", eventLoopThreads, true);
+        server = HttpServer.create()
+            .port(port)
+            .runOn(loops)
+            .handle(new ReactorHttpHandlerAdapter(httpHandler))
+            .bindNow();
+        log.info("Reactive API listening on port {} with {} event-loop threads", server.port(), eventLoopThreads);
+    }
+
+    // The bound port, or -1 before startup; useful when reactive.server.port=0
+    public int getPort() {
+        DisposableServer current = server;
+        return current == null ? -1 : current.port();
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        if (server != null) {
+            server.disposeNow();
+            server = null;
+        }
+        if (loops != null) {
+            loops.disposeLater().block();
+            loops = null;
+        }
+    }
+
+    private RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+            .path("/api/search", search -> search
+                .GET("/flights", searchHandler::searchFlights)
+                .GET("/hotels", searchHandler::searchHotels)
+                .GET("/suggestions/locations", searchHandler::locationSuggestions)
+                .GET("/suggestions/airlines", searchHandler::airlineSuggestions))
+            .path("/api/flight-status", status -> status
+                .GET("/airline/{airline}", flightStatusHandler::byAirline)
+                .GET("/route", flightStatusHandler::byRoute)
+                .GET("/search", flightStatusHandler::search)
+                .GET("/{flightNumber}", flightStatusHandler::byFlightNumber)
+                .GET("", flightStatusHandler::all))
+            .build();
+    }
+
+    private static UrlBasedCorsConfigurationSource cors() {
+        CorsConfiguration config = new CorsConfiguration();
+        config.setAllowedOrigins(List.of("*"));
+        config.setAllowedMethods(List.of("GET", "OPTIONS"));
+        config.setAllowedHeaders(List.of("*"));
+        config.setAllowCredentials(false);
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", config);
+        return source;
+    }
+}
@@ -0,0 +1,16 @@
+package com.makemytrip.makemytrip.config;
+
+import com.makemytrip.makemytrip.models.Searchable;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.stereotype.Component;
+
+// Keeps the search keys in step with the text fields on every save and insert
+@Component
+public class SearchKeyListener extends AbstractMongoEventListener<Searchable> {
+
+    @Override
+    public void onBeforeConvert(BeforeConvertEvent<Searchable> event) {
+        event.getSource().refreshSearchKeys();
+    }
+}
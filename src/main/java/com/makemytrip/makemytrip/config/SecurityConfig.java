@@ -22,6 +22,7 @@ public class SecurityConfig {
                         .allowedOrigins("*") // Allow all origins
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS") // Allow specific HTTP methods
                         .allowedHeaders("*") // Allow all headers
+                        .exposedHeaders("X-Next-Cursor") // Let browsers read the pagination cursor
                         .allowCredentials(false); // Disallow credentials for safety
             }
         };
@@ -0,0 +1,136 @@
+package com.makemytrip.makemytrip.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Logs Mongo commands slower than mongodb.slow-query.threshold-ms with the shape of the query:
+// field names and operators kept, values replaced by "?", so it can be matched to an index
+// without logging user data. Timings for every command are in the mongodb.driver.commands metric.
+@Component
+public class SlowCommandLogger implements CommandListener, MongoClientSettingsBuilderCustomizer {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowCommandLogger.class);
+
+    private static final Set<String> SHAPED = Set.of(
+        "find", "aggregate", "count", "distinct", "findAndModify", "update", "delete");
+    // Keys whose values describe the query rather than carry data
+    private static final Set<String> VERBATIM = Set.of("sort", "projection", "hint", "limit", "skip");
+    private static final Set<String> IGNORED = Set.of(
+        "$db", "lsid", "$clusterTime", "txnNumber", "$readPreference", "documents");
+    private static final int MAX_ELEMENTS = 10;
+
+    private final long thresholdMillis;
+    // The command document is only readable while its event is delivered, so the shape is taken then
+    private final Map<Integer, String> shapes = new ConcurrentHashMap<>();
+
+    public SlowCommandLogger(@Value("${mongodb.slow-query.threshold-ms:100}") long thresholdMillis) {
+        this.thresholdMillis = thresholdMillis;
+    }
+
+    @Override
+    public void customize(MongoClientSettings.Builder settings) {
+        if (thresholdMillis > 0) {
+            settings.addCommandListener(this);
+        }
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        BsonDocument command = event.getCommand();
+        if (SHAPED.contains(event.getCommandName())) {
+            shapes.put(event.getRequestId(), shape(command).toJson());
+        } else if (!command.isEmpty()) {
+            // Others just name their collection
+            String name = command.getFirstKey();
+            shapes.put(event.getRequestId(), new BsonDocument(name, command.get(name)).toJson());
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        completed(event.getRequestId(), event.getCommandName(), event.getDatabaseName(),
+            event.getElapsedTime(TimeUnit.MILLISECONDS), null);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        completed(event.getRequestId(), event.getCommandName(), event.getDatabaseName(),
+            event.getElapsedTime(TimeUnit.MILLISECONDS), event.getThrowable());
+    }
+
+    private void completed(int requestId, String commandName, String database, long elapsedMillis, Throwable failure) {
+        String shape = shapes.remove(requestId);
+        if (elapsedMillis < thresholdMillis) {
+            return;
+        }
+        if (failure != null) {
+            log.warn("Slow Mongo {} on {} failed after {} ms: {} ({})", commandName, database, elapsedMillis,
+                shape != null ? shape : "", failure.getMessage());
+        } else {
+            log.warn("Slow Mongo {} on {} took {} ms: {}", commandName, database, elapsedMillis,
+                shape != null ? shape : "");
+        }
+    }
+
+    private static BsonDocument shape(BsonDocument command) {
+        BsonDocument shape = new BsonDocument();
+        boolean first = true;
+        for (Map.Entry<String, BsonValue> entry : command.entrySet()) {
+            if (IGNORED.contains(entry.getKey())) {
+                continue;
+            }
+            // The first key is the command name and its value the collection
+            shape.put(entry.getKey(), first || VERBATIM.contains(entry.getKey())
+                ? entry.getValue() : shapeOf(entry.getValue()));
+            first = false;
+        }
+        return shape;
+    }
+
+    private static BsonValue shapeOf(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument shape = new BsonDocument();
+            for (Map.Entry<String, BsonValue> entry : value.asDocument().entrySet()) {
+                shape.put(entry.getKey(), VERBATIM.contains(entry.getKey())
+                    ? entry.getValue() : shapeOf(entry.getValue()));
+            }
+            return shape;
+        }
+        if (value.isArray()) {
+            BsonArray values = value.asArray();
+            // Pipelines and $or/$and branches differ per element, value lists ($in) do not;
+            // bulk updates and deletes are cut short
+            BsonArray shape = new BsonArray();
+            for (BsonValue element : values) {
+                if (!element.isDocument()) {
+                    shape.add(new BsonString("?"));
+                    break;
+                }
+                if (shape.size() == MAX_ELEMENTS) {
+                    shape.add(new BsonString("+" + (values.size() - MAX_ELEMENTS) + " more"));
+                    break;
+                }
+                shape.add(shapeOf(element));
+            }
+            return shape;
+        }
+        return new BsonString("?");
+    }
+}
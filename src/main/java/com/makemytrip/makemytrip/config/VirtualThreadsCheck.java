@@ -0,0 +1,20 @@
+package com.makemytrip.makemytrip.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+// Spring Boot quietly keeps platform threads when spring.threads.virtual.enabled is set on a
+// runtime older than Java 21, which would leave the virtual-threads profile's larger connection
+// limits and Mongo pool in front of Tomcat's bounded pool. Refuse to start instead.
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsCheck {
+
+    public VirtualThreadsCheck() {
+        int feature = Runtime.version().feature();
+        if (feature < 21) {
+            throw new IllegalStateException("spring.threads.virtual.enabled needs a Java 21+ runtime, this is Java "
+                + feature + "; drop the virtual-threads profile or run on Java 21 (build with -Pjdk21)");
+        }
+    }
+}
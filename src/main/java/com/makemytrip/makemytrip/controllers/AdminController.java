@@ -3,12 +3,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import com.makemytrip.makemytrip.models.CursorPage;
 import com.makemytrip.makemytrip.models.Users;
 import com.makemytrip.makemytrip.models.Flight;
 import com.makemytrip.makemytrip.models.Hotel;
 import com.makemytrip.makemytrip.repositories.UserRepository;
 import com.makemytrip.makemytrip.repositories.FlightRepository;
 import com.makemytrip.makemytrip.repositories.HotelRepository;
+import com.makemytrip.makemytrip.services.AutocompleteIndex;
+import com.makemytrip.makemytrip.services.CatalogService;
+import com.makemytrip.makemytrip.services.FlightSearchIndex;
+import com.makemytrip.makemytrip.services.KeysetPaging;
+import com.makemytrip.makemytrip.services.PackageQuoteCache;
+import com.makemytrip.makemytrip.services.PackageRepricer;
+import org.springframework.data.mongodb.core.query.Query;
 import java.util.List;
 import java.util.Optional;
 @RestController
@@ -24,25 +32,52 @@ public class AdminController {
     @Autowired
     private FlightRepository flightRepository;
 
+    @Autowired
+    private FlightSearchIndex flightSearchIndex;
+
+    @Autowired
+    private KeysetPaging keysetPaging;
+
+    @Autowired
+    private AutocompleteIndex autocompleteIndex;
+
+    @Autowired
+    private PackageRepricer packageRepricer;
+
+    @Autowired
+    private PackageQuoteCache packageQuoteCache;
+
+    @Autowired
+    private CatalogService catalogService;
+
     @GetMapping("/users")
-    public ResponseEntity<List<Users>> getallusers(){
-        List<Users> users=userRepository.findAll();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<Users>> getallusers(@RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer size){
+        CursorPage<Users> page=keysetPaging.scroll(new Query(), Users.class, KeysetPaging.USER_SORTS, null, cursor, size);
+        return ResponseEntity.ok().headers(keysetPaging.headers(page)).body(page.getItems());
     }
     @PostMapping("/flight")
     public Flight addflight(@RequestBody Flight flight){
-        return flightRepository.save(flight);
+        Flight saved = flightRepository.save(flight);
+        flightSearchIndex.upsert(saved);
+        autocompleteIndex.flightSaved(saved);
+        catalogService.flightsChanged();
+        return saved;
     }
 
     @PostMapping("/hotel")
     public Hotel addhotel(@RequestBody Hotel hotel){
-        return hotelRepository.save(hotel);
+        Hotel saved = hotelRepository.save(hotel);
+        autocompleteIndex.hotelSaved(saved);
+        catalogService.hotelsChanged();
+        return saved;
     }
     @PutMapping("flight/{id}")
     public ResponseEntity<Flight> editflight(@PathVariable String id, @RequestBody Flight updatedFlight){
         Optional<Flight> flightOptional=flightRepository.findById(id);
         if(flightOptional.isPresent()){
             Flight flight = flightOptional.get();
+            boolean repriced = flight.getPrice() != updatedFlight.getPrice();
             flight.setFlightName(updatedFlight.getFlightName());
             flight.setFrom(updatedFlight.getFrom());
             flight.setTo(updatedFlight.getTo());
@@ -50,7 +85,16 @@ public class AdminController {
             flight.setArrivalTime(updatedFlight.getArrivalTime());
             flight.setPrice(updatedFlight.getPrice());
             flight.setAvailableSeats(updatedFlight.getAvailableSeats());
+            // Newer than any booking that read the flight before this edit
+            flight.setInventoryVersion(flight.getInventoryVersion()+1);
             flightRepository.save(flight);
+            flightSearchIndex.upsert(flight);
+            autocompleteIndex.flightSaved(flight);
+            catalogService.flightsChanged();
+            packageQuoteCache.flightChanged(flight.getId());
+            if (repriced) {
+                packageRepricer.flightPriceChanged(flight.getId());
+            }
             return  ResponseEntity.ok(flight);
         }
         return ResponseEntity.notFound().build();
@@ -60,15 +104,27 @@ public class AdminController {
         Optional<Hotel> hotelOptional=hotelRepository.findById(id);
         if(hotelOptional.isPresent()){
             Hotel hotel = hotelOptional.get();
+            boolean repriced = hotel.getPricePerNight() != updatedHotel.getPricePerNight();
             hotel.sethotelName(updatedHotel.gethotelName());
             hotel.setLocation(updatedHotel.getLocation());
             hotel.setAvailableRooms(updatedHotel.getAvailableRooms());
             hotel.setPricePerNight(updatedHotel.getPricePerNight());
             hotel.setamenities((updatedHotel.getamenities()));
             hotelRepository.save(hotel);
+            autocompleteIndex.hotelSaved(hotel);
+            catalogService.hotelsChanged();
+            packageQuoteCache.hotelChanged(hotel.getId());
+            if (repriced) {
+                packageRepricer.hotelPriceChanged(hotel.getId());
+            }
             return ResponseEntity.ok(hotel);
             }
         return ResponseEntity.notFound().build();
     }
 
-}
\ No newline at end of file
+    // Recomputes every package price from current flight and hotel prices
+    @PostMapping("/packages/reprice")
+    public ResponseEntity<Integer> repricePackages(){
+        return ResponseEntity.ok(packageRepricer.repriceAll());
+    }
+}
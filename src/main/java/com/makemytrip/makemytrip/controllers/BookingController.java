@@ -1,22 +1,152 @@
 package com.makemytrip.makemytrip.controllers;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import com.makemytrip.makemytrip.models.BatchBookingRequest;
+import com.makemytrip.makemytrip.models.BatchBookingResult;
+import com.makemytrip.makemytrip.models.BookingRecord;
+import com.makemytrip.makemytrip.models.BookingResult;
+import com.makemytrip.makemytrip.models.CursorPage;
+import com.makemytrip.makemytrip.models.IdempotentResult;
 import com.makemytrip.makemytrip.models.Users;
 import com.makemytrip.makemytrip.services.BookingService;
+import com.makemytrip.makemytrip.services.IdempotencyKeys;
+import com.makemytrip.makemytrip.services.KeysetPaging;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/booking")
 public class BookingController {
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private KeysetPaging keysetPaging;
+
+    @Autowired
+    private IdempotencyKeys idempotencyKeys;
+
+    @Value("${booking.batch.max-items:20}")
+    private int maxBatchItems;
+
+    // A retry sent with the same Idempotency-Key gets the first response back instead of booking again
     @PostMapping("/flight")
-    public Users.Booking bookFlight(@RequestParam String userId,@RequestParam String flightId,@RequestParam int seats,@RequestParam double price){
-        return bookingService.bookFlight(userId,flightId,seats,price);
+    public ResponseEntity<Users.Booking> bookFlight(@RequestParam String userId,@RequestParam String flightId,@RequestParam int seats,@RequestParam double price,
+                                                    @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey){
+        if(invalidKey(idempotencyKey)){
+            return ResponseEntity.badRequest().build();
+        }
+        return toResponse(idempotencyKeys.run(userId, idempotencyKey, "flight:"+flightId+":"+seats+":"+price,
+            () -> bookingService.bookFlight(userId,flightId,seats,price)));
     }
     @PostMapping("/hotel")
-    public Users.Booking bookhotel (@RequestParam String userId,@RequestParam String hotelId,@RequestParam int rooms,@RequestParam double price){
-        return bookingService.bookhotel(userId,hotelId,rooms,price);
+    public ResponseEntity<Users.Booking> bookhotel (@RequestParam String userId,@RequestParam String hotelId,@RequestParam int rooms,@RequestParam double price,
+                                                    @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey){
+        if(invalidKey(idempotencyKey)){
+            return ResponseEntity.badRequest().build();
+        }
+        return toResponse(idempotencyKeys.run(userId, idempotencyKey, "hotel:"+hotelId+":"+rooms+":"+price,
+            () -> bookingService.bookhotel(userId,hotelId,rooms,price)));
+    }
+
+    // Books every flight and hotel of an itinerary or none of them; on failure the body says which item failed.
+    // Idempotency-Key works as for single bookings, with the whole item list as the request.
+    @PostMapping("/batch")
+    public ResponseEntity<BatchBookingResult> bookItinerary(@RequestBody BatchBookingRequest request,
+                                                            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey){
+        if(invalidBatch(request) || invalidKey(idempotencyKey)){
+            return ResponseEntity.badRequest().build();
+        }
+        IdempotentResult<BatchBookingResult> idempotent=idempotencyKeys.runBatch(request.getUserId(), idempotencyKey, batchRequest(request),
+            () -> bookingService.bookItinerary(request.getUserId(),request.getItems()));
+        ResponseEntity<BatchBookingResult> refused=refused(idempotent);
+        if(refused != null){
+            return refused;
+        }
+        BatchBookingResult result=idempotent.getResult();
+        HttpHeaders headers=replayHeaders(idempotent);
+        switch (result.getStatus()) {
+            case BOOKED:
+                return ResponseEntity.ok().headers(headers).body(result);
+            case SOLD_OUT:
+                return ResponseEntity.status(HttpStatus.CONFLICT).headers(headers).body(result);
+            case NOT_FOUND:
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).headers(headers).body(result);
+            default:
+                return ResponseEntity.badRequest().headers(headers).body(result);
+        }
+    }
+
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<List<BookingRecord>> getbookings(@PathVariable String userId,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer size){
+        CursorPage<BookingRecord> page=bookingService.getBookings(userId,cursor,size);
+        return ResponseEntity.ok().headers(keysetPaging.headers(page)).body(page.getItems());
+    }
+
+    private static boolean invalidKey(String idempotencyKey){
+        return idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > IdempotencyKeys.MAX_KEY_LENGTH);
+    }
+
+    private boolean invalidBatch(BatchBookingRequest request){
+        if(request.getUserId() == null || request.getItems() == null || request.getItems().isEmpty()
+            || request.getItems().size() > maxBatchItems){
+            return true;
+        }
+        return request.getItems().stream().anyMatch(item -> item == null || item.getId() == null
+            || !("flight".equalsIgnoreCase(item.getType()) || "hotel".equalsIgnoreCase(item.getType())));
+    }
+
+    // The items in order, with the type spelled one way, so a retry matches however the client cased it
+    private static String batchRequest(BatchBookingRequest request){
+        return "batch:"+request.getItems().stream()
+            .map(item -> item.getType().toLowerCase()+":"+item.getId()+":"+item.getQuantity()+":"+item.getPrice())
+            .collect(Collectors.joining(","));
+    }
+
+    private ResponseEntity<Users.Booking> toResponse(IdempotentResult<BookingResult> idempotent){
+        ResponseEntity<Users.Booking> refused=refused(idempotent);
+        if(refused != null){
+            return refused;
+        }
+        BookingResult result=idempotent.getResult();
+        HttpHeaders headers=replayHeaders(idempotent);
+        switch (result.getStatus()) {
+            case BOOKED:
+                return ResponseEntity.ok().headers(headers).body(result.getBooking());
+            case SOLD_OUT:
+                return ResponseEntity.status(HttpStatus.CONFLICT).headers(headers).build();
+            case NOT_FOUND:
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).headers(headers).build();
+            default:
+                return ResponseEntity.badRequest().headers(headers).build();
+        }
+    }
+
+    // Null when the request ran or was replayed
+    private static <T> ResponseEntity<T> refused(IdempotentResult<?> idempotent){
+        switch (idempotent.getOutcome()) {
+            case IN_PROGRESS:
+                return ResponseEntity.status(HttpStatus.CONFLICT).header(HttpHeaders.RETRY_AFTER, "1").build();
+            case KEY_REUSED:
+                return ResponseEntity.unprocessableEntity().build();
+            default:
+                return null;
+        }
+    }
+
+    private static HttpHeaders replayHeaders(IdempotentResult<?> idempotent){
+        HttpHeaders headers=new HttpHeaders();
+        if(idempotent.isReplayed()){
+            headers.set("Idempotent-Replayed", "true");
+        }
+        return headers;
     }
 }
@@ -1,9 +1,13 @@
 package com.makemytrip.makemytrip.controllers;
 
+import com.makemytrip.makemytrip.models.CursorPage;
 import com.makemytrip.makemytrip.models.Flight;
 import com.makemytrip.makemytrip.models.Hotel;
 import com.makemytrip.makemytrip.models.SearchHistory;
+import com.makemytrip.makemytrip.models.UnifiedSearchResult;
 import com.makemytrip.makemytrip.services.EnhancedSearchService;
+import com.makemytrip.makemytrip.services.KeysetPaging;
+import com.makemytrip.makemytrip.services.UnifiedSearchService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,6 +21,12 @@ public class EnhancedSearchController {
     @Autowired
     private EnhancedSearchService enhancedSearchService;
 
+    @Autowired
+    private KeysetPaging keysetPaging;
+
+    @Autowired
+    private UnifiedSearchService unifiedSearchService;
+
     @GetMapping("/flights")
     public ResponseEntity<List<Flight>> searchFlights(
             @RequestParam(required = false) String from,
@@ -24,10 +34,14 @@ public class EnhancedSearchController {
             @RequestParam(required = false) String airline,
             @RequestParam(required = false) Double minPrice,
             @RequestParam(required = false) Double maxPrice,
-            @RequestParam(required = false) Integer minSeats) {
+            @RequestParam(required = false) Integer minSeats,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         
-        List<Flight> flights = enhancedSearchService.searchFlights(from, to, airline, minPrice, maxPrice, minSeats);
-        return ResponseEntity.ok(flights);
+        CursorPage<Flight> page = enhancedSearchService.searchFlights(
+            from, to, airline, minPrice, maxPrice, minSeats, sort, cursor, size);
+        return ResponseEntity.ok().headers(keysetPaging.headers(page)).body(page.getItems());
     }
 
     @GetMapping("/hotels")
@@ -36,10 +50,20 @@ public class EnhancedSearchController {
             @RequestParam(required = false) Double minPrice,
             @RequestParam(required = false) Double maxPrice,
             @RequestParam(required = false) String amenities,
-            @RequestParam(required = false) Integer minRooms) {
+            @RequestParam(required = false) Integer minRooms,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         
-        List<Hotel> hotels = enhancedSearchService.searchHotels(location, minPrice, maxPrice, amenities, minRooms);
-        return ResponseEntity.ok(hotels);
+        CursorPage<Hotel> page = enhancedSearchService.searchHotels(
+            location, minPrice, maxPrice, amenities, minRooms, sort, cursor, size);
+        return ResponseEntity.ok().headers(keysetPaging.headers(page)).body(page.getItems());
+    }
+
+    // Flights, hotels and packages for one query in a single round trip
+    @GetMapping("/all")
+    public ResponseEntity<UnifiedSearchResult> searchAll(@RequestParam String query) {
+        return ResponseEntity.ok(unifiedSearchService.search(query));
     }
 
     @GetMapping("/suggestions/locations")
@@ -1,10 +1,13 @@
 package com.makemytrip.makemytrip.controllers;
 
 import com.makemytrip.makemytrip.models.FlightStatus;
+import com.makemytrip.makemytrip.services.FlightStatusFeed;
 import com.makemytrip.makemytrip.services.FlightStatusService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,12 +19,25 @@ public class FlightStatusController {
     @Autowired
     private FlightStatusService flightStatusService;
 
+    @Autowired
+    private FlightStatusFeed flightStatusFeed;
+
     @GetMapping
     public ResponseEntity<List<FlightStatus>> getAllFlightStatuses() {
         List<FlightStatus> statuses = flightStatusService.getAllFlightStatuses();
         return ResponseEntity.ok(statuses);
     }
 
+    // Push channel: emits "status" events carrying only the flights that changed
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamFlightStatuses(
+            @RequestParam(required = false) String flightNumber,
+            @RequestParam(required = false) String airline,
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String destination) {
+        return flightStatusFeed.subscribe(flightNumber, airline, origin, destination);
+    }
+
     @GetMapping("/{flightNumber}")
     public ResponseEntity<FlightStatus> getFlightStatus(@PathVariable String flightNumber) {
         Optional<FlightStatus> status = flightStatusService.getFlightStatusByNumber(flightNumber);
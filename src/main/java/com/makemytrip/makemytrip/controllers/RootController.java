@@ -1,40 +1,84 @@
 package com.makemytrip.makemytrip.controllers;
-import com.makemytrip.makemytrip.models.Users;
+import com.makemytrip.makemytrip.models.CursorPage;
 import com.makemytrip.makemytrip.models.Flight;
 import com.makemytrip.makemytrip.models.Hotel;
-import com.makemytrip.makemytrip.repositories.UserRepository;
-import com.makemytrip.makemytrip.repositories.FlightRepository;
-import com.makemytrip.makemytrip.repositories.HotelRepository;
+import com.makemytrip.makemytrip.services.CatalogExportService;
+import com.makemytrip.makemytrip.services.CatalogService;
+import com.makemytrip.makemytrip.services.KeysetPaging;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
 
 @RestController
 @CrossOrigin(origins = "*")
 public class RootController {
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Autowired
+    private KeysetPaging keysetPaging;
+
     @Autowired
-    private HotelRepository hotelRepository;
+    private CatalogExportService catalogExportService;
 
     @Autowired
-    private FlightRepository flightRepository;
+    private CatalogService catalogService;
+
     @GetMapping("/")
     public String home() {
         return "✅ It's running on port 8080!";
     }
 
     @GetMapping("/hotel")
-    public ResponseEntity<List<Hotel>> getallhotel(){
-        List<Hotel> hotels=hotelRepository.findAll();
-        return ResponseEntity.ok(hotels);
+    public ResponseEntity<List<Hotel>> getallhotel(@RequestParam(required = false) String sort,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer size){
+        CursorPage<Hotel> page=catalogService.hotels(sort, cursor, size);
+        return ResponseEntity.ok().headers(keysetPaging.headers(page)).body(page.getItems());
     }
 
     @GetMapping("/flight")
-    public ResponseEntity<List<Flight>> getallflights(){
-        List<Flight> flights=flightRepository.findAll();
-        return ResponseEntity.ok(flights);
+    public ResponseEntity<List<Flight>> getallflights(@RequestParam(required = false) String sort,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer size){
+        CursorPage<Flight> page=catalogService.flights(sort, cursor, size);
+        return ResponseEntity.ok().headers(keysetPaging.headers(page)).body(page.getItems());
+    }
+
+    @GetMapping("/hotel/{id}")
+    public ResponseEntity<Hotel> gethotel(@PathVariable String id){
+        Hotel hotel=catalogService.hotel(id);
+        return hotel == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(hotel);
+    }
+
+    @GetMapping("/flight/{id}")
+    public ResponseEntity<Flight> getflight(@PathVariable String id){
+        Flight flight=catalogService.flight(id);
+        return flight == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(flight);
+    }
+
+    // Full-catalog feeds, one JSON document per line, written as they are read from Mongo
+    @GetMapping("/hotel/stream")
+    public ResponseEntity<StreamingResponseBody> streamhotels(@RequestParam(defaultValue = "false") boolean gzip){
+        return ndjson(Hotel.class, gzip);
+    }
+
+    @GetMapping("/flight/stream")
+    public ResponseEntity<StreamingResponseBody> streamflights(@RequestParam(defaultValue = "false") boolean gzip){
+        return ndjson(Flight.class, gzip);
+    }
+
+    private ResponseEntity<StreamingResponseBody> ndjson(Class<?> type, boolean gzip){
+        ResponseEntity.BodyBuilder response=ResponseEntity.ok().contentType(NDJSON);
+        if(gzip){
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(out -> catalogExportService.writeNdjson(type, out, gzip));
     }
 
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.makemytrip.makemytrip.controllers;
 
+import com.makemytrip.makemytrip.models.CursorPage;
+import com.makemytrip.makemytrip.models.PackageQuote;
 import com.makemytrip.makemytrip.models.TravelPackage;
+import com.makemytrip.makemytrip.services.KeysetPaging;
 import com.makemytrip.makemytrip.services.TravelPackageService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -16,10 +19,16 @@ public class TravelPackageController {
     @Autowired
     private TravelPackageService travelPackageService;
 
+    @Autowired
+    private KeysetPaging keysetPaging;
+
     @GetMapping
-    public ResponseEntity<List<TravelPackage>> getAllPackages() {
-        List<TravelPackage> packages = travelPackageService.getAllPackages();
-        return ResponseEntity.ok(packages);
+    public ResponseEntity<List<TravelPackage>> getAllPackages(
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<TravelPackage> page = travelPackageService.getAllPackages(sort, cursor, size);
+        return ResponseEntity.ok().headers(keysetPaging.headers(page)).body(page.getItems());
     }
 
     @GetMapping("/{id}")
@@ -84,12 +93,12 @@ public class TravelPackageController {
     }
 
     @GetMapping("/{id}/group-discount")
-    public ResponseEntity<TravelPackage> calculateGroupDiscount(
+    public ResponseEntity<PackageQuote> calculateGroupDiscount(
             @PathVariable String id,
             @RequestParam int groupSize) {
-        TravelPackage discountedPackage = travelPackageService.calculateGroupDiscount(id, groupSize);
-        if (discountedPackage != null) {
-            return ResponseEntity.ok(discountedPackage);
+        PackageQuote quote = travelPackageService.calculateGroupDiscount(id, groupSize);
+        if (quote != null) {
+            return ResponseEntity.ok(quote);
         }
         return ResponseEntity.notFound().build();
     }
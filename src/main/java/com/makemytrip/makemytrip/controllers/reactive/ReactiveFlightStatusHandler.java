@@ -0,0 +1,52 @@
+package com.makemytrip.makemytrip.controllers.reactive;
+
+import com.makemytrip.makemytrip.models.FlightStatus;
+import com.makemytrip.makemytrip.models.SearchKeys;
+import com.makemytrip.makemytrip.repositories.reactive.ReactiveFlightStatusRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Reactive counterpart of the FlightStatusController reads; lists are streamed as they are read
+// from Mongo (see ReactiveLists)
+@Component
+@Profile("reactive")
+public class ReactiveFlightStatusHandler {
+
+    @Autowired
+    private ReactiveFlightStatusRepository reactiveFlightStatusRepository;
+
+    public Mono<ServerResponse> all(ServerRequest request) {
+        return ReactiveLists.ok(request, reactiveFlightStatusRepository.findAll(), FlightStatus.class);
+    }
+
+    public Mono<ServerResponse> byFlightNumber(ServerRequest request) {
+        return reactiveFlightStatusRepository.findByFlightNumber(request.pathVariable("flightNumber"))
+            .flatMap(status -> ServerResponse.ok().bodyValue(status))
+            .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    public Mono<ServerResponse> byAirline(ServerRequest request) {
+        return ReactiveLists.ok(request, reactiveFlightStatusRepository.findByAirline(request.pathVariable("airline")),
+            FlightStatus.class);
+    }
+
+    public Mono<ServerResponse> byRoute(ServerRequest request) {
+        return ReactiveLists.ok(request, reactiveFlightStatusRepository.findByOriginAndDestination(
+            ReactiveParams.required(request, "origin"), ReactiveParams.required(request, "destination")),
+            FlightStatus.class);
+    }
+
+    // Flight number first, then origin or destination, as in FlightStatusService.searchFlightStatuses
+    public Mono<ServerResponse> search(ServerRequest request) {
+        String query = ReactiveParams.required(request, "query");
+        return ReactiveLists.ok(request, reactiveFlightStatusRepository.findByFlightNumberPrefix(SearchKeys.prefix(query))
+            .switchIfEmpty(Flux.defer(() ->
+                reactiveFlightStatusRepository.findByOriginOrDestinationPrefix(SearchKeys.prefix(query)))),
+            FlightStatus.class);
+    }
+}
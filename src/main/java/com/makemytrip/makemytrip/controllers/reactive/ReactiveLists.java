@@ -0,0 +1,24 @@
+package com.makemytrip.makemytrip.controllers.reactive;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// List responses for the functional handlers: a JSON array, as the MVC endpoints return, or
+// newline-delimited JSON when the client asks for application/x-ndjson. Both are written as the
+// items arrive.
+final class ReactiveLists {
+
+    private ReactiveLists() {
+    }
+
+    static <T> Mono<ServerResponse> ok(ServerRequest request, Flux<T> items, Class<T> type) {
+        boolean ndjson = request.headers().accept().stream()
+            .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        return ServerResponse.ok()
+            .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+            .body(items, type);
+    }
+}
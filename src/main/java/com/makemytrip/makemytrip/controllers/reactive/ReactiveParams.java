@@ -0,0 +1,38 @@
+package com.makemytrip.makemytrip.controllers.reactive;
+
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.server.ServerWebInputException;
+
+// Query parameter parsing for the functional handlers; bad input is a 400, as in the MVC controllers
+final class ReactiveParams {
+
+    private ReactiveParams() {
+    }
+
+    static String text(ServerRequest request, String name) {
+        return request.queryParam(name).orElse(null);
+    }
+
+    static String required(ServerRequest request, String name) {
+        return request.queryParam(name)
+            .orElseThrow(() -> new ServerWebInputException("Missing request parameter '" + name + "'"));
+    }
+
+    static Double decimal(ServerRequest request, String name) {
+        String value = text(request, name);
+        try {
+            return value == null ? null : Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException("Request parameter '" + name + "' is not a number");
+        }
+    }
+
+    static Integer integer(ServerRequest request, String name) {
+        String value = text(request, name);
+        try {
+            return value == null ? null : Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException("Request parameter '" + name + "' is not a whole number");
+        }
+    }
+}
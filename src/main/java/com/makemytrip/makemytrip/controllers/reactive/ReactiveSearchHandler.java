@@ -0,0 +1,126 @@
+package com.makemytrip.makemytrip.controllers.reactive;
+
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.models.Hotel;
+import com.makemytrip.makemytrip.models.SearchKeys;
+import com.makemytrip.makemytrip.repositories.reactive.ReactiveFlightRepository;
+import com.makemytrip.makemytrip.repositories.reactive.ReactiveHotelRepository;
+import com.makemytrip.makemytrip.services.AutocompleteIndex;
+import com.makemytrip.makemytrip.services.EnhancedSearchService;
+import com.makemytrip.makemytrip.services.FlightSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Reactive counterpart of the EnhancedSearchController reads. Flight searches use the resident
+// FlightSearchIndex once it is built, as the MVC search does; otherwise results are streamed
+// straight from the Mongo cursor, which is only read as fast as the client consumes the response.
+// Both record the same search.results summary. Unlike the MVC endpoints, results are not paged:
+// the whole match set is returned as one JSON array (or NDJSON, see ReactiveLists). Search history
+// is saved through the MVC /api/search/history endpoint only.
+@Component
+@Profile("reactive")
+public class ReactiveSearchHandler {
+
+    private static final int SUGGESTIONS = 10;
+
+    @Autowired
+    private ReactiveFlightRepository reactiveFlightRepository;
+
+    @Autowired
+    private ReactiveHotelRepository reactiveHotelRepository;
+
+    @Autowired
+    private AutocompleteIndex autocompleteIndex;
+
+    @Autowired
+    private FlightSearchIndex flightSearchIndex;
+
+    @Autowired
+    private EnhancedSearchService enhancedSearchService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public Mono<ServerResponse> searchFlights(ServerRequest request) {
+        String from = ReactiveParams.text(request, "from");
+        String to = ReactiveParams.text(request, "to");
+        String airline = ReactiveParams.text(request, "airline");
+        Double minPrice = ReactiveParams.decimal(request, "minPrice");
+        Double maxPrice = ReactiveParams.decimal(request, "maxPrice");
+        Integer minSeats = ReactiveParams.integer(request, "minSeats");
+        Flux<Flight> flights;
+        if (flightSearchIndex.isReady()) {
+            // In memory only, so safe on the event loop; records the index metrics itself
+            flights = Flux.fromIterable(enhancedSearchService.searchFlights(from, to, airline, minPrice, maxPrice, minSeats));
+        } else {
+            flights = counted("flight", reactiveFlightRepository.search(from, to, airline, minPrice, maxPrice, minSeats));
+        }
+        return ReactiveLists.ok(request, flights, Flight.class);
+    }
+
+    public Mono<ServerResponse> searchHotels(ServerRequest request) {
+        Flux<Hotel> hotels = reactiveHotelRepository.search(
+            ReactiveParams.text(request, "location"),
+            ReactiveParams.decimal(request, "minPrice"),
+            ReactiveParams.decimal(request, "maxPrice"),
+            ReactiveParams.text(request, "amenities"),
+            ReactiveParams.integer(request, "minRooms"));
+        return ReactiveLists.ok(request, counted("hotel", hotels), Hotel.class);
+    }
+
+    // The in-memory index answers without blocking; until it is built, take() cancels the
+    // cursors as soon as enough suggestions have arrived
+    public Mono<ServerResponse> locationSuggestions(ServerRequest request) {
+        String query = ReactiveParams.required(request, "query");
+        if (autocompleteIndex.isReady()) {
+            return ServerResponse.ok().bodyValue(autocompleteIndex.suggestLocations(query, SUGGESTIONS));
+        }
+        String needle = query.toLowerCase(Locale.ROOT);
+        Flux<String> flightLocations = reactiveFlightRepository.findByFromOrToPrefix(SearchKeys.prefix(query))
+            .flatMapIterable(flight -> Stream.of(flight.getFrom(), flight.getTo())
+                .filter(location -> location != null && location.toLowerCase(Locale.ROOT).contains(needle))
+                .collect(Collectors.toList()));
+        Flux<String> hotelLocations = reactiveHotelRepository.findByLocationPrefix(SearchKeys.prefix(query))
+            .map(Hotel::getLocation);
+        return Flux.concat(flightLocations, hotelLocations)
+            .distinct()
+            .take(SUGGESTIONS)
+            .collectList()
+            .flatMap(suggestions -> ServerResponse.ok().bodyValue(suggestions));
+    }
+
+    public Mono<ServerResponse> airlineSuggestions(ServerRequest request) {
+        String query = ReactiveParams.required(request, "query");
+        if (autocompleteIndex.isReady()) {
+            return ServerResponse.ok().bodyValue(autocompleteIndex.suggestAirlines(query, SUGGESTIONS));
+        }
+        return reactiveFlightRepository.findByFlightNamePrefix(SearchKeys.prefix(query))
+            .map(Flight::getFlightName)
+            .distinct()
+            .take(SUGGESTIONS)
+            .collectList()
+            .flatMap(suggestions -> ServerResponse.ok().bodyValue(suggestions));
+    }
+
+    // Same summary as EnhancedSearchService records for a Mongo search, once the cursor is exhausted
+    private <T> Flux<T> counted(String type, Flux<T> results) {
+        return Flux.defer(() -> {
+            AtomicInteger count = new AtomicInteger();
+            return results
+                .doOnNext(result -> count.incrementAndGet())
+                .doOnComplete(() -> meterRegistry.summary("search.results", "type", type, "source", "mongo")
+                    .record(count.get()));
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package com.makemytrip.makemytrip.models;
+
+import java.util.List;
+
+// Several flights and hotels booked together for one user, e.g. the legs of a trip
+public class BatchBookingRequest {
+    private String userId;
+    private List<Item> items;
+
+    // Getters and Setters
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+
+    public static class Item {
+        private String type; // Flight, Hotel
+        private String id; // id of the flight or hotel
+        private int quantity; // seats or rooms
+        private double price;
+
+        // Getters and Setters
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public void setPrice(double price) {
+            this.price = price;
+        }
+    }
+}
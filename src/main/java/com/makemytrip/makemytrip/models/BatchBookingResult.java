@@ -0,0 +1,37 @@
+package com.makemytrip.makemytrip.models;
+
+import java.util.List;
+
+// Outcome of a batch booking: every item booked, or none of them. On failure failedItem is
+// the index of the first item that could not be booked.
+public class BatchBookingResult {
+    private final BookingResult.Status status;
+    private final List<Users.Booking> bookings;
+    private final Integer failedItem;
+
+    private BatchBookingResult(BookingResult.Status status, List<Users.Booking> bookings, Integer failedItem) {
+        this.status = status;
+        this.bookings = bookings;
+        this.failedItem = failedItem;
+    }
+
+    public static BatchBookingResult booked(List<Users.Booking> bookings) {
+        return new BatchBookingResult(BookingResult.Status.BOOKED, bookings, null);
+    }
+
+    public static BatchBookingResult failed(BookingResult.Status status, Integer failedItem) {
+        return new BatchBookingResult(status, List.of(), failedItem);
+    }
+
+    public BookingResult.Status getStatus() {
+        return status;
+    }
+
+    public List<Users.Booking> getBookings() {
+        return bookings;
+    }
+
+    public Integer getFailedItem() {
+        return failedItem;
+    }
+}
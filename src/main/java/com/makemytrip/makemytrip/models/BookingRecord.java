@@ -0,0 +1,109 @@
+package com.makemytrip.makemytrip.models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+
+// One booking per document, kept out of the Users document so profile loads stay small
+@Document(collection = "bookings")
+@CompoundIndex(name = "user_created_id", def = "{'userId': 1, 'createdAt': -1, '_id': 1}")
+public class BookingRecord {
+    @Id
+    private String _id;
+    private String userId;
+    private String type; // Flight, Hotel
+    private String bookingId; // id of the booked flight or hotel
+    private String date;
+    private int quantity;
+    private double totalPrice;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public BookingRecord() {}
+
+    public BookingRecord(String userId, Users.Booking booking) {
+        this.userId = userId;
+        this.type = booking.getType();
+        this.bookingId = booking.getBookingId();
+        this.date = booking.getDate();
+        this.quantity = booking.getQuantity();
+        this.totalPrice = booking.getTotalPrice();
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Users.Booking toBooking() {
+        Users.Booking booking = new Users.Booking();
+        booking.setType(type);
+        booking.setBookingId(bookingId);
+        booking.setDate(date);
+        booking.setQuantity(quantity);
+        booking.setTotalPrice(totalPrice);
+        return booking;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return _id;
+    }
+
+    public void setId(String id) {
+        this._id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(String bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public void setDate(String date) {
+        this.date = date;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public double getTotalPrice() {
+        return totalPrice;
+    }
+
+    public void setTotalPrice(double totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,40 @@
+package com.makemytrip.makemytrip.models;
+
+// Outcome of a booking attempt; only BOOKED carries a booking
+public class BookingResult {
+
+    public enum Status {
+        BOOKED,
+        SOLD_OUT,
+        NOT_FOUND,
+        INVALID_QUANTITY
+    }
+
+    private final Status status;
+    private final Users.Booking booking;
+
+    private BookingResult(Status status, Users.Booking booking) {
+        this.status = status;
+        this.booking = booking;
+    }
+
+    public static BookingResult booked(Users.Booking booking) {
+        return new BookingResult(Status.BOOKED, booking);
+    }
+
+    public static BookingResult of(Status status) {
+        return new BookingResult(status, null);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Users.Booking getBooking() {
+        return booking;
+    }
+
+    public boolean isBooked() {
+        return status == Status.BOOKED;
+    }
+}
@@ -1,18 +1,39 @@
 package com.makemytrip.makemytrip.models;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import java.util.List;
+import java.util.Map;
 
 @Document(collection = "flight")
-public class Flight {
+@CompoundIndexes({
+    @CompoundIndex(name = "route_price", def = "{'from': 1, 'to': 1, 'price': 1}"),
+    @CompoundIndex(name = "price_id", def = "{'price': 1, '_id': 1}"),
+    @CompoundIndex(name = "search_from", def = "{'search.from': 1}"),
+    @CompoundIndex(name = "search_to", def = "{'search.to': 1}"),
+    @CompoundIndex(name = "search_flightName", def = "{'search.flightName': 1}")
+})
+public class Flight implements Searchable {
     @Id
     private String _id;
+    @Indexed
     private String flightName;
     private String from;
     private String to;
+    @Indexed
     private String departureTime;
     private String arrivalTime;
     private double price;
     private int availableSeats;
+    // Bumped with every change to availableSeats, so copies of the document can be ordered
+    @JsonIgnore
+    private long inventoryVersion;
+
+    // Lowercased word suffixes of the text fields, kept current on save; see SearchKeys
+    private Map<String, List<String>> search;
 
     // Getters and Setters
 
@@ -79,4 +100,18 @@ public class Flight {
     public void setAvailableSeats(int availableSeats) {
         this.availableSeats = availableSeats;
     }
-}
\ No newline at end of file
+
+    public long getInventoryVersion() {
+        return inventoryVersion;
+    }
+
+    public void setInventoryVersion(long inventoryVersion) {
+        this.inventoryVersion = inventoryVersion;
+    }
+
+    @Override
+    public Map<String, List<String>> refreshSearchKeys() {
+        search = SearchKeys.of("from", from, "to", to, "flightName", flightName);
+        return search;
+    }
+}
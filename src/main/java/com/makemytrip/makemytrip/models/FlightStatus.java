@@ -1,14 +1,27 @@
 package com.makemytrip.makemytrip.models;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import java.util.List;
+import java.util.Map;
 import java.time.LocalDateTime;
 
 @Document(collection = "flight_status")
-public class FlightStatus {
+@CompoundIndexes({
+    @CompoundIndex(name = "origin_destination", def = "{'origin': 1, 'destination': 1}"),
+    @CompoundIndex(name = "search_flightNumber", def = "{'search.flightNumber': 1}"),
+    @CompoundIndex(name = "search_origin", def = "{'search.origin': 1}"),
+    @CompoundIndex(name = "search_destination", def = "{'search.destination': 1}")
+})
+public class FlightStatus implements Searchable {
     @Id
     private String _id;
+    @Indexed(unique = true, sparse = true)
     private String flightNumber;
+    @Indexed
     private String airline;
     private String origin;
     private String destination;
@@ -16,12 +29,16 @@ public class FlightStatus {
     private LocalDateTime actualDeparture;
     private LocalDateTime scheduledArrival;
     private LocalDateTime estimatedArrival;
+    @Indexed
     private String status; // ON_TIME, DELAYED, DEPARTED, ARRIVED, CANCELLED
     private String delayReason;
     private int delayMinutes;
     private String gate;
     private String terminal;
 
+    // Lowercased word suffixes of the text fields, kept current on save; see SearchKeys
+    private Map<String, List<String>> search;
+
     // Constructors
     public FlightStatus() {}
 
@@ -146,5 +163,10 @@ public class FlightStatus {
     public void setTerminal(String terminal) {
         this.terminal = terminal;
     }
-}
 
+    @Override
+    public Map<String, List<String>> refreshSearchKeys() {
+        search = SearchKeys.of("flightNumber", flightNumber, "origin", origin, "destination", destination);
+        return search;
+    }
+}
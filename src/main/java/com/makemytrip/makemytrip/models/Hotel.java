@@ -1,16 +1,32 @@
 package com.makemytrip.makemytrip.models;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import java.util.List;
+import java.util.Map;
 
 @Document(collection = "hotels")
-public class Hotel {
+@CompoundIndexes({
+    @CompoundIndex(name = "location_price", def = "{'location': 1, 'pricePerNight': 1}"),
+    @CompoundIndex(name = "pricePerNight_id", def = "{'pricePerNight': 1, '_id': 1}"),
+    @CompoundIndex(name = "search_location", def = "{'search.location': 1}"),
+    @CompoundIndex(name = "search_hotelName", def = "{'search.hotelName': 1}"),
+    @CompoundIndex(name = "search_amenities", def = "{'search.amenities': 1}")
+})
+public class Hotel implements Searchable {
     @Id
     private String _id;
+    @Indexed
     private String hotelName;
     private String location;
     private double pricePerNight;
     private int availableRooms;
     private String amenities;
+    // Lowercased word suffixes of the text fields, kept current on save; see SearchKeys
+    private Map<String, List<String>> search;
+
     // Getters and Setters
     public String getId() {
         return _id;
@@ -59,4 +75,10 @@ public class Hotel {
     public void setPricePerNight(double pricePerNight) {
         this.pricePerNight = pricePerNight;
     }
-}
\ No newline at end of file
+
+    @Override
+    public Map<String, List<String>> refreshSearchKeys() {
+        search = SearchKeys.of("location", location, "hotelName", hotelName, "amenities", amenities);
+        return search;
+    }
+}
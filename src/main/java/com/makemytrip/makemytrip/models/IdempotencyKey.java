@@ -0,0 +1,124 @@
+package com.makemytrip.makemytrip.models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// A client-supplied Idempotency-Key and the outcome of the request that first used it.
+// The id is scoped to the user, so two users can pick the same key.
+@Document(collection = "idempotency_keys")
+public class IdempotencyKey {
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String COMPLETED = "COMPLETED";
+
+    @Id
+    private String _id;
+    private String request; // what was asked for; a replay must ask for the same thing
+    private String state; // IN_PROGRESS, COMPLETED
+    private BookingResult.Status result;
+    private Users.Booking booking;
+    private List<Users.Booking> bookings; // batch bookings only
+    private Integer failedItem; // batch bookings only
+    private LocalDateTime createdAt;
+    // Removed by Mongo's TTL monitor once this time has passed
+    @Indexed(name = "idempotency_ttl", expireAfter = "0s")
+    private LocalDateTime expiresAt;
+
+    // Constructors
+    public IdempotencyKey() {}
+
+    public IdempotencyKey(String id, String request, LocalDateTime expiresAt) {
+        this._id = id;
+        this.request = request;
+        this.state = IN_PROGRESS;
+        this.createdAt = LocalDateTime.now();
+        this.expiresAt = expiresAt;
+    }
+
+    public BookingResult toResult() {
+        return result == BookingResult.Status.BOOKED ? BookingResult.booked(booking) : BookingResult.of(result);
+    }
+
+    public BatchBookingResult toBatchResult() {
+        return result == BookingResult.Status.BOOKED ? BatchBookingResult.booked(bookings) : BatchBookingResult.failed(result, failedItem);
+    }
+
+    public boolean isCompleted() {
+        return COMPLETED.equals(state);
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return _id;
+    }
+
+    public void setId(String id) {
+        this._id = id;
+    }
+
+    public String getRequest() {
+        return request;
+    }
+
+    public void setRequest(String request) {
+        this.request = request;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public BookingResult.Status getResult() {
+        return result;
+    }
+
+    public void setResult(BookingResult.Status result) {
+        this.result = result;
+    }
+
+    public Users.Booking getBooking() {
+        return booking;
+    }
+
+    public void setBooking(Users.Booking booking) {
+        this.booking = booking;
+    }
+
+    public List<Users.Booking> getBookings() {
+        return bookings;
+    }
+
+    public void setBookings(List<Users.Booking> bookings) {
+        this.bookings = bookings;
+    }
+
+    public Integer getFailedItem() {
+        return failedItem;
+    }
+
+    public void setFailedItem(Integer failedItem) {
+        this.failedItem = failedItem;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,48 @@
+package com.makemytrip.makemytrip.models;
+
+// What became of a request sent with an Idempotency-Key. EXECUTED and REPLAYED carry the
+// request's own result; IN_PROGRESS and KEY_REUSED mean it was not run at all.
+public class IdempotentResult<T> {
+
+    public enum Outcome {
+        EXECUTED,
+        REPLAYED,
+        // The first request with the key has not finished yet
+        IN_PROGRESS,
+        // The key was already used for a different request
+        KEY_REUSED
+    }
+
+    private final Outcome outcome;
+    private final T result;
+
+    private IdempotentResult(Outcome outcome, T result) {
+        this.outcome = outcome;
+        this.result = result;
+    }
+
+    public static <T> IdempotentResult<T> executed(T result) {
+        return new IdempotentResult<>(Outcome.EXECUTED, result);
+    }
+
+    // The stored result, returned again for a repeated Idempotency-Key
+    public static <T> IdempotentResult<T> replayed(T result) {
+        return new IdempotentResult<>(Outcome.REPLAYED, result);
+    }
+
+    public static <T> IdempotentResult<T> refused(Outcome outcome) {
+        return new IdempotentResult<>(outcome, null);
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public T getResult() {
+        return result;
+    }
+
+    public boolean isReplayed() {
+        return outcome == Outcome.REPLAYED;
+    }
+}
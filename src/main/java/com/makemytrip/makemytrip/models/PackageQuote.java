@@ -0,0 +1,39 @@
+package com.makemytrip.makemytrip.models;
+
+// Read-only price of a package for a group size, served instead of a copy of the package
+public final class PackageQuote {
+    private final String packageId;
+    private final double originalPrice;
+    private final double discountedPrice;
+    private final double discountPercentage;
+    private final boolean groupDiscountApplied;
+
+    public PackageQuote(String packageId, double originalPrice, double discountedPrice,
+                        double discountPercentage, boolean groupDiscountApplied) {
+        this.packageId = packageId;
+        this.originalPrice = originalPrice;
+        this.discountedPrice = discountedPrice;
+        this.discountPercentage = discountPercentage;
+        this.groupDiscountApplied = groupDiscountApplied;
+    }
+
+    public String getPackageId() {
+        return packageId;
+    }
+
+    public double getOriginalPrice() {
+        return originalPrice;
+    }
+
+    public double getDiscountedPrice() {
+        return discountedPrice;
+    }
+
+    public double getDiscountPercentage() {
+        return discountPercentage;
+    }
+
+    public boolean isGroupDiscountApplied() {
+        return groupDiscountApplied;
+    }
+}
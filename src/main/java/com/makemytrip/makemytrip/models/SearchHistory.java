@@ -1,10 +1,17 @@
 package com.makemytrip.makemytrip.models;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
 
 @Document(collection = "search_history")
+@CompoundIndexes({
+    @CompoundIndex(name = "user_date", def = "{'userId': 1, 'searchDateTime': -1}"),
+    @CompoundIndex(name = "user_type_date", def = "{'userId': 1, 'searchType': 1, 'searchDateTime': -1}")
+})
 public class SearchHistory {
     @Id
     private String _id;
@@ -16,6 +23,8 @@ public class SearchHistory {
     private String checkOutDate;
     private int passengers;
     private String searchQuery;
+    // Old history is expired by Mongo's TTL monitor
+    @Indexed(name = "search_ttl", expireAfter = "#{@environment.getProperty('search-history.ttl', '90d')}")
     private LocalDateTime searchDateTime;
 
     // Constructors
@@ -0,0 +1,78 @@
+package com.makemytrip.makemytrip.models;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Index-friendly text matching. Each searchable field is shadowed by the lowercased suffixes of its
+// value that start a word ("New Delhi" -> ["new delhi", "delhi"]), stored under `search.<field>`.
+// Lookups are anchored, escaped prefix patterns on those arrays, which Mongo turns into index ranges.
+public final class SearchKeys {
+
+    public static final String FIELD = "search";
+
+    private SearchKeys() {
+    }
+
+    // Alternating field names and values
+    public static Map<String, List<String>> of(String... namesAndValues) {
+        Map<String, List<String>> keys = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < namesAndValues.length; i += 2) {
+            keys.put(namesAndValues[i], wordSuffixes(normalize(namesAndValues[i + 1])));
+        }
+        return keys;
+    }
+
+    public static String path(String field) {
+        return FIELD + "." + field;
+    }
+
+    // "^" plus the escaped, lowercased input; matches any word start in the shadowed value.
+    // Leading punctuation is skipped since keys after the first start at a letter or digit.
+    public static Pattern prefix(String input) {
+        String value = normalize(input);
+        int start = 0;
+        while (start < value.length() && !Character.isLetterOrDigit(value.charAt(start))) {
+            start++;
+        }
+        if (start == value.length()) {
+            start = 0;
+        }
+        StringBuilder pattern = new StringBuilder(value.length() + 8).append('^');
+        for (int i = start; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != ' ') {
+                pattern.append('\\');
+            }
+            pattern.append(c);
+        }
+        return Pattern.compile(pattern.toString());
+    }
+
+    // The in-memory twin of a prefix() query: does a word of the value start with the input
+    public static boolean startsAWord(Pattern prefix, String value) {
+        for (String suffix : wordSuffixes(normalize(value))) {
+            if (prefix.matcher(suffix).lookingAt()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static List<String> wordSuffixes(String value) {
+        List<String> suffixes = new ArrayList<>();
+        for (int i = 0; i < value.length(); i++) {
+            if (i == 0 || (!Character.isLetterOrDigit(value.charAt(i - 1)) && Character.isLetterOrDigit(value.charAt(i)))) {
+                suffixes.add(value.substring(i));
+            }
+        }
+        return suffixes;
+    }
+
+    public static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
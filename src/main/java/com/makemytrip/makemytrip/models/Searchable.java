@@ -0,0 +1,13 @@
+package com.makemytrip.makemytrip.models;
+
+import java.util.List;
+import java.util.Map;
+
+// Documents whose text fields are searched through SearchKeys instead of regexes on the raw values
+public interface Searchable {
+
+    String getId();
+
+    // Recomputes the stored search keys from the current field values and returns them
+    Map<String, List<String>> refreshSearchKeys();
+}
@@ -1,23 +1,38 @@
 package com.makemytrip.makemytrip.models;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.util.List;
+import java.util.Map;
 
 @Document(collection = "travel_packages")
-public class TravelPackage {
+@CompoundIndexes({
+    @CompoundIndex(name = "search_destination", def = "{'search.destination': 1}"),
+    @CompoundIndex(name = "discountedPrice_id", def = "{'discountedPrice': 1, '_id': 1}"),
+    @CompoundIndex(name = "search_packageName", def = "{'search.packageName': 1}")
+})
+public class TravelPackage implements Searchable {
     @Id
     private String _id;
+    @Indexed
     private String packageName;
     private String description;
+    @Indexed
     private String destination;
+    @Indexed
     private int duration; // in days
     private double originalPrice;
     private double discountedPrice;
     private double discountPercentage;
+    @Indexed
     private List<String> flightIds;
+    @Indexed
     private List<String> hotelIds;
     private List<String> tourActivities;
+    @Indexed
     private String packageType; // PRE_BUILT, CUSTOMIZABLE
     private boolean isActive;
     private String imageUrl;
@@ -25,6 +40,9 @@ public class TravelPackage {
     private int minGroupSize;
     private double groupDiscountPercentage;
 
+    // Lowercased word suffixes of the text fields, kept current on save; see SearchKeys
+    private Map<String, List<String>> search;
+
     // Constructors
     public TravelPackage() {}
 
@@ -174,5 +192,10 @@ public class TravelPackage {
     public void setGroupDiscountPercentage(double groupDiscountPercentage) {
         this.groupDiscountPercentage = groupDiscountPercentage;
     }
-}
 
+    @Override
+    public Map<String, List<String>> refreshSearchKeys() {
+        search = SearchKeys.of("destination", destination, "packageName", packageName);
+        return search;
+    }
+}
@@ -0,0 +1,58 @@
+package com.makemytrip.makemytrip.models;
+
+import java.util.List;
+
+// Flights, hotels and packages matching one query, ranked together. Sources that did not answer
+// in time are listed in `unavailable` and the result is marked partial.
+public class UnifiedSearchResult {
+
+    private final List<Hit> results;
+    private final List<String> unavailable;
+
+    public UnifiedSearchResult(List<Hit> results, List<String> unavailable) {
+        this.results = results;
+        this.unavailable = unavailable;
+    }
+
+    public List<Hit> getResults() {
+        return results;
+    }
+
+    public List<String> getUnavailable() {
+        return unavailable;
+    }
+
+    public boolean isPartial() {
+        return !unavailable.isEmpty();
+    }
+
+    public static class Hit {
+        private final String type;
+        private final int score;
+        private final double price;
+        private final Object item;
+
+        public Hit(String type, int score, double price, Object item) {
+            this.type = type;
+            this.score = score;
+            this.price = price;
+            this.item = item;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public Object getItem() {
+            return item;
+        }
+    }
+}
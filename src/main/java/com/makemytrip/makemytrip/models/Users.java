@@ -1,5 +1,7 @@
 package com.makemytrip.makemytrip.models;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.List;
@@ -10,10 +12,13 @@ public class Users {
     private String _id;
     private String firstName;
     private String lastName;
+    @Indexed(unique = true, sparse = true)
     private String email;
     private String password;
     private String role;
     private String phoneNumber;
+    // Bookings live in the bookings collection (BookingRecord); kept for API compatibility only
+    @Transient
     private List<Booking> bookings = new ArrayList<>();;
 
 
@@ -0,0 +1,11 @@
+package com.makemytrip.makemytrip.repositories;
+
+import com.makemytrip.makemytrip.models.BookingRecord;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BookingRepository extends MongoRepository<BookingRecord, String> {
+
+    long countByUserId(String userId);
+}
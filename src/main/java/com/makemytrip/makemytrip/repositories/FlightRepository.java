@@ -5,6 +5,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.regex.Pattern;
 
 @Repository
 public interface FlightRepository extends MongoRepository<Flight, String> {
@@ -16,17 +17,18 @@ public interface FlightRepository extends MongoRepository<Flight, String> {
     @Query("{'price': {$gte: ?0, $lte: ?1}}")
     List<Flight> findByPriceRange(double minPrice, double maxPrice);
     
-    @Query("{'from': {$regex: ?0, $options: 'i'}}")
-    List<Flight> findByFromContaining(String from);
+    // Prefix finders take SearchKeys.prefix(input) and match word starts via the search keys
+    @Query("{'search.from': ?0}")
+    List<Flight> findByFromPrefix(Pattern from);
     
-    @Query("{'to': {$regex: ?0, $options: 'i'}}")
-    List<Flight> findByToContaining(String to);
+    @Query("{'search.to': ?0}")
+    List<Flight> findByToPrefix(Pattern to);
     
-    @Query("{'$or': [{'from': {$regex: ?0, $options: 'i'}}, {'to': {$regex: ?0, $options: 'i'}}]}")
-    List<Flight> findByFromOrToContaining(String location);
+    @Query("{'$or': [{'search.from': ?0}, {'search.to': ?0}]}")
+    List<Flight> findByFromOrToPrefix(Pattern location);
     
-    @Query("{'flightName': {$regex: ?0, $options: 'i'}}")
-    List<Flight> findByFlightNameContaining(String flightName);
+    @Query("{'search.flightName': ?0}")
+    List<Flight> findByFlightNamePrefix(Pattern flightName);
     
     List<Flight> findByAvailableSeatsGreaterThan(int seats);
 }
\ No newline at end of file
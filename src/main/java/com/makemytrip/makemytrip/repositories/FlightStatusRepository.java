@@ -5,6 +5,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.regex.Pattern;
 import java.util.Optional;
 
 @Repository
@@ -18,10 +19,11 @@ public interface FlightStatusRepository extends MongoRepository<FlightStatus, St
     
     List<FlightStatus> findByStatus(String status);
     
-    @Query("{'flightNumber': {$regex: ?0, $options: 'i'}}")
-    List<FlightStatus> findByFlightNumberContaining(String flightNumber);
+    // Prefix finders take SearchKeys.prefix(input) and match word starts via the search keys
+    @Query("{'search.flightNumber': ?0}")
+    List<FlightStatus> findByFlightNumberPrefix(Pattern flightNumber);
     
-    @Query("{'$or': [{'origin': {$regex: ?0, $options: 'i'}}, {'destination': {$regex: ?0, $options: 'i'}}]}")
-    List<FlightStatus> findByOriginOrDestinationContaining(String location);
+    @Query("{'$or': [{'search.origin': ?0}, {'search.destination': ?0}]}")
+    List<FlightStatus> findByOriginOrDestinationPrefix(Pattern location);
 }
 
@@ -5,6 +5,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.regex.Pattern;
 
 @Repository
 public interface HotelRepository extends MongoRepository<Hotel, String> {
@@ -14,17 +15,18 @@ public interface HotelRepository extends MongoRepository<Hotel, String> {
     @Query("{'pricePerNight': {$gte: ?0, $lte: ?1}}")
     List<Hotel> findByPriceRange(double minPrice, double maxPrice);
     
-    @Query("{'location': {$regex: ?0, $options: 'i'}}")
-    List<Hotel> findByLocationContaining(String location);
+    // Prefix finders take SearchKeys.prefix(input) and match word starts via the search keys
+    @Query("{'search.location': ?0}")
+    List<Hotel> findByLocationPrefix(Pattern location);
     
-    @Query("{'hotelName': {$regex: ?0, $options: 'i'}}")
-    List<Hotel> findByHotelNameContaining(String hotelName);
+    @Query("{'search.hotelName': ?0}")
+    List<Hotel> findByHotelNamePrefix(Pattern hotelName);
     
-    @Query("{'amenities': {$regex: ?0, $options: 'i'}}")
-    List<Hotel> findByAmenitiesContaining(String amenity);
+    @Query("{'search.amenities': ?0}")
+    List<Hotel> findByAmenitiesPrefix(Pattern amenity);
     
     List<Hotel> findByAvailableRoomsGreaterThan(int rooms);
     
-    @Query("{'$and': [{'location': {$regex: ?0, $options: 'i'}}, {'pricePerNight': {$gte: ?1, $lte: ?2}}]}")
-    List<Hotel> findByLocationAndPriceRange(String location, double minPrice, double maxPrice);
+    @Query("{'$and': [{'search.location': ?0}, {'pricePerNight': {$gte: ?1, $lte: ?2}}]}")
+    List<Hotel> findByLocationPrefixAndPriceRange(Pattern location, double minPrice, double maxPrice);
 }
\ No newline at end of file
@@ -2,7 +2,6 @@ package com.makemytrip.makemytrip.repositories;
 
 import com.makemytrip.makemytrip.models.SearchHistory;
 import org.springframework.data.mongodb.repository.MongoRepository;
-import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
@@ -13,9 +12,10 @@ public interface SearchHistoryRepository extends MongoRepository<SearchHistory,
     
     List<SearchHistory> findByUserIdAndSearchTypeOrderBySearchDateTimeDesc(String userId, String searchType);
     
-    @Query("{'userId': ?0}")
     List<SearchHistory> findTop10ByUserIdOrderBySearchDateTimeDesc(String userId);
     
+    List<SearchHistory> findTop10ByUserIdAndSearchTypeOrderBySearchDateTimeDesc(String userId, String searchType);
+    
     void deleteByUserId(String userId);
 }
 
@@ -0,0 +1,102 @@
+package com.makemytrip.makemytrip.repositories;
+
+import com.makemytrip.makemytrip.models.SearchKeys;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.regex.Pattern;
+
+// Flight and hotel search filters, shared by the blocking and reactive search paths
+public final class SearchQueries {
+
+    private static final String[] FLIGHT_FIELDS = {
+        "flightName", "from", "to", "departureTime", "arrivalTime", "price", "availableSeats"
+    };
+
+    private static final String[] HOTEL_FIELDS = {
+        "hotelName", "location", "pricePerNight", "availableRooms", "amenities"
+    };
+
+    // All supplied filters become one Mongo query so only matching documents leave the server
+    public static Query flights(String from, String to, String airline,
+                                Double minPrice, Double maxPrice, Integer minSeats) {
+        Query query = new Query();
+
+        if (from != null && to != null) {
+            // Same route match as FlightSearchIndex: whole value, trimmed, any case. The search key
+            // equality narrows through its index, the anchored pattern rules out word suffixes.
+            query.addCriteria(new Criteria().andOperator(
+                Criteria.where(SearchKeys.path("from")).is(SearchKeys.normalize(from)),
+                Criteria.where(SearchKeys.path("to")).is(SearchKeys.normalize(to)),
+                Criteria.where("from").regex(exactly(from)),
+                Criteria.where("to").regex(exactly(to))));
+        } else if (from != null || to != null) {
+            Pattern location = SearchKeys.prefix(from != null ? from : to);
+            query.addCriteria(new Criteria().orOperator(
+                Criteria.where(SearchKeys.path("from")).regex(location),
+                Criteria.where(SearchKeys.path("to")).regex(location)));
+        }
+
+        if (airline != null && !airline.isEmpty()) {
+            query.addCriteria(Criteria.where(SearchKeys.path("flightName")).regex(SearchKeys.prefix(airline)));
+        }
+
+        Criteria price = priceRange("price", minPrice, maxPrice);
+        if (price != null) {
+            query.addCriteria(price);
+        }
+
+        if (minSeats != null) {
+            query.addCriteria(Criteria.where("availableSeats").gte(minSeats));
+        }
+
+        query.fields().include(FLIGHT_FIELDS);
+        return query;
+    }
+
+    public static Query hotels(String location, Double minPrice, Double maxPrice,
+                               String amenities, Integer minRooms) {
+        Query query = new Query();
+
+        if (location != null && !location.isEmpty()) {
+            query.addCriteria(Criteria.where(SearchKeys.path("location")).regex(SearchKeys.prefix(location)));
+        }
+
+        Criteria price = priceRange("pricePerNight", minPrice, maxPrice);
+        if (price != null) {
+            query.addCriteria(price);
+        }
+
+        if (amenities != null && !amenities.isEmpty()) {
+            query.addCriteria(Criteria.where(SearchKeys.path("amenities")).regex(SearchKeys.prefix(amenities)));
+        }
+
+        if (minRooms != null) {
+            query.addCriteria(Criteria.where("availableRooms").gte(minRooms));
+        }
+
+        query.fields().include(HOTEL_FIELDS);
+        return query;
+    }
+
+    private static Pattern exactly(String value) {
+        return Pattern.compile("^\\s*" + Pattern.quote(value.trim()) + "\\s*$", Pattern.CASE_INSENSITIVE);
+    }
+
+    private static Criteria priceRange(String field, Double minPrice, Double maxPrice) {
+        if (minPrice == null && maxPrice == null) {
+            return null;
+        }
+        Criteria criteria = Criteria.where(field);
+        if (minPrice != null) {
+            criteria = criteria.gte(minPrice);
+        }
+        if (maxPrice != null) {
+            criteria = criteria.lte(maxPrice);
+        }
+        return criteria;
+    }
+
+    private SearchQueries() {
+    }
+}
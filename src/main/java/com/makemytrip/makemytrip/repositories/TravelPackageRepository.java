@@ -5,6 +5,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.regex.Pattern;
 
 @Repository
 public interface TravelPackageRepository extends MongoRepository<TravelPackage, String> {
@@ -15,16 +16,15 @@ public interface TravelPackageRepository extends MongoRepository<TravelPackage,
     
     List<TravelPackage> findByIsActiveTrue();
     
-    @Query("{'destination': {$regex: ?0, $options: 'i'}}")
-    List<TravelPackage> findByDestinationContaining(String destination);
+    // Prefix finders take SearchKeys.prefix(input) and match word starts via the search keys
+    @Query("{'search.destination': ?0}")
+    List<TravelPackage> findByDestinationPrefix(Pattern destination);
     
     @Query("{'discountedPrice': {$gte: ?0, $lte: ?1}}")
     List<TravelPackage> findByPriceRange(double minPrice, double maxPrice);
     
     @Query("{'duration': {$gte: ?0, $lte: ?1}}")
     List<TravelPackage> findByDurationRange(int minDuration, int maxDuration);
-    
-    @Query("{'packageName': {$regex: ?0, $options: 'i'}}")
-    List<TravelPackage> findByPackageNameContaining(String packageName);
+
 }
 
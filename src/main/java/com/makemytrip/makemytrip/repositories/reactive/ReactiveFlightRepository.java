@@ -0,0 +1,19 @@
+package com.makemytrip.makemytrip.repositories.reactive;
+
+import com.makemytrip.makemytrip.models.Flight;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import java.util.regex.Pattern;
+
+@Repository
+public interface ReactiveFlightRepository extends ReactiveMongoRepository<Flight, String>, ReactiveFlightSearch {
+    
+    // Prefix finders take SearchKeys.prefix(input) and match word starts via the search keys
+    @Query("{'$or': [{'search.from': ?0}, {'search.to': ?0}]}")
+    Flux<Flight> findByFromOrToPrefix(Pattern location);
+    
+    @Query("{'search.flightName': ?0}")
+    Flux<Flight> findByFlightNamePrefix(Pattern flightName);
+}
@@ -0,0 +1,10 @@
+package com.makemytrip.makemytrip.repositories.reactive;
+
+import com.makemytrip.makemytrip.models.Flight;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveFlightSearch {
+
+    // Same filters as the blocking flight search, any of them may be null
+    Flux<Flight> search(String from, String to, String airline, Double minPrice, Double maxPrice, Integer minSeats);
+}
@@ -0,0 +1,18 @@
+package com.makemytrip.makemytrip.repositories.reactive;
+
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.repositories.SearchQueries;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+
+class ReactiveFlightSearchImpl implements ReactiveFlightSearch {
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Flux<Flight> search(String from, String to, String airline, Double minPrice, Double maxPrice, Integer minSeats) {
+        return reactiveMongoTemplate.find(SearchQueries.flights(from, to, airline, minPrice, maxPrice, minSeats), Flight.class);
+    }
+}
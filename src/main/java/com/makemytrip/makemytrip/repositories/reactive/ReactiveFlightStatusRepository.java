@@ -0,0 +1,26 @@
+package com.makemytrip.makemytrip.repositories.reactive;
+
+import com.makemytrip.makemytrip.models.FlightStatus;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.regex.Pattern;
+
+@Repository
+public interface ReactiveFlightStatusRepository extends ReactiveMongoRepository<FlightStatus, String> {
+    
+    Mono<FlightStatus> findByFlightNumber(String flightNumber);
+    
+    Flux<FlightStatus> findByAirline(String airline);
+    
+    Flux<FlightStatus> findByOriginAndDestination(String origin, String destination);
+    
+    // Prefix finders take SearchKeys.prefix(input) and match word starts via the search keys
+    @Query("{'search.flightNumber': ?0}")
+    Flux<FlightStatus> findByFlightNumberPrefix(Pattern flightNumber);
+    
+    @Query("{'$or': [{'search.origin': ?0}, {'search.destination': ?0}]}")
+    Flux<FlightStatus> findByOriginOrDestinationPrefix(Pattern location);
+}
@@ -0,0 +1,16 @@
+package com.makemytrip.makemytrip.repositories.reactive;
+
+import com.makemytrip.makemytrip.models.Hotel;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import java.util.regex.Pattern;
+
+@Repository
+public interface ReactiveHotelRepository extends ReactiveMongoRepository<Hotel, String>, ReactiveHotelSearch {
+    
+    // Prefix finders take SearchKeys.prefix(input) and match word starts via the search keys
+    @Query("{'search.location': ?0}")
+    Flux<Hotel> findByLocationPrefix(Pattern location);
+}
@@ -0,0 +1,10 @@
+package com.makemytrip.makemytrip.repositories.reactive;
+
+import com.makemytrip.makemytrip.models.Hotel;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveHotelSearch {
+
+    // Same filters as the blocking hotel search, any of them may be null
+    Flux<Hotel> search(String location, Double minPrice, Double maxPrice, String amenities, Integer minRooms);
+}
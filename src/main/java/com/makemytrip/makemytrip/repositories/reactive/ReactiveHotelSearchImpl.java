@@ -0,0 +1,18 @@
+package com.makemytrip.makemytrip.repositories.reactive;
+
+import com.makemytrip.makemytrip.models.Hotel;
+import com.makemytrip.makemytrip.repositories.SearchQueries;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+
+class ReactiveHotelSearchImpl implements ReactiveHotelSearch {
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Flux<Hotel> search(String location, Double minPrice, Double maxPrice, String amenities, Integer minRooms) {
+        return reactiveMongoTemplate.find(SearchQueries.hotels(location, minPrice, maxPrice, amenities, minRooms), Hotel.class);
+    }
+}
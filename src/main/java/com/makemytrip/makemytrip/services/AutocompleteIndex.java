@@ -0,0 +1,124 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.models.Hotel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// Keystroke suggestions for locations and airlines, served from memory. A term's popularity is
+// the number of catalog rows that mention it, nudged up when users search for it.
+@Component
+public class AutocompleteIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(AutocompleteIndex.class);
+    private static final int TOP_K = 10;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final SuggestionTrie locations = new SuggestionTrie(TOP_K);
+    private final SuggestionTrie airlines = new SuggestionTrie(TOP_K);
+
+    // Last indexed values per document, so an edit can retract what it replaced. Guarded by
+    // writeLock together with the trie adjustments, so concurrent edits of one row cannot
+    // both retract the same previous value.
+    private final Object writeLock = new Object();
+    private final Map<String, String[]> flightTerms = new ConcurrentHashMap<>();
+    private final Map<String, String> hotelLocations = new ConcurrentHashMap<>();
+
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            load();
+        } catch (RuntimeException e) {
+            log.warn("Autocomplete index not built, suggestions will go to Mongo: {}", e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void load() {
+        Query flightFields = new Query();
+        flightFields.fields().include("from", "to", "flightName");
+        try (Stream<Flight> flights = mongoTemplate.stream(flightFields, Flight.class)) {
+            flights.forEach(this::flightSaved);
+        }
+
+        Query hotelFields = new Query();
+        hotelFields.fields().include("location");
+        try (Stream<Hotel> hotels = mongoTemplate.stream(hotelFields, Hotel.class)) {
+            hotels.forEach(this::hotelSaved);
+        }
+
+        ready = true;
+        log.info("Autocomplete index built: {} locations, {} airlines", locations.size(), airlines.size());
+    }
+
+    public List<String> suggestLocations(String query, int limit) {
+        return locations.suggest(query, limit);
+    }
+
+    public List<String> suggestAirlines(String query, int limit) {
+        return airlines.suggest(query, limit);
+    }
+
+    public void flightSaved(Flight flight) {
+        if (flight == null || flight.getId() == null) {
+            return;
+        }
+        String[] current = {flight.getFrom(), flight.getTo(), flight.getFlightName()};
+        synchronized (writeLock) {
+            String[] previous = flightTerms.put(flight.getId(), current);
+            if (previous != null) {
+                locations.adjust(previous[0], -1);
+                locations.adjust(previous[1], -1);
+                airlines.adjust(previous[2], -1);
+            }
+            locations.adjust(current[0], 1);
+            locations.adjust(current[1], 1);
+            airlines.adjust(current[2], 1);
+        }
+    }
+
+    public void hotelSaved(Hotel hotel) {
+        if (hotel == null || hotel.getId() == null) {
+            return;
+        }
+        synchronized (writeLock) {
+            String previous = hotelLocations.put(hotel.getId(), hotel.getLocation() == null ? "" : hotel.getLocation());
+            if (previous != null) {
+                locations.adjust(previous, -1);
+            }
+            locations.adjust(hotel.getLocation(), 1);
+        }
+    }
+
+    // Searched-for places rank higher in later suggestions
+    public void searched(String origin, String destination) {
+        locations.boost(origin, 1);
+        locations.boost(destination, 1);
+    }
+
+    // Search boosts halve every interval, so a burst of interest fades out
+    @Scheduled(fixedDelayString = "${autocomplete.boost-decay-interval-ms:3600000}",
+               initialDelayString = "${autocomplete.boost-decay-interval-ms:3600000}")
+    public void decayBoosts() {
+        locations.decayBoosts();
+    }
+}
@@ -1,77 +1,250 @@
 package com.makemytrip.makemytrip.services;
-import com.makemytrip.makemytrip.models.Users;
+import com.makemytrip.makemytrip.models.BatchBookingRequest;
+import com.makemytrip.makemytrip.models.BatchBookingResult;
+import com.makemytrip.makemytrip.models.BookingRecord;
+import com.makemytrip.makemytrip.models.BookingResult;
+import com.makemytrip.makemytrip.models.CursorPage;
 import com.makemytrip.makemytrip.models.Users.Booking;
 import com.makemytrip.makemytrip.models.Flight;
 import com.makemytrip.makemytrip.models.Hotel;
+import com.makemytrip.makemytrip.repositories.BookingRepository;
 import com.makemytrip.makemytrip.repositories.UserRepository;
-import com.makemytrip.makemytrip.repositories.FlightRepository;
-import com.makemytrip.makemytrip.repositories.HotelRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
+@Timed("makemytrip.service")
 public class BookingService {
+    private static final Logger log = LoggerFactory.getLogger(BookingService.class);
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private FlightRepository flightRepository;
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private KeysetPaging keysetPaging;
+
+    @Autowired
+    private FlightSearchIndex flightSearchIndex;
 
     @Autowired
-    private HotelRepository hotelRepository;
-
-    public Booking bookFlight(String userId,String flightId,int seats,double price){
-        Optional<Users> usersOptional =userRepository.findById(userId);
-        Optional<Flight> flightOptional =flightRepository.findById(flightId);
-        if(usersOptional.isPresent() && flightOptional.isPresent()){
-            Users user=usersOptional.get();
-            Flight flight=flightOptional.get();
-            if(flight.getAvailableSeats() >= seats){
-                flight.setAvailableSeats(flight.getAvailableSeats()- seats);
-                flightRepository.save(flight);
-
-                Booking booking=new Booking();
-                booking.setType("Flight");
-                booking.setBookingId(flightId);
-                booking.setDate(LocalDate.now().toString());
-                booking.setQuantity(seats);
-                booking.setTotalPrice(price);
-                user.getBookings().add(booking);
-                userRepository.save(user);
-                return booking;
-            }else {
-                throw new RuntimeException("Not enough seats available");
+    private MeterRegistry meterRegistry;
+
+    public BookingResult bookFlight(String userId,String flightId,int seats,double price){
+        if(seats <= 0){
+            return counted("flight", BookingResult.of(BookingResult.Status.INVALID_QUANTITY));
+        }
+        if(!userRepository.existsById(userId)){
+            return counted("flight", BookingResult.of(BookingResult.Status.NOT_FOUND));
+        }
+
+        Flight flight=reserve(Flight.class, flightId, "availableSeats", seats);
+        if(flight == null){
+            return counted("flight", BookingResult.of(unavailable(Flight.class, flightId)));
+        }
+        flightSearchIndex.inventoryChanged(flight);
+
+        Booking booking=new Booking();
+        booking.setType("Flight");
+        booking.setBookingId(flightId);
+        booking.setDate(LocalDate.now().toString());
+        booking.setQuantity(seats);
+        booking.setTotalPrice(price);
+        try {
+            bookingRepository.insert(new BookingRecord(userId, booking));
+        } catch (RuntimeException e) {
+            release(List.of(new Leg(Flight.class, flightId, "availableSeats", seats)));
+            throw e;
+        }
+        return counted("flight", BookingResult.booked(booking));
+    }
+    public BookingResult bookhotel(String userId,String hotelId,int rooms,double price){
+        if(rooms <= 0){
+            return counted("hotel", BookingResult.of(BookingResult.Status.INVALID_QUANTITY));
+        }
+        if(!userRepository.existsById(userId)){
+            return counted("hotel", BookingResult.of(BookingResult.Status.NOT_FOUND));
+        }
+
+        Hotel hotel=reserve(Hotel.class, hotelId, "availableRooms", rooms);
+        if(hotel == null){
+            return counted("hotel", BookingResult.of(unavailable(Hotel.class, hotelId)));
+        }
+
+        Booking booking=new Booking();
+        booking.setType("Hotel");
+        booking.setBookingId(hotelId);
+        booking.setDate(LocalDate.now().toString());
+        booking.setQuantity(rooms);
+        booking.setTotalPrice(price);
+        try {
+            bookingRepository.insert(new BookingRecord(userId, booking));
+        } catch (RuntimeException e) {
+            release(List.of(new Leg(Hotel.class, hotelId, "availableRooms", rooms)));
+            throw e;
+        }
+        return counted("hotel", BookingResult.booked(booking));
+    }
+
+    // All items or none: each leg is reserved with the same guarded findAndModify as a single
+    // booking, legs already taken are handed back if a later one fails, and the bookings are
+    // written together in one insert. Item types are checked by the caller.
+    public BatchBookingResult bookItinerary(String userId,List<BatchBookingRequest.Item> items){
+        for(int i=0;i<items.size();i++){
+            if(items.get(i).getQuantity() <= 0){
+                return counted(BatchBookingResult.failed(BookingResult.Status.INVALID_QUANTITY, i));
             }
         }
-        throw new RuntimeException("User or flight not found");
+        if(!userRepository.existsById(userId)){
+            return counted(BatchBookingResult.failed(BookingResult.Status.NOT_FOUND, null));
+        }
+
+        // The same flight or hotel listed twice is reserved once for the combined quantity,
+        // so the guard sees the whole request
+        Map<String, Leg> legs=new LinkedHashMap<>();
+        for(int i=0;i<items.size();i++){
+            BatchBookingRequest.Item item=items.get(i);
+            int index=i;
+            legs.computeIfAbsent(item.getType().toLowerCase()+":"+item.getId(), key -> new Leg(item, index)).quantity+=item.getQuantity();
+        }
+
+        List<Leg> reserved=new ArrayList<>();
+        List<Flight> flights=new ArrayList<>();
+        for(Leg leg : legs.values()){
+            Object taken=reserve(leg.type, leg.id, leg.inventoryField, leg.quantity);
+            if(taken == null){
+                release(reserved);
+                return counted(BatchBookingResult.failed(unavailable(leg.type, leg.id), leg.firstItem));
+            }
+            reserved.add(leg);
+            if(taken instanceof Flight flight){
+                flights.add(flight);
+            }
+        }
+
+        List<Booking> bookings=new ArrayList<>();
+        List<BookingRecord> records=new ArrayList<>();
+        for(BatchBookingRequest.Item item : items){
+            Booking booking=new Booking();
+            booking.setType(isFlight(item) ? "Flight" : "Hotel");
+            booking.setBookingId(item.getId());
+            booking.setDate(LocalDate.now().toString());
+            booking.setQuantity(item.getQuantity());
+            booking.setTotalPrice(item.getPrice());
+            bookings.add(booking);
+            records.add(new BookingRecord(userId, booking));
+        }
+        try {
+            bookingRepository.insert(records);
+        } catch (RuntimeException e) {
+            release(reserved);
+            throw e;
+        }
+
+        flights.forEach(flightSearchIndex::inventoryChanged);
+        return counted(BatchBookingResult.booked(bookings));
+    }
+
+    // Newest first, one page at a time
+    public CursorPage<BookingRecord> getBookings(String userId, String cursor, Integer size){
+        Query byUser=new Query(Criteria.where("userId").is(userId));
+        return keysetPaging.scroll(byUser, BookingRecord.class, KeysetPaging.BOOKING_SORTS, "-createdAt", cursor, size);
+    }
+
+    // Check-and-decrement in one findAndModify: the guard and the $inc apply atomically on the
+    // server, so concurrent bookings can never take the count below zero
+    private <T> T reserve(Class<T> type, String id, String inventoryField, int quantity){
+        Query available=new Query(Criteria.where("_id").is(id).and(inventoryField).gte(quantity));
+        return mongoTemplate.findAndModify(available, inventory(type, inventoryField, -quantity), FindAndModifyOptions.options().returnNew(true), type);
+    }
+
+    // Flights also count their inventory changes, so the search index can tell which copy is newest
+    private static Update inventory(Class<?> type, String inventoryField, int delta){
+        Update update=new Update().inc(inventoryField, delta);
+        return type == Flight.class ? update.inc("inventoryVersion", 1) : update;
+    }
+
+    // Counted by outcome, so sold-out and not-found rejections show up next to bookings
+    private BookingResult counted(String type, BookingResult result){
+        meterRegistry.counter("bookings", "type", type, "result", result.getStatus().name().toLowerCase()).increment();
+        return result;
     }
-    public Booking bookhotel(String userId,String hotelId,int rooms,double price){
-        Optional<Users> usersOptional =userRepository.findById(userId);
-        Optional<Hotel> hotelOptional = hotelRepository.findById(hotelId);
-        if(usersOptional.isPresent() && hotelOptional.isPresent()){
-            Users user=usersOptional.get();
-            Hotel hotel=hotelOptional.get();
-            if(hotel.getAvailableRooms() >= rooms){
-                hotel.setAvailableRooms(hotel.getAvailableRooms()- rooms);
-                hotelRepository.save(hotel);
-
-                Booking booking=new Booking();
-                booking.setType("Hotel");
-                booking.setBookingId(hotelId);
-                booking.setDate(LocalDate.now().toString());
-                booking.setQuantity(rooms);
-                booking.setTotalPrice(price);
-                user.getBookings().add(booking);
-                userRepository.save(user);
-                return booking;
-            }else {
-                throw new RuntimeException("Not enough rooms available");
+
+    private BatchBookingResult counted(BatchBookingResult result){
+        meterRegistry.counter("bookings", "type", "itinerary", "result", result.getStatus().name().toLowerCase()).increment();
+        return result;
+    }
+
+    // Compensation for a booking that could not complete. A failure here leaves inventory short,
+    // so it is logged with enough to put it back by hand.
+    private void release(List<Leg> legs){
+        for(Leg leg : legs){
+            try {
+                Query byId=new Query(Criteria.where("_id").is(leg.id));
+                Object restored=mongoTemplate.findAndModify(byId, inventory(leg.type, leg.inventoryField, leg.quantity),
+                    FindAndModifyOptions.options().returnNew(true), leg.type);
+                if(restored instanceof Flight flight){
+                    flightSearchIndex.inventoryChanged(flight);
+                }
+            } catch (RuntimeException e) {
+                log.error("Could not return {} {} to {} {} after a failed booking: {}",
+                    leg.quantity, leg.inventoryField, leg.type.getSimpleName(), leg.id, e.getMessage());
             }
         }
-        throw new RuntimeException("User or flight not found");
     }
 
-}
\ No newline at end of file
+    private static boolean isFlight(BatchBookingRequest.Item item){
+        return "flight".equalsIgnoreCase(item.getType());
+    }
+
+    // One flight or hotel in a booking; in a batch, with the quantity of every item that names it
+    private static class Leg {
+        private final Class<?> type;
+        private final String id;
+        private final String inventoryField;
+        private final int firstItem;
+        private int quantity;
+
+        private Leg(BatchBookingRequest.Item item, int firstItem){
+            boolean flight=isFlight(item);
+            this.type=flight ? Flight.class : Hotel.class;
+            this.id=item.getId();
+            this.inventoryField=flight ? "availableSeats" : "availableRooms";
+            this.firstItem=firstItem;
+        }
+
+        private Leg(Class<?> type, String id, String inventoryField, int quantity){
+            this.type=type;
+            this.id=id;
+            this.inventoryField=inventoryField;
+            this.firstItem=0;
+            this.quantity=quantity;
+        }
+    }
+
+    private BookingResult.Status unavailable(Class<?> type, String id){
+        boolean exists=mongoTemplate.exists(new Query(Criteria.where("_id").is(id)), type);
+        return exists ? BookingResult.Status.SOLD_OUT : BookingResult.Status.NOT_FOUND;
+    }
+
+}
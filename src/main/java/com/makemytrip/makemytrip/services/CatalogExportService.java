@@ -0,0 +1,60 @@
+package com.makemytrip.makemytrip.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+// Streams a whole collection as newline-delimited JSON straight off a Mongo cursor,
+// so memory use does not depend on catalog size
+@Service
+public class CatalogExportService {
+
+    private static final int FLUSH_EVERY = 500;
+    private static final char NEWLINE = '\n';
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public <T> void writeNdjson(Class<T> type, OutputStream out, boolean gzip) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, 8192, true) : out;
+        // One generator for the whole feed; nothing reaches the socket (or forces a deflate
+        // sync flush) except at the flush points below
+        ObjectWriter writer = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(target)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .setRootValueSeparator(null);
+
+        try (Stream<T> documents = mongoTemplate.stream(new Query(), type)) {
+            Iterator<T> iterator = documents.iterator();
+            long written = 0;
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw(NEWLINE);
+                // Flush the first document right away, then in batches
+                if (++written == 1 || written % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+        }
+
+        generator.close();
+        if (gzip) {
+            ((GZIPOutputStream) target).finish();
+        }
+        target.flush();
+    }
+}
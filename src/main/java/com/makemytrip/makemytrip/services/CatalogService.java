@@ -0,0 +1,56 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.config.CatalogCaches;
+import com.makemytrip.makemytrip.models.CursorPage;
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.models.Hotel;
+import com.makemytrip.makemytrip.repositories.FlightRepository;
+import com.makemytrip.makemytrip.repositories.HotelRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+// Flight and hotel listing pages, cached per (sort, cursor, size). An admin edit drops that type's
+// pages; bookings do not, so the seat and room counts shown can lag by up to
+// catalog-cache.inventory-pages-ttl. Booking itself checks live inventory.
+@Service
+public class CatalogService {
+
+    @Autowired
+    private KeysetPaging keysetPaging;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Cacheable(CatalogCaches.FLIGHT_PAGES)
+    public CursorPage<Flight> flights(String sort, String cursor, Integer size) {
+        return keysetPaging.scroll(new Query(), Flight.class, KeysetPaging.FLIGHT_SORTS, sort, cursor, size);
+    }
+
+    @Cacheable(CatalogCaches.HOTEL_PAGES)
+    public CursorPage<Hotel> hotels(String sort, String cursor, Integer size) {
+        return keysetPaging.scroll(new Query(), Hotel.class, KeysetPaging.HOTEL_SORTS, sort, cursor, size);
+    }
+
+    // Single lookups for detail and booking pages, which can no longer find an id in one listing page
+    public Flight flight(String id) {
+        return flightRepository.findById(id).orElse(null);
+    }
+
+    public Hotel hotel(String id) {
+        return hotelRepository.findById(id).orElse(null);
+    }
+
+    @CacheEvict(cacheNames = CatalogCaches.FLIGHT_PAGES, allEntries = true)
+    public void flightsChanged() {
+    }
+
+    @CacheEvict(cacheNames = CatalogCaches.HOTEL_PAGES, allEntries = true)
+    public void hotelsChanged() {
+    }
+}
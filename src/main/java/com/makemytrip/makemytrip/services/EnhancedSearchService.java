@@ -1,21 +1,31 @@
 package com.makemytrip.makemytrip.services;
 
+import com.makemytrip.makemytrip.models.CursorPage;
 import com.makemytrip.makemytrip.models.Flight;
 import com.makemytrip.makemytrip.models.Hotel;
 import com.makemytrip.makemytrip.models.SearchHistory;
+import com.makemytrip.makemytrip.models.SearchKeys;
 import com.makemytrip.makemytrip.repositories.FlightRepository;
 import com.makemytrip.makemytrip.repositories.HotelRepository;
 import com.makemytrip.makemytrip.repositories.SearchHistoryRepository;
+import com.makemytrip.makemytrip.repositories.SearchQueries;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
-import java.time.LocalDateTime;
-import java.util.List;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("makemytrip.service")
 public class EnhancedSearchService {
 
     @Autowired
@@ -27,107 +37,131 @@ public class EnhancedSearchService {
     @Autowired
     private SearchHistoryRepository searchHistoryRepository;
 
+    @Autowired
+    private FlightSearchIndex flightSearchIndex;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private KeysetPaging keysetPaging;
+
+    @Autowired
+    private AutocompleteIndex autocompleteIndex;
+
+    @Autowired
+    private PopularDestinations popularDestinations;
+
+    @Autowired
+    private SearchHistoryRecorder searchHistoryRecorder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     // Flight search with enhanced filters
     public List<Flight> searchFlights(String from, String to, String airline, 
                                     Double minPrice, Double maxPrice, Integer minSeats) {
-        List<Flight> results = new ArrayList<>();
-        
-        if (from != null && to != null) {
-            results = flightRepository.findByFromAndTo(from, to);
-        } else if (from != null || to != null) {
-            String location = from != null ? from : to;
-            results = flightRepository.findByFromOrToContaining(location);
-        } else {
-            results = flightRepository.findAll();
-        }
-        
-        // Apply filters
-        if (airline != null && !airline.isEmpty()) {
-            results = results.stream()
-                .filter(flight -> flight.getFlightName().toLowerCase().contains(airline.toLowerCase()))
-                .collect(Collectors.toList());
-        }
-        
-        if (minPrice != null) {
-            results = results.stream()
-                .filter(flight -> flight.getPrice() >= minPrice)
-                .collect(Collectors.toList());
-        }
-        
-        if (maxPrice != null) {
-            results = results.stream()
-                .filter(flight -> flight.getPrice() <= maxPrice)
-                .collect(Collectors.toList());
+        return searchFlights(from, to, airline, minPrice, maxPrice, minSeats, null);
+    }
+
+    // maxTime, when given, bounds the Mongo query on the server; the index answers without one
+    public List<Flight> searchFlights(String from, String to, String airline,
+                                      Double minPrice, Double maxPrice, Integer minSeats, Duration maxTime) {
+        if (flightSearchIndex.isReady()) {
+            List<Flight> matches = flightSearchIndex.search(from, to, airline, minPrice, maxPrice, minSeats);
+            recordFlightSearch(matches.size(), from, to, airline, minPrice, maxPrice, minSeats);
+            return matches;
         }
-        
-        if (minSeats != null) {
-            results = results.stream()
-                .filter(flight -> flight.getAvailableSeats() >= minSeats)
-                .collect(Collectors.toList());
+
+        Query query = SearchQueries.flights(from, to, airline, minPrice, maxPrice, minSeats);
+        if (maxTime != null) {
+            query.maxTime(maxTime);
         }
-        
-        return results;
+        List<Flight> flights = mongoTemplate.find(query, Flight.class);
+        recordResults("flight", "mongo", flights.size());
+        return flights;
     }
 
     // Hotel search with enhanced filters
     public List<Hotel> searchHotels(String location, Double minPrice, Double maxPrice, 
                                   String amenities, Integer minRooms) {
-        List<Hotel> results = new ArrayList<>();
-        
-        if (location != null && !location.isEmpty()) {
-            results = hotelRepository.findByLocationContaining(location);
-        } else {
-            results = hotelRepository.findAll();
-        }
-        
-        // Apply filters
-        if (minPrice != null && maxPrice != null) {
-            results = results.stream()
-                .filter(hotel -> hotel.getPricePerNight() >= minPrice && hotel.getPricePerNight() <= maxPrice)
-                .collect(Collectors.toList());
-        } else if (minPrice != null) {
-            results = results.stream()
-                .filter(hotel -> hotel.getPricePerNight() >= minPrice)
-                .collect(Collectors.toList());
-        } else if (maxPrice != null) {
-            results = results.stream()
-                .filter(hotel -> hotel.getPricePerNight() <= maxPrice)
-                .collect(Collectors.toList());
-        }
-        
-        if (amenities != null && !amenities.isEmpty()) {
-            results = results.stream()
-                .filter(hotel -> hotel.getamenities() != null && 
-                    hotel.getamenities().toLowerCase().contains(amenities.toLowerCase()))
-                .collect(Collectors.toList());
+        return searchHotels(location, minPrice, maxPrice, amenities, minRooms, null);
+    }
+
+    public List<Hotel> searchHotels(String location, Double minPrice, Double maxPrice,
+                                    String amenities, Integer minRooms, Duration maxTime) {
+        Query query = SearchQueries.hotels(location, minPrice, maxPrice, amenities, minRooms);
+        if (maxTime != null) {
+            query.maxTime(maxTime);
         }
-        
-        if (minRooms != null) {
-            results = results.stream()
-                .filter(hotel -> hotel.getAvailableRooms() >= minRooms)
-                .collect(Collectors.toList());
+        List<Hotel> hotels = mongoTemplate.find(query, Hotel.class);
+        recordResults("hotel", "mongo", hotels.size());
+        return hotels;
+    }
+
+    // Paged flight search, ordered by one of KeysetPaging.FLIGHT_SORTS
+    public CursorPage<Flight> searchFlights(String from, String to, String airline,
+                                            Double minPrice, Double maxPrice, Integer minSeats,
+                                            String sort, String cursor, Integer size) {
+        if (flightSearchIndex.isReady()) {
+            // Route buckets are ordered by price, so a price cursor becomes a price bound the buckets
+            // binary-search to. Ties at the bound are still left to page(), and on later pages the
+            // recorded match count is what is left after the cursor.
+            Double fromPrice = minPrice;
+            Double toPrice = maxPrice;
+            Object after = keysetPaging.cursorValue(KeysetPaging.FLIGHT_SORTS, sort, cursor);
+            boolean byPrice = sort == null || sort.isEmpty() || sort.equals("price") || sort.equals("-price");
+            if (after instanceof Number price && byPrice) {
+                if ("-price".equals(sort)) {
+                    toPrice = toPrice == null ? price.doubleValue() : Math.min(toPrice, price.doubleValue());
+                } else {
+                    fromPrice = fromPrice == null ? price.doubleValue() : Math.max(fromPrice, price.doubleValue());
+                }
+            }
+            List<Flight> matches = flightSearchIndex.search(from, to, airline, fromPrice, toPrice, minSeats);
+            recordFlightSearch(matches.size(), from, to, airline, minPrice, maxPrice, minSeats);
+            return keysetPaging.page(matches, KeysetPaging.FLIGHT_SORTS, sort, cursor, size);
         }
-        
-        return results;
+
+        // Only the page is known here, not the number of matches
+        CursorPage<Flight> page = keysetPaging.scroll(SearchQueries.flights(from, to, airline, minPrice, maxPrice, minSeats),
+            Flight.class, KeysetPaging.FLIGHT_SORTS, sort, cursor, size);
+        recordResults("flight", "mongo", page.getItems().size());
+        return page;
+    }
+
+    // Paged hotel search, ordered by one of KeysetPaging.HOTEL_SORTS
+    public CursorPage<Hotel> searchHotels(String location, Double minPrice, Double maxPrice,
+                                          String amenities, Integer minRooms,
+                                          String sort, String cursor, Integer size) {
+        CursorPage<Hotel> page = keysetPaging.scroll(SearchQueries.hotels(location, minPrice, maxPrice, amenities, minRooms),
+            Hotel.class, KeysetPaging.HOTEL_SORTS, sort, cursor, size);
+        recordResults("hotel", "mongo", page.getItems().size());
+        return page;
     }
 
-    // Autocomplete for locations
     public List<String> getLocationSuggestions(String query) {
-        Set<String> suggestions = new HashSet<>();
+        if (autocompleteIndex.isReady()) {
+            return autocompleteIndex.suggestLocations(query, 10);
+        }
+
+        // Kept in query order, flights first
+        Set<String> suggestions = new LinkedHashSet<>();
+        Pattern prefix = SearchKeys.prefix(query);
         
-        // Get flight locations
-        List<Flight> flights = flightRepository.findByFromOrToContaining(query);
+        // Get flight locations; the query matched the origin or the destination
+        List<Flight> flights = flightRepository.findByFromOrToPrefix(prefix);
         for (Flight flight : flights) {
-            if (flight.getFrom().toLowerCase().contains(query.toLowerCase())) {
+            if (SearchKeys.startsAWord(prefix, flight.getFrom())) {
                 suggestions.add(flight.getFrom());
             }
-            if (flight.getTo().toLowerCase().contains(query.toLowerCase())) {
+            if (SearchKeys.startsAWord(prefix, flight.getTo())) {
                 suggestions.add(flight.getTo());
             }
         }
         
         // Get hotel locations
-        List<Hotel> hotels = hotelRepository.findByLocationContaining(query);
+        List<Hotel> hotels = hotelRepository.findByLocationPrefix(prefix);
         for (Hotel hotel : hotels) {
             suggestions.add(hotel.getLocation());
         }
@@ -139,7 +173,11 @@ public class EnhancedSearchService {
 
     // Get airline suggestions
     public List<String> getAirlineSuggestions(String query) {
-        List<Flight> flights = flightRepository.findByFlightNameContaining(query);
+        if (autocompleteIndex.isReady()) {
+            return autocompleteIndex.suggestAirlines(query, 10);
+        }
+
+        List<Flight> flights = flightRepository.findByFlightNamePrefix(SearchKeys.prefix(query));
         
         return flights.stream()
             .map(Flight::getFlightName)
@@ -159,15 +197,9 @@ public class EnhancedSearchService {
         history.setPassengers(passengers);
         history.setSearchQuery(from + " to " + to);
         
-        searchHistoryRepository.save(history);
-        
-        // Keep only last 20 searches per user
-        List<SearchHistory> userHistory = searchHistoryRepository.findByUserIdOrderBySearchDateTimeDesc(userId);
-        if (userHistory.size() > 20) {
-            for (int i = 20; i < userHistory.size(); i++) {
-                searchHistoryRepository.delete(userHistory.get(i));
-            }
-        }
+        searchHistoryRecorder.record(history);
+        autocompleteIndex.searched(from, to);
+        popularDestinations.searched(to, history.getSearchDateTime());
     }
 
     // Get recent searches
@@ -177,32 +209,54 @@ public class EnhancedSearchService {
 
     // Get recent searches by type
     public List<SearchHistory> getRecentSearchesByType(String userId, String searchType) {
-        List<SearchHistory> allHistory = searchHistoryRepository.findByUserIdAndSearchTypeOrderBySearchDateTimeDesc(userId, searchType);
-        return allHistory.stream().limit(10).collect(Collectors.toList());
+        return searchHistoryRepository.findTop10ByUserIdAndSearchTypeOrderBySearchDateTimeDesc(userId, searchType);
     }
 
     // Clear search history
     public void clearSearchHistory(String userId) {
-        searchHistoryRepository.deleteByUserId(userId);
+        searchHistoryRecorder.clear(userId);
     }
 
     // Get popular destinations
     public List<String> getPopularDestinations() {
-        List<SearchHistory> recentSearches = searchHistoryRepository.findAll()
-            .stream()
-            .filter(search -> search.getSearchDateTime().isAfter(LocalDateTime.now().minusDays(30)))
-            .collect(Collectors.toList());
-        
-        return recentSearches.stream()
-            .map(SearchHistory::getDestination)
-            .filter(dest -> dest != null && !dest.isEmpty())
-            .collect(Collectors.groupingBy(dest -> dest, Collectors.counting()))
-            .entrySet()
-            .stream()
-            .sorted((e1, e2) -> e2.getValue().compareTo(e1.getValue()))
-            .limit(10)
-            .map(entry -> entry.getKey())
-            .collect(Collectors.toList());
+        if (popularDestinations.isReady()) {
+            return popularDestinations.top(10);
+        }
+        return popularDestinations.aggregateTop(10);
     }
-}
 
+    private void recordResults(String type, String source, int results) {
+        meterRegistry.summary("search.results", "type", type, "source", source).record(results);
+    }
+
+    // Share of the indexed flights a search matched, tagged with which filters were given
+    private void recordFlightSearch(int matches, String from, String to, String airline,
+                                    Double minPrice, Double maxPrice, Integer minSeats) {
+        recordResults("flight", "index", matches);
+        int indexed = flightSearchIndex.size();
+        if (indexed == 0) {
+            return;
+        }
+        List<String> filters = new ArrayList<>();
+        if (from != null && !from.isEmpty()) {
+            filters.add("from");
+        }
+        if (to != null && !to.isEmpty()) {
+            filters.add("to");
+        }
+        if (airline != null && !airline.isEmpty()) {
+            filters.add("airline");
+        }
+        if (minPrice != null || maxPrice != null) {
+            filters.add("price");
+        }
+        if (minSeats != null) {
+            filters.add("seats");
+        }
+        DistributionSummary.builder("search.flights.selectivity")
+            .baseUnit("percent")
+            .tag("filters", filters.isEmpty() ? "none" : String.join("+", filters))
+            .register(meterRegistry)
+            .record(100.0 * matches / indexed);
+    }
+}
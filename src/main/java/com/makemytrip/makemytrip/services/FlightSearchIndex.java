@@ -0,0 +1,409 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.models.SearchKeys;
+import com.makemytrip.makemytrip.repositories.FlightRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// Resident flight index: route buckets keyed by normalized (from, to), each holding
+// flights sorted by price so a search is a hash lookup plus a binary search. A single location or
+// an airline matches word starts, the same as the Mongo search keys (see SearchKeys). The index
+// keeps its own copies of the flights and hands out copies, so nobody can change an entry in place.
+@Component
+public class FlightSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightSearchIndex.class);
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    private final Object writeLock = new Object();
+    private final Map<String, RouteBucket> routes = new ConcurrentHashMap<>();
+    private final Map<String, String> routeByFlightId = new ConcurrentHashMap<>();
+
+    // Airline dictionary: lowercased flight name -> code, bucket entries store the code
+    private final Map<String, Integer> airlineCodes = new HashMap<>();
+    private volatile String[] airlineNames = new String[0];
+
+    private volatile boolean ready = false;
+
+    // Writes that land while a rebuild is reading Mongo, in order. The snapshot being read may
+    // predate them, so they are applied again on top of it.
+    private List<Runnable> writesDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Flight search index not built, searches will go to Mongo: {}", e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Number of indexed flights
+    public int size() {
+        return routeByFlightId.size();
+    }
+
+    public void rebuild() {
+        synchronized (writeLock) {
+            writesDuringRebuild = new ArrayList<>();
+        }
+        List<Flight> flights;
+        try {
+            flights = flightRepository.findAll();
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                writesDuringRebuild = null;
+            }
+            throw e;
+        }
+        synchronized (writeLock) {
+            List<Runnable> replay = writesDuringRebuild;
+            writesDuringRebuild = null;
+            routes.clear();
+            routeByFlightId.clear();
+            airlineCodes.clear();
+            airlineNames = new String[0];
+
+            Map<String, List<Flight>> grouped = new HashMap<>();
+            for (Flight flight : flights) {
+                String key = routeKey(flight.getFrom(), flight.getTo());
+                grouped.computeIfAbsent(key, k -> new ArrayList<>()).add(flight);
+                if (flight.getId() != null) {
+                    routeByFlightId.put(flight.getId(), key);
+                }
+            }
+            for (Map.Entry<String, List<Flight>> entry : grouped.entrySet()) {
+                Flight first = entry.getValue().get(0);
+                routes.put(entry.getKey(), RouteBucket.of(
+                    normalize(first.getFrom()), normalize(first.getTo()), entry.getValue(), this::airlineCode));
+            }
+            replay.forEach(Runnable::run);
+            ready = true;
+        }
+        log.info("Flight search index built: {} flights across {} routes", flights.size(), routes.size());
+    }
+
+    // Called after a flight is created or edited; the saved document replaces the indexed one
+    public void upsert(Flight flight) {
+        if (flight == null || flight.getId() == null) {
+            return;
+        }
+        Flight saved = copy(flight);
+        synchronized (writeLock) {
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.add(() -> put(saved));
+            }
+            put(saved);
+        }
+    }
+
+    // Called with the document a booking's $inc returned. Concurrent bookings report back in any
+    // order, so only the seat count is taken, and only from a document newer than the indexed one.
+    public void inventoryChanged(Flight flight) {
+        if (flight == null || flight.getId() == null) {
+            return;
+        }
+        Flight changed = copy(flight);
+        synchronized (writeLock) {
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.add(() -> applyInventory(changed));
+            }
+            applyInventory(changed);
+        }
+    }
+
+    public void remove(String flightId) {
+        synchronized (writeLock) {
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.add(() -> delete(flightId));
+            }
+            delete(flightId);
+        }
+    }
+
+    private void applyInventory(Flight changed) {
+        Flight indexed = find(changed.getId());
+        if (indexed == null) {
+            put(changed);
+            return;
+        }
+        if (changed.getInventoryVersion() <= indexed.getInventoryVersion()) {
+            return;
+        }
+        Flight merged = copy(indexed);
+        merged.setAvailableSeats(changed.getAvailableSeats());
+        merged.setInventoryVersion(changed.getInventoryVersion());
+        put(merged);
+    }
+
+    private Flight find(String flightId) {
+        String key = routeByFlightId.get(flightId);
+        RouteBucket bucket = key == null ? null : routes.get(key);
+        return bucket == null ? null : bucket.find(flightId);
+    }
+
+    private void put(Flight flight) {
+        String newKey = routeKey(flight.getFrom(), flight.getTo());
+        String oldKey = routeByFlightId.put(flight.getId(), newKey);
+        if (oldKey != null) {
+            RouteBucket old = routes.get(oldKey);
+            if (old != null) {
+                RouteBucket pruned = old.without(flight.getId());
+                if (pruned.size() == 0) {
+                    routes.remove(oldKey);
+                } else {
+                    routes.put(oldKey, pruned);
+                }
+            }
+        }
+        RouteBucket current = routes.get(newKey);
+        int code = airlineCode(flight.getFlightName());
+        routes.put(newKey, current == null
+            ? RouteBucket.of(normalize(flight.getFrom()), normalize(flight.getTo()), List.of(flight), this::airlineCode)
+            : current.with(flight, code));
+    }
+
+    private void delete(String flightId) {
+        String key = routeByFlightId.remove(flightId);
+        RouteBucket bucket = key == null ? null : routes.get(key);
+        if (bucket != null) {
+            RouteBucket pruned = bucket.without(flightId);
+            if (pruned.size() == 0) {
+                routes.remove(key);
+            } else {
+                routes.put(key, pruned);
+            }
+        }
+    }
+
+    public List<Flight> search(String from, String to, String airline,
+                               Double minPrice, Double maxPrice, Integer minSeats) {
+        Collection<RouteBucket> buckets = candidateBuckets(from, to);
+        boolean[] airlineMatches = airlineMatches(airline);
+
+        List<Flight> results = new ArrayList<>();
+        for (RouteBucket bucket : buckets) {
+            bucket.collect(minPrice, maxPrice, minSeats, airlineMatches, results);
+        }
+        if (buckets.size() > 1) {
+            results.sort(Comparator.comparingDouble(Flight::getPrice));
+        }
+        return results;
+    }
+
+    private Collection<RouteBucket> candidateBuckets(String from, String to) {
+        if (from != null && to != null) {
+            RouteBucket bucket = routes.get(routeKey(from, to));
+            return bucket == null ? List.of() : List.of(bucket);
+        }
+        if (from != null || to != null) {
+            Pattern location = SearchKeys.prefix(from != null ? from : to);
+            List<RouteBucket> matches = new ArrayList<>();
+            for (RouteBucket bucket : routes.values()) {
+                if (startsAWord(bucket.fromKeys, location) || startsAWord(bucket.toKeys, location)) {
+                    matches.add(bucket);
+                }
+            }
+            return matches;
+        }
+        return routes.values();
+    }
+
+    // Resolve the airline filter against the dictionary once per query instead of per flight
+    private boolean[] airlineMatches(String airline) {
+        if (airline == null || airline.isEmpty()) {
+            return null;
+        }
+        Pattern needle = SearchKeys.prefix(airline);
+        String[] names = airlineNames;
+        boolean[] matches = new boolean[names.length];
+        for (int i = 0; i < names.length; i++) {
+            matches[i] = startsAWord(SearchKeys.wordSuffixes(names[i]), needle);
+        }
+        return matches;
+    }
+
+    private static boolean startsAWord(List<String> keys, Pattern prefix) {
+        for (String key : keys) {
+            if (prefix.matcher(key).lookingAt()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int airlineCode(String flightName) {
+        String name = flightName == null ? "" : flightName.toLowerCase(Locale.ROOT);
+        Integer code = airlineCodes.get(name);
+        if (code == null) {
+            code = airlineNames.length;
+            String[] grown = Arrays.copyOf(airlineNames, code + 1);
+            grown[code] = name;
+            airlineCodes.put(name, code);
+            airlineNames = grown;
+        }
+        return code;
+    }
+
+    // Search keys are left out, as they are from Mongo search results
+    private static Flight copy(Flight flight) {
+        Flight copy = new Flight();
+        copy.setId(flight.getId());
+        copy.setFlightName(flight.getFlightName());
+        copy.setFrom(flight.getFrom());
+        copy.setTo(flight.getTo());
+        copy.setDepartureTime(flight.getDepartureTime());
+        copy.setArrivalTime(flight.getArrivalTime());
+        copy.setPrice(flight.getPrice());
+        copy.setAvailableSeats(flight.getAvailableSeats());
+        copy.setInventoryVersion(flight.getInventoryVersion());
+        return copy;
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static String routeKey(String from, String to) {
+        return normalize(from) + "|" + normalize(to);
+    }
+
+    private interface AirlineCoder {
+        int codeFor(String flightName);
+    }
+
+    // Immutable, replaced wholesale on every write so readers never see a partial update
+    private static final class RouteBucket {
+        private final List<String> fromKeys;
+        private final List<String> toKeys;
+        private final Flight[] flights;
+        private final double[] prices;
+        private final int[] airlines;
+
+        private RouteBucket(List<String> fromKeys, List<String> toKeys, Flight[] flights, double[] prices, int[] airlines) {
+            this.fromKeys = fromKeys;
+            this.toKeys = toKeys;
+            this.flights = flights;
+            this.prices = prices;
+            this.airlines = airlines;
+        }
+
+        static RouteBucket of(String from, String to, List<Flight> flights, AirlineCoder coder) {
+            Flight[] sorted = flights.toArray(new Flight[0]);
+            Arrays.sort(sorted, Comparator.comparingDouble(Flight::getPrice));
+            double[] prices = new double[sorted.length];
+            int[] airlines = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                prices[i] = sorted[i].getPrice();
+                airlines[i] = coder.codeFor(sorted[i].getFlightName());
+            }
+            return new RouteBucket(SearchKeys.wordSuffixes(from), SearchKeys.wordSuffixes(to), sorted, prices, airlines);
+        }
+
+        int size() {
+            return flights.length;
+        }
+
+        RouteBucket with(Flight flight, int airlineCode) {
+            RouteBucket base = without(flight.getId());
+            int at = lowerBound(base.prices, flight.getPrice());
+            int n = base.flights.length;
+            Flight[] flights = new Flight[n + 1];
+            double[] prices = new double[n + 1];
+            int[] airlines = new int[n + 1];
+            System.arraycopy(base.flights, 0, flights, 0, at);
+            System.arraycopy(base.prices, 0, prices, 0, at);
+            System.arraycopy(base.airlines, 0, airlines, 0, at);
+            flights[at] = flight;
+            prices[at] = flight.getPrice();
+            airlines[at] = airlineCode;
+            System.arraycopy(base.flights, at, flights, at + 1, n - at);
+            System.arraycopy(base.prices, at, prices, at + 1, n - at);
+            System.arraycopy(base.airlines, at, airlines, at + 1, n - at);
+            return new RouteBucket(fromKeys, toKeys, flights, prices, airlines);
+        }
+
+        Flight find(String flightId) {
+            for (Flight flight : flights) {
+                if (flightId.equals(flight.getId())) {
+                    return flight;
+                }
+            }
+            return null;
+        }
+
+        RouteBucket without(String flightId) {
+            for (int i = 0; i < flights.length; i++) {
+                if (flightId.equals(flights[i].getId())) {
+                    int n = flights.length;
+                    Flight[] flights = new Flight[n - 1];
+                    double[] prices = new double[n - 1];
+                    int[] airlines = new int[n - 1];
+                    System.arraycopy(this.flights, 0, flights, 0, i);
+                    System.arraycopy(this.prices, 0, prices, 0, i);
+                    System.arraycopy(this.airlines, 0, airlines, 0, i);
+                    System.arraycopy(this.flights, i + 1, flights, i, n - i - 1);
+                    System.arraycopy(this.prices, i + 1, prices, i, n - i - 1);
+                    System.arraycopy(this.airlines, i + 1, airlines, i, n - i - 1);
+                    return new RouteBucket(fromKeys, toKeys, flights, prices, airlines);
+                }
+            }
+            return this;
+        }
+
+        void collect(Double minPrice, Double maxPrice, Integer minSeats,
+                     boolean[] airlineMatches, List<Flight> out) {
+            int start = minPrice == null ? 0 : lowerBound(prices, minPrice);
+            for (int i = start; i < flights.length; i++) {
+                if (maxPrice != null && prices[i] > maxPrice) {
+                    break;
+                }
+                if (airlineMatches != null
+                        && (airlines[i] >= airlineMatches.length || !airlineMatches[airlines[i]])) {
+                    continue;
+                }
+                if (minSeats != null && flights[i].getAvailableSeats() < minSeats) {
+                    continue;
+                }
+                out.add(copy(flights[i]));
+            }
+        }
+
+        // First index whose price is >= target
+        private static int lowerBound(double[] prices, double target) {
+            int lo = 0;
+            int hi = prices.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (prices[mid] < target) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+}
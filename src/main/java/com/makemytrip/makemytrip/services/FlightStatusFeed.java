@@ -0,0 +1,373 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.FlightStatus;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Server-sent flight status deltas. Subscribers are indexed by flight number, airline, origin and
+// destination, so a change is only matched against interested clients. Each client has a bounded
+// queue that a small shared pool drains; when a slow client's queue fills, its oldest updates are
+// dropped and it is told to resync. SseEmitter writes block, so every write, heartbeats included,
+// happens in the client's own drain task. A client whose write takes longer than send-timeout-ms
+// is evicted; the servlet container only gives up on that write at its own socket timeout, so the
+// pool runs an extra thread until it does and the other clients keep their dispatchers.
+@Component
+public class FlightStatusFeed implements DisposableBean, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightStatusFeed.class);
+
+    private static final String EVENT_STATUS = "status";
+    private static final String EVENT_RESYNC = "resync";
+    private static final int MAX_BATCH = 100;
+
+    private final Set<Subscriber> everyone = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<Subscriber>> byFlightNumber = new ConcurrentHashMap<>();
+    private final Map<String, Set<Subscriber>> byAirline = new ConcurrentHashMap<>();
+    private final Map<String, Set<Subscriber>> byRoute = new ConcurrentHashMap<>();
+    private final Map<String, Set<Subscriber>> byOrigin = new ConcurrentHashMap<>();
+    private final Map<String, Set<Subscriber>> byDestination = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong droppedUpdates = new AtomicLong();
+    private final AtomicLong evictedSubscribers = new AtomicLong();
+
+    private final ThreadPoolExecutor dispatchers;
+    private final int dispatchThreads;
+    private final int maxStalledWrites;
+    private final AtomicInteger stalledWrites = new AtomicInteger();
+    // Heartbeats and eviction must not queue behind writes that are stuck on the dispatchers
+    private final ScheduledExecutorService watchdog;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+
+    public FlightStatusFeed(@Value("${flight-status.feed.dispatch-threads:4}") int dispatchThreads,
+                            @Value("${flight-status.feed.buffer-size:64}") int bufferSize,
+                            @Value("${flight-status.feed.timeout-ms:1800000}") long timeoutMillis,
+                            @Value("${flight-status.feed.heartbeat-ms:25000}") long heartbeatMillis,
+                            @Value("${flight-status.feed.send-timeout-ms:5000}") long sendTimeoutMillis,
+                            @Value("${flight-status.feed.max-stalled-writes:64}") int maxStalledWrites) {
+        AtomicInteger threadId = new AtomicInteger();
+        this.dispatchers = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "flight-status-feed-" + threadId.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.dispatchThreads = dispatchThreads;
+        this.maxStalledWrites = maxStalledWrites;
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "flight-status-feed-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        watchdog.scheduleAtFixedRate(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        long sweepMillis = Math.max(100, sendTimeoutMillis / 2);
+        watchdog.scheduleAtFixedRate(this::evictStalled, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // All filters null subscribes to every flight; otherwise any matching filter delivers the update.
+    // Origin and destination together select a route, either one alone every flight from or to it.
+    public SseEmitter subscribe(String flightNumber, String airline, String origin, String destination) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, bufferSize);
+
+        if (flightNumber != null) {
+            register(byFlightNumber, key(flightNumber), subscriber);
+        }
+        if (airline != null) {
+            register(byAirline, key(airline), subscriber);
+        }
+        if (origin != null && destination != null) {
+            register(byRoute, routeKey(origin, destination), subscriber);
+        } else if (origin != null) {
+            register(byOrigin, key(origin), subscriber);
+        } else if (destination != null) {
+            register(byDestination, key(destination), subscriber);
+        }
+        if (subscriber.registrations.isEmpty()) {
+            everyone.add(subscriber);
+            subscriber.registrations.add(everyone);
+        }
+        subscribers.add(subscriber);
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        // Flushes the response headers so the client sees the stream open straight away
+        subscriber.heartbeatDue.set(true);
+        schedule(subscriber);
+        return emitter;
+    }
+
+    // Called after flight statuses are written; only the changed rows are sent
+    public void publish(List<FlightStatus> changed) {
+        if (changed.isEmpty() || subscribers.isEmpty()) {
+            return;
+        }
+        Set<Subscriber> touched = identitySet();
+        for (FlightStatus status : changed) {
+            List<Set<Subscriber>> audiences = new ArrayList<>(4);
+            audiences.add(everyone);
+            addIfPresent(audiences, byFlightNumber.get(key(status.getFlightNumber())));
+            addIfPresent(audiences, byAirline.get(key(status.getAirline())));
+            addIfPresent(audiences, byRoute.get(routeKey(status.getOrigin(), status.getDestination())));
+            addIfPresent(audiences, byOrigin.get(key(status.getOrigin())));
+            addIfPresent(audiences, byDestination.get(key(status.getDestination())));
+
+            // A client can sit in several audiences but gets each update once
+            Set<Subscriber> delivered = identitySet();
+            for (Set<Subscriber> audience : audiences) {
+                for (Subscriber subscriber : audience) {
+                    if (delivered.add(subscriber)) {
+                        subscriber.enqueue(status);
+                    }
+                }
+            }
+            touched.addAll(delivered);
+        }
+        for (Subscriber subscriber : touched) {
+            schedule(subscriber);
+        }
+    }
+
+    public void publish(FlightStatus changed) {
+        if (changed != null) {
+            publish(List.of(changed));
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public long getDroppedUpdates() {
+        return droppedUpdates.get();
+    }
+
+    public long getEvictedSubscribers() {
+        return evictedSubscribers.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("flight.status.feed.subscribers", subscribers, Set::size).register(registry);
+        FunctionCounter.builder("flight.status.feed.dropped", droppedUpdates, AtomicLong::get).register(registry);
+        FunctionCounter.builder("flight.status.feed.evicted", evictedSubscribers, AtomicLong::get).register(registry);
+    }
+
+    // Open streams would otherwise hold up the web server's graceful shutdown
+    @EventListener(ContextClosedEvent.class)
+    public void onContextClosed() {
+        for (Subscriber subscriber : subscribers) {
+            unsubscribe(subscriber);
+            subscriber.emitter.complete();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        watchdog.shutdownNow();
+        dispatchers.shutdownNow();
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            dispatchers.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            if (subscriber.closed.get()) {
+                return;
+            }
+            boolean sent = false;
+            List<FlightStatus> batch = new ArrayList<>();
+            while (!subscriber.closed.get()) {
+                // The queue can overflow while an earlier batch is being written
+                if (subscriber.overflowed.getAndSet(false)) {
+                    send(subscriber, SseEmitter.event().name(EVENT_RESYNC).data(""));
+                    sent = true;
+                }
+                if (subscriber.queue.drainTo(batch, MAX_BATCH) == 0) {
+                    break;
+                }
+                send(subscriber, SseEmitter.event().name(EVENT_STATUS).data(batch, MediaType.APPLICATION_JSON));
+                batch = new ArrayList<>();
+                sent = true;
+            }
+            // Any event keeps the connection alive, so the comment is only needed on a quiet stream
+            if (subscriber.heartbeatDue.getAndSet(false) && !sent && !subscriber.closed.get()) {
+                send(subscriber, SseEmitter.event().comment("keep-alive"));
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping flight status subscriber: {}", e.getMessage());
+            unsubscribe(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        if (subscriber.closed.get()) {
+            // Evicted while a write was blocked
+            subscriber.emitter.complete();
+            return;
+        }
+        // An update may have arrived between the last drain and clearing the flag
+        if (!subscriber.queue.isEmpty() || subscriber.overflowed.get() || subscriber.heartbeatDue.get()) {
+            schedule(subscriber);
+        }
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        subscriber.sendStartedNanos = System.nanoTime();
+        try {
+            subscriber.emitter.send(event);
+        } finally {
+            subscriber.sendStartedNanos = 0;
+            if (subscriber.replaced.compareAndSet(true, false)) {
+                resizeDispatchers(-1);
+            }
+        }
+    }
+
+    // Heartbeats go through each client's drain task like any other write, so a few slow sockets
+    // cannot hold up the keep-alives of everyone else
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue.set(true);
+            schedule(subscriber);
+        }
+    }
+
+    // A client whose write has been blocked past the send timeout is not reading; it stops getting
+    // updates, and its stream is closed once the blocked write returns or fails
+    private void evictStalled() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.sendStartedNanos;
+            if (started != 0 && now - started > sendTimeoutNanos) {
+                log.debug("Evicting flight status subscriber blocked for {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(now - started));
+                evictedSubscribers.incrementAndGet();
+                unsubscribe(subscriber);
+                subscriber.queue.clear();
+                replaceStalledDispatcher(subscriber);
+            }
+        }
+    }
+
+    private void replaceStalledDispatcher(Subscriber subscriber) {
+        if (stalledWrites.get() >= maxStalledWrites || !subscriber.replaced.compareAndSet(false, true)) {
+            return;
+        }
+        resizeDispatchers(1);
+        // The write may have returned in the meantime without seeing the flag
+        if (subscriber.sendStartedNanos == 0 && subscriber.replaced.compareAndSet(true, false)) {
+            resizeDispatchers(-1);
+        }
+    }
+
+    private synchronized void resizeDispatchers(int delta) {
+        int size = dispatchThreads + stalledWrites.addAndGet(delta);
+        if (delta > 0) {
+            dispatchers.setMaximumPoolSize(size);
+            dispatchers.setCorePoolSize(size);
+        } else {
+            dispatchers.setCorePoolSize(size);
+            dispatchers.setMaximumPoolSize(size);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (subscriber.closed.compareAndSet(false, true)) {
+            for (Set<Subscriber> registration : subscriber.registrations) {
+                registration.remove(subscriber);
+            }
+            subscribers.remove(subscriber);
+        }
+    }
+
+    private void register(Map<String, Set<Subscriber>> index, String key, Subscriber subscriber) {
+        Set<Subscriber> audience = index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet());
+        audience.add(subscriber);
+        subscriber.registrations.add(audience);
+    }
+
+    private static Set<Subscriber> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    private static void addIfPresent(List<Set<Subscriber>> audiences, Set<Subscriber> audience) {
+        if (audience != null) {
+            audiences.add(audience);
+        }
+    }
+
+    private static String key(String value) {
+        return value == null ? "" : value.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static String routeKey(String origin, String destination) {
+        return key(origin) + "-" + key(destination);
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<FlightStatus> queue;
+        private final List<Set<Subscriber>> registrations = new ArrayList<>(3);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean overflowed = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        private volatile long sendStartedNanos;
+        private final AtomicBoolean replaced = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        private void enqueue(FlightStatus status) {
+            while (!queue.offer(status)) {
+                if (queue.poll() != null) {
+                    droppedUpdates.incrementAndGet();
+                    overflowed.set(true);
+                }
+            }
+        }
+    }
+}
@@ -1,20 +1,42 @@
 package com.makemytrip.makemytrip.services;
 
+import com.makemytrip.makemytrip.config.CatalogCaches;
 import com.makemytrip.makemytrip.models.FlightStatus;
+import com.makemytrip.makemytrip.models.SearchKeys;
 import com.makemytrip.makemytrip.repositories.FlightStatusRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
 
 @Service
+@Timed("makemytrip.service")
 public class FlightStatusService {
 
     @Autowired
     private FlightStatusRepository flightStatusRepository;
 
+    @Autowired
+    private FlightStatusFeed flightStatusFeed;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${flight-status.bulk-batch-size:500}")
+    private int bulkBatchSize;
+
     private final Random random = new Random();
     private final String[] delayReasons = {
         "Weather conditions",
@@ -35,6 +57,7 @@ public class FlightStatusService {
         return flightStatusRepository.findAll();
     }
 
+    @Cacheable(CatalogCaches.FLIGHT_STATUS)
     public Optional<FlightStatus> getFlightStatusByNumber(String flightNumber) {
         return flightStatusRepository.findByFlightNumber(flightNumber);
     }
@@ -49,77 +72,107 @@ public class FlightStatusService {
 
     public List<FlightStatus> searchFlightStatuses(String query) {
         // Try to find by flight number first
-        List<FlightStatus> results = flightStatusRepository.findByFlightNumberContaining(query);
+        List<FlightStatus> results = flightStatusRepository.findByFlightNumberPrefix(SearchKeys.prefix(query));
         
         // If no results, search by location
         if (results.isEmpty()) {
-            results = flightStatusRepository.findByOriginOrDestinationContaining(query);
+            results = flightStatusRepository.findByOriginOrDestinationPrefix(SearchKeys.prefix(query));
         }
         
         return results;
     }
 
+    @CacheEvict(cacheNames = CatalogCaches.FLIGHT_STATUS, key = "#flightStatus.flightNumber")
     public FlightStatus createFlightStatus(FlightStatus flightStatus) {
         flightStatus.setStatus("ON_TIME");
         flightStatus.setDelayMinutes(0);
         return flightStatusRepository.save(flightStatus);
     }
 
+    // Looked up by id, and the flight number itself may change, so every entry goes
+    @CacheEvict(cacheNames = CatalogCaches.FLIGHT_STATUS, allEntries = true)
     public FlightStatus updateFlightStatus(String id, FlightStatus flightStatus) {
         flightStatus.setId(id);
-        return flightStatusRepository.save(flightStatus);
+        FlightStatus saved = flightStatusRepository.save(flightStatus);
+        flightStatusFeed.publish(saved);
+        return saved;
     }
 
+    @CacheEvict(cacheNames = CatalogCaches.FLIGHT_STATUS, allEntries = true)
     public void deleteFlightStatus(String id) {
         flightStatusRepository.deleteById(id);
     }
 
     // Mock API methods for simulating real-time updates
+    @CacheEvict(cacheNames = CatalogCaches.FLIGHT_STATUS, key = "#flightNumber")
     public FlightStatus simulateStatusUpdate(String flightNumber) {
         Optional<FlightStatus> optionalStatus = flightStatusRepository.findByFlightNumber(flightNumber);
         
         if (optionalStatus.isPresent()) {
             FlightStatus status = optionalStatus.get();
+            applyRandomStatus(status);
             
-            // Randomly update status
-            String newStatus = statuses[random.nextInt(statuses.length)];
-            status.setStatus(newStatus);
-            
-            // If delayed, add delay information
-            if ("DELAYED".equals(newStatus)) {
-                int delayMinutes = 15 + random.nextInt(180); // 15-195 minutes delay
-                status.setDelayMinutes(delayMinutes);
-                status.setDelayReason(delayReasons[random.nextInt(delayReasons.length)]);
-                
-                // Update estimated arrival
-                if (status.getScheduledArrival() != null) {
-                    status.setEstimatedArrival(status.getScheduledArrival().plusMinutes(delayMinutes));
-                }
-            } else if ("ON_TIME".equals(newStatus)) {
-                status.setDelayMinutes(0);
-                status.setDelayReason(null);
-                status.setEstimatedArrival(status.getScheduledArrival());
-            }
-            
-            return flightStatusRepository.save(status);
+            FlightStatus saved = flightStatusRepository.save(status);
+            flightStatusFeed.publish(saved);
+            return saved;
         }
         
         return null;
     }
 
+    // One read, in-memory changes, then unordered bulk writes of only the rows that changed
+    @CacheEvict(cacheNames = CatalogCaches.FLIGHT_STATUS, allEntries = true)
     public List<FlightStatus> simulateAllStatusUpdates() {
-        List<FlightStatus> allStatuses = flightStatusRepository.findAll();
+        List<FlightStatus> allStatuses = mongoTemplate.findAll(FlightStatus.class);
+        List<FlightStatus> changed = new ArrayList<>();
         
         for (FlightStatus status : allStatuses) {
             // 30% chance of status change
             if (random.nextDouble() < 0.3) {
-                simulateStatusUpdate(status.getFlightNumber());
+                applyRandomStatus(status);
+                changed.add(status);
             }
         }
         
-        return flightStatusRepository.findAll();
+        for (int from = 0; from < changed.size(); from += bulkBatchSize) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FlightStatus.class);
+            for (FlightStatus status : changed.subList(from, Math.min(changed.size(), from + bulkBatchSize))) {
+                bulk.updateOne(Query.query(Criteria.where("_id").is(status.getId())), new Update()
+                    .set("status", status.getStatus())
+                    .set("delayMinutes", status.getDelayMinutes())
+                    .set("delayReason", status.getDelayReason())
+                    .set("estimatedArrival", status.getEstimatedArrival()));
+            }
+            bulk.execute();
+        }
+        
+        flightStatusFeed.publish(changed);
+        return changed;
+    }
+
+    private void applyRandomStatus(FlightStatus status) {
+        // Randomly update status
+        String newStatus = statuses[random.nextInt(statuses.length)];
+        status.setStatus(newStatus);
+        
+        // If delayed, add delay information
+        if ("DELAYED".equals(newStatus)) {
+            int delayMinutes = 15 + random.nextInt(180); // 15-195 minutes delay
+            status.setDelayMinutes(delayMinutes);
+            status.setDelayReason(delayReasons[random.nextInt(delayReasons.length)]);
+            
+            // Update estimated arrival
+            if (status.getScheduledArrival() != null) {
+                status.setEstimatedArrival(status.getScheduledArrival().plusMinutes(delayMinutes));
+            }
+        } else if ("ON_TIME".equals(newStatus)) {
+            status.setDelayMinutes(0);
+            status.setDelayReason(null);
+            status.setEstimatedArrival(status.getScheduledArrival());
+        }
     }
 
+    @CacheEvict(cacheNames = CatalogCaches.FLIGHT_STATUS, allEntries = true)
     public void initializeMockData() {
         if (flightStatusRepository.count() == 0) {
             // Create some mock flight statuses
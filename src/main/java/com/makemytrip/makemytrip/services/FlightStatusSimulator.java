@@ -0,0 +1,27 @@
+package com.makemytrip.makemytrip.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Drives the mock status updates server-side, once for everyone, instead of from every open
+// browser. Skips the tick when nobody is subscribed to the feed. The flight status page only
+// changes through these updates, so it is on unless flight-status.simulator.enabled=false.
+@Component
+@ConditionalOnProperty(name = "flight-status.simulator.enabled", havingValue = "true", matchIfMissing = true)
+public class FlightStatusSimulator {
+
+    @Autowired
+    private FlightStatusService flightStatusService;
+
+    @Autowired
+    private FlightStatusFeed flightStatusFeed;
+
+    @Scheduled(fixedDelayString = "${flight-status.simulator.interval-ms:30000}")
+    public void tick() {
+        if (flightStatusFeed.getSubscriberCount() > 0) {
+            flightStatusService.simulateAllStatusUpdates();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.makemytrip.makemytrip.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.makemytrip.makemytrip.models.BatchBookingResult;
+import com.makemytrip.makemytrip.models.BookingResult;
+import com.makemytrip.makemytrip.models.IdempotencyKey;
+import com.makemytrip.makemytrip.models.IdempotentResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Deduplicates retried bookings by Idempotency-Key. The first request claims the key with an
+// insert, so of two concurrent requests only one wins on the unique _id, then runs and stores its
+// outcome. Repeats get that outcome back without touching inventory. Completed outcomes never
+// change, so they are also kept in a bounded in-memory cache in front of Mongo.
+@Component
+public class IdempotencyKeys {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyKeys.class);
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Duration ttl;
+    private final Duration claimTtl;
+    private final Cache<String, IdempotencyKey> completed;
+
+    // claim-ttl bounds how long a key stays blocked when its request died before completing
+    public IdempotencyKeys(@Value("${idempotency.ttl:24h}") Duration ttl,
+                           @Value("${idempotency.claim-ttl:10m}") Duration claimTtl,
+                           @Value("${idempotency.cache-size:10000}") long cacheSize) {
+        this.ttl = ttl;
+        this.claimTtl = claimTtl;
+        this.completed = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(ttl)
+            .build();
+    }
+
+    // `request` describes what is being booked; a key reused for something else is refused
+    public IdempotentResult<BookingResult> run(String userId, String key, String request, Supplier<BookingResult> booking) {
+        return run(userId, key, request, booking, (done, result) -> {
+            done.setResult(result.getStatus());
+            done.setBooking(result.getBooking());
+        }, IdempotencyKey::toResult);
+    }
+
+    public IdempotentResult<BatchBookingResult> runBatch(String userId, String key, String request, Supplier<BatchBookingResult> batch) {
+        return run(userId, key, request, batch, (done, result) -> {
+            done.setResult(result.getStatus());
+            done.setBookings(result.getBookings());
+            done.setFailedItem(result.getFailedItem());
+        }, IdempotencyKey::toBatchResult);
+    }
+
+    private <T> IdempotentResult<T> run(String userId, String key, String request, Supplier<T> work,
+                                        BiConsumer<IdempotencyKey, T> store, Function<IdempotencyKey, T> load) {
+        if (key == null) {
+            return IdempotentResult.executed(work.get());
+        }
+        String id = userId + ":" + key;
+
+        IdempotencyKey known = completed.getIfPresent(id);
+        if (known != null) {
+            return replay(known, request, load);
+        }
+
+        try {
+            mongoTemplate.insert(new IdempotencyKey(id, request, LocalDateTime.now().plus(claimTtl)));
+        } catch (DuplicateKeyException e) {
+            IdempotencyKey existing = mongoTemplate.findById(id, IdempotencyKey.class);
+            if (existing == null) {
+                // Expired between the two calls; the client's next retry claims it
+                return counted(IdempotentResult.refused(IdempotentResult.Outcome.IN_PROGRESS));
+            }
+            if (existing.isCompleted()) {
+                completed.put(id, existing);
+            }
+            return replay(existing, request, load);
+        }
+        meterRegistry.counter("idempotency.keys", "outcome", "claimed").increment();
+
+        T result;
+        try {
+            result = work.get();
+        } catch (RuntimeException e) {
+            // There is no outcome to replay, so the retry is let through
+            release(id);
+            throw e;
+        }
+        IdempotencyKey done = new IdempotencyKey(id, request, LocalDateTime.now().plus(ttl));
+        done.setState(IdempotencyKey.COMPLETED);
+        store.accept(done, result);
+        complete(done);
+        return IdempotentResult.executed(result);
+    }
+
+    private <T> IdempotentResult<T> replay(IdempotencyKey existing, String request, Function<IdempotencyKey, T> load) {
+        if (!existing.getRequest().equals(request)) {
+            return counted(IdempotentResult.refused(IdempotentResult.Outcome.KEY_REUSED));
+        }
+        if (!existing.isCompleted()) {
+            return counted(IdempotentResult.refused(IdempotentResult.Outcome.IN_PROGRESS));
+        }
+        return counted(IdempotentResult.replayed(load.apply(existing)));
+    }
+
+    private <T> IdempotentResult<T> counted(IdempotentResult<T> result) {
+        meterRegistry.counter("idempotency.keys", "outcome", result.getOutcome().name().toLowerCase()).increment();
+        return result;
+    }
+
+    private void complete(IdempotencyKey done) {
+        completed.put(done.getId(), done);
+        try {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(done.getId())), new Update()
+                .set("state", IdempotencyKey.COMPLETED)
+                .set("result", done.getResult())
+                .set("booking", done.getBooking())
+                .set("bookings", done.getBookings())
+                .set("failedItem", done.getFailedItem())
+                .set("expiresAt", done.getExpiresAt()), IdempotencyKey.class);
+        } catch (RuntimeException e) {
+            // Other instances see the key as in progress until the claim expires
+            log.warn("Could not record the outcome for idempotency key {}: {}", done.getId(), e.getMessage());
+        }
+    }
+
+    private void release(String id) {
+        try {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(id)
+                .and("state").is(IdempotencyKey.IN_PROGRESS)), IdempotencyKey.class);
+        } catch (RuntimeException e) {
+            log.warn("Could not release idempotency key {}: {}", id, e.getMessage());
+        }
+    }
+}
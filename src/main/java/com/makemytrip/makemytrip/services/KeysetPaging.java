@@ -0,0 +1,263 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.BookingRecord;
+import com.makemytrip.makemytrip.models.CursorPage;
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.models.Hotel;
+import com.makemytrip.makemytrip.models.TravelPackage;
+import com.makemytrip.makemytrip.models.Users;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+// Keyset (seek) pagination shared by the search and listing endpoints. Pages are ordered by
+// a whitelisted sort field plus _id, and the cursor encodes the sort and the last row's keys, so
+// fetching page N never skips over the N-1 pages before it. A cursor only continues its own sort.
+@Component
+public class KeysetPaging {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String CURSOR_SORT = "sort";
+
+    public static final Map<String, SortOption<Flight>> FLIGHT_SORTS = sorts(
+        new SortOption<>("price", Flight::getPrice, Flight::getId),
+        new SortOption<>("departureTime", Flight::getDepartureTime, Flight::getId),
+        new SortOption<>("availableSeats", Flight::getAvailableSeats, Flight::getId));
+
+    public static final Map<String, SortOption<Hotel>> HOTEL_SORTS = sorts(
+        new SortOption<>("pricePerNight", Hotel::getPricePerNight, Hotel::getId),
+        new SortOption<>("availableRooms", Hotel::getAvailableRooms, Hotel::getId));
+
+    public static final Map<String, SortOption<TravelPackage>> PACKAGE_SORTS = sorts(
+        new SortOption<>("discountedPrice", TravelPackage::getDiscountedPrice, TravelPackage::getId),
+        new SortOption<>("duration", TravelPackage::getDuration, TravelPackage::getId));
+
+    public static final Map<String, SortOption<Users>> USER_SORTS = sorts(
+        new SortOption<>("_id", Users::getId, Users::getId));
+
+    public static final Map<String, SortOption<BookingRecord>> BOOKING_SORTS = sorts(
+        new SortOption<>("createdAt", b -> toDate(b.getCreatedAt()), BookingRecord::getId));
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${paging.default-size:50}")
+    private int defaultSize;
+
+    @Value("${paging.max-size:200}")
+    private int maxSize;
+
+    // Runs the query against Mongo, fetching at most one page
+    public <T> CursorPage<T> scroll(Query query, Class<T> type, Map<String, SortOption<T>> options,
+                                    String sort, String cursor, Integer size) {
+        SortOption<T> option = option(options, sort);
+        Sort.Direction direction = direction(sort);
+        Map<String, Object> keys = decode(cursor, option, direction);
+        if (keys != null && query.getQueryObject().isEmpty()) {
+            // Scrolling adds the keyset condition to the query document, which is read-only
+            // for a query without criteria
+            query = new BasicQuery(new Document(), query.getFieldsObject());
+        }
+
+        // Scrolling always breaks ties on ascending _id, whatever the direction of the sort field
+        Sort order = Sort.by(direction, option.field);
+        if (!"_id".equals(option.field)) {
+            order = order.and(Sort.by(Sort.Direction.ASC, "_id"));
+        }
+        query.with(order)
+             .with(keys == null ? ScrollPosition.keyset() : ScrollPosition.forward(keys))
+             .limit(clamp(size));
+
+        Window<T> window = mongoTemplate.scroll(query, type);
+        List<T> items = window.getContent();
+        String next = window.hasNext() && !items.isEmpty()
+            ? encode(option, direction, items.get(items.size() - 1))
+            : null;
+        return new CursorPage<>(items, next);
+    }
+
+    // Same ordering and cursor format as scroll(), applied to rows already in memory. One pass keeps
+    // the best rows after the cursor in a heap of one page, so nothing else is copied or sorted.
+    public <T> CursorPage<T> page(List<T> rows, Map<String, SortOption<T>> options,
+                                  String sort, String cursor, Integer size) {
+        SortOption<T> option = option(options, sort);
+        Sort.Direction direction = direction(sort);
+        Comparator<Object[]> keyOrder = option.keyComparator(direction);
+        Map<String, Object> keys = decode(cursor, option, direction);
+        Object[] after = keys == null ? null : new Object[] {keys.get(option.field), keys.get("_id")};
+
+        // One row beyond the page tells whether there is a next one
+        int limit = clamp(size);
+        Comparator<T> rowOrder = (a, b) -> keyOrder.compare(option.keysOf(a), option.keysOf(b));
+        PriorityQueue<T> best = new PriorityQueue<>(limit + 2, rowOrder.reversed());
+        for (T row : rows) {
+            if (after != null && keyOrder.compare(option.keysOf(row), after) <= 0) {
+                continue;
+            }
+            best.add(row);
+            if (best.size() > limit + 1) {
+                best.poll();
+            }
+        }
+
+        List<T> items = new ArrayList<>(best);
+        items.sort(rowOrder);
+        boolean hasNext = items.size() > limit;
+        if (hasNext) {
+            items.remove(limit);
+        }
+        String next = hasNext ? encode(option, direction, items.get(items.size() - 1)) : null;
+        return new CursorPage<>(items, next);
+    }
+
+    // The sort value a cursor for this sort stops at, so a caller that keeps rows ordered by that
+    // field can seek past the earlier pages itself; null for a first page
+    public <T> Object cursorValue(Map<String, SortOption<T>> options, String sort, String cursor) {
+        SortOption<T> option = option(options, sort);
+        Map<String, Object> keys = decode(cursor, option, direction(sort));
+        return keys == null ? null : keys.get(option.field);
+    }
+
+    public HttpHeaders headers(CursorPage<?> page) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.hasNext()) {
+            headers.add(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return headers;
+    }
+
+    private int clamp(Integer size) {
+        if (size == null || size <= 0) {
+            return Math.min(defaultSize, maxSize);
+        }
+        return Math.min(size, maxSize);
+    }
+
+    private <T> SortOption<T> option(Map<String, SortOption<T>> options, String sort) {
+        if (sort == null || sort.isEmpty()) {
+            return options.values().iterator().next();
+        }
+        SortOption<T> option = options.get(sort.startsWith("-") ? sort.substring(1) : sort);
+        if (option == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Unsupported sort '" + sort + "', expected one of " + options.keySet());
+        }
+        return option;
+    }
+
+    private Sort.Direction direction(String sort) {
+        return sort != null && sort.startsWith("-") ? Sort.Direction.DESC : Sort.Direction.ASC;
+    }
+
+    private <T> String encode(SortOption<T> option, Sort.Direction direction, T last) {
+        Document keys = new Document();
+        keys.put(CURSOR_SORT, sortName(option, direction));
+        keys.put(option.field, option.value.apply(last));
+        keys.put("_id", option.id.apply(last));
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(keys.toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // The keys to continue after, without the sort they were issued for
+    private <T> Map<String, Object> decode(String cursor, SortOption<T> option, Sort.Direction direction) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> keys;
+        try {
+            String json = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            keys = new LinkedHashMap<>(Document.parse(json));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed cursor");
+        }
+        String issuedFor = String.valueOf(keys.remove(CURSOR_SORT));
+        String requested = sortName(option, direction);
+        if (!issuedFor.equals(requested)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Cursor was issued for sort '" + issuedFor + "', not '" + requested + "'");
+        }
+        if (!keys.containsKey(option.field) || !keys.containsKey("_id")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed cursor");
+        }
+        return keys;
+    }
+
+    private static String sortName(SortOption<?> option, Sort.Direction direction) {
+        return direction == Sort.Direction.DESC ? "-" + option.field : option.field;
+    }
+
+    // Cursor values must be BSON-encodable, and LocalDateTime is stored as a Date anyway
+    private static Date toDate(LocalDateTime value) {
+        return value == null ? null : Date.from(value.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    @SafeVarargs
+    private static <T> Map<String, SortOption<T>> sorts(SortOption<T>... options) {
+        Map<String, SortOption<T>> map = new LinkedHashMap<>();
+        for (SortOption<T> option : options) {
+            map.put(option.field, option);
+        }
+        return map;
+    }
+
+    public static final class SortOption<T> {
+        private final String field;
+        private final Function<T, Object> value;
+        private final Function<T, String> id;
+
+        public SortOption(String field, Function<T, Object> value, Function<T, String> id) {
+            this.field = field;
+            this.value = value;
+            this.id = id;
+        }
+
+        Object[] keysOf(T row) {
+            return new Object[] {value.apply(row), id.apply(row)};
+        }
+
+        // The same order as scroll(): the value in the requested direction, then ascending _id
+        Comparator<Object[]> keyComparator(Sort.Direction direction) {
+            int sign = direction == Sort.Direction.DESC ? -1 : 1;
+            return (a, b) -> {
+                int byValue = sign * compareValues(a[0], b[0]);
+                return byValue != 0 ? byValue : compareValues(a[1], b[1]);
+            };
+        }
+
+        // Nulls first, numbers compared numerically, matching Mongo's sort order for these fields
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static int compareValues(Object a, Object b) {
+            if (a == null || b == null) {
+                return a == null ? (b == null ? 0 : -1) : 1;
+            }
+            if (a instanceof Number && b instanceof Number) {
+                return Double.compare(((Number) a).doubleValue(), ((Number) b).doubleValue());
+            }
+            return ((Comparable) a).compareTo(b);
+        }
+    }
+}
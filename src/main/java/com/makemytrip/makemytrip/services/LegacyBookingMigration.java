@@ -0,0 +1,117 @@
+package com.makemytrip.makemytrip.services;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Moves bookings still embedded in users documents into the bookings collection, then drops
+// the array. Runs at startup and is a no-op once every user has been migrated. Each copy gets
+// an id derived from the user and the booking's content and is only ever inserted, so a run that
+// died before the pull, or two instances starting together, land on the same records without
+// overwriting them. The array is only dropped if it still holds exactly what was copied: one that
+// gained a booking meanwhile, e.g. from an old instance during a rolling deploy, stays for the
+// next run, which copies the new booking and finds the others already there.
+@Component
+public class LegacyBookingMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacyBookingMigration.class);
+    private static final int DUPLICATE_KEY = 11000;
+    private static final UpdateOptions UPSERT = new UpdateOptions().upsert(true);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            migrate();
+        } catch (RuntimeException e) {
+            log.warn("Embedded booking migration skipped: {}", e.getMessage());
+        }
+    }
+
+    public void migrate() {
+        MongoCollection<Document> users = mongoTemplate.getCollection("users");
+        MongoCollection<Document> bookings = mongoTemplate.getCollection("bookings");
+
+        int migratedUsers = 0;
+        int migratedBookings = 0;
+        for (Document user : users.find(Filters.exists("bookings.0")).projection(Projections.include("bookings"))) {
+            Object id = user.get("_id");
+            String userId = id instanceof ObjectId ? ((ObjectId) id).toHexString() : String.valueOf(id);
+            List<UpdateOneModel<Document>> records = new ArrayList<>();
+            List<Document> embedded = user.getList("bookings", Document.class);
+            Map<String, Integer> seen = new HashMap<>();
+            for (Document booking : embedded) {
+                // Identical bookings are told apart by how many came before them
+                String content = DigestUtils.md5DigestAsHex((booking.get("type") + "|" + booking.get("bookingId") + "|"
+                    + booking.get("date") + "|" + booking.get("quantity") + "|" + booking.get("totalPrice"))
+                    .getBytes(StandardCharsets.UTF_8));
+                String recordId = userId + ":legacy:" + content + ":" + seen.merge(content, 1, Integer::sum);
+                records.add(new UpdateOneModel<>(Filters.eq("_id", recordId), Updates.setOnInsert(new Document()
+                    .append("userId", userId)
+                    .append("type", booking.get("type"))
+                    .append("bookingId", booking.get("bookingId"))
+                    .append("date", booking.get("date"))
+                    .append("quantity", booking.get("quantity"))
+                    .append("totalPrice", booking.get("totalPrice"))
+                    .append("createdAt", createdAt(booking.getString("date")))),
+                    UPSERT));
+            }
+            try {
+                bookings.bulkWrite(records, new BulkWriteOptions().ordered(false));
+            } catch (MongoBulkWriteException e) {
+                // Another instance upserted the same record first; anything else is a real failure
+                if (e.getWriteErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                    throw e;
+                }
+            }
+            // Only unset once the copies are written, so a crash here repeats the upserts rather than loses data
+            if (users.updateOne(Filters.and(Filters.eq("_id", id), Filters.eq("bookings", embedded)),
+                    Updates.unset("bookings")).getModifiedCount() == 0) {
+                log.info("Bookings of user {} changed during migration; the rest move on the next run", userId);
+            }
+            migratedUsers++;
+            migratedBookings += records.size();
+        }
+        users.updateMany(Filters.size("bookings", 0), Updates.unset("bookings"));
+
+        if (migratedUsers > 0) {
+            log.info("Moved {} embedded bookings from {} users into the bookings collection",
+                migratedBookings, migratedUsers);
+        }
+    }
+
+    private Date createdAt(String date) {
+        try {
+            return Date.from(LocalDate.parse(date).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        } catch (DateTimeParseException | NullPointerException e) {
+            return new Date();
+        }
+    }
+}
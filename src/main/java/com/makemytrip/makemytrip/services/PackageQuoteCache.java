@@ -0,0 +1,154 @@
+package com.makemytrip.makemytrip.services;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.makemytrip.makemytrip.models.PackageQuote;
+import com.makemytrip.makemytrip.models.TravelPackage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Group-discount quotes per package. A quote only depends on the group size through whether it
+// reaches the package's minimum, so each package caches two immutable quotes (standard and group)
+// from a single load. Entries are dropped when the package changes, or when a flight or hotel it
+// references does, using a reverse index from component id to package ids. The cache is bounded,
+// and the reverse index only holds packages that are cached or loading.
+@Component
+public class PackageQuoteCache {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // Loads run on the cache's executor, so a slow read only holds up callers of that package
+    private final AsyncLoadingCache<String, Quotes> quotes;
+    private final Map<String, Set<String>> packagesByFlight = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> packagesByHotel = new ConcurrentHashMap<>();
+
+    public PackageQuoteCache(@Value("${package-quotes.cache-size:10000}") long cacheSize) {
+        this.quotes = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            // Called as part of the eviction, before the package can be loaded again
+            .evictionListener((String packageId, Quotes evicted, RemovalCause cause) -> {
+                if (packageId != null && evicted != null) {
+                    unlink(packagesByFlight, evicted.flightIds, packageId, false);
+                    unlink(packagesByHotel, evicted.hotelIds, packageId, false);
+                }
+            })
+            .buildAsync(this::load);
+    }
+
+    // Null when the package does not exist
+    public PackageQuote quote(String packageId, int groupSize) {
+        Quotes entry;
+        try {
+            entry = quotes.get(packageId).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        if (entry == null) {
+            return null;
+        }
+        return groupSize >= entry.minGroupSize ? entry.group : entry.standard;
+    }
+
+    // A load still in flight is dropped too, so a read that saw the old document is not kept
+    public void packageChanged(String packageId) {
+        CompletableFuture<Quotes> removed = quotes.asMap().remove(packageId);
+        Quotes entry = loaded(removed);
+        if (entry != null) {
+            unlink(packagesByFlight, entry.flightIds, packageId, true);
+            unlink(packagesByHotel, entry.hotelIds, packageId, true);
+        }
+    }
+
+    public void flightChanged(String flightId) {
+        Set<String> dependents = packagesByFlight.remove(flightId);
+        if (dependents != null) {
+            dependents.forEach(this::packageChanged);
+        }
+    }
+
+    public void hotelChanged(String hotelId) {
+        Set<String> dependents = packagesByHotel.remove(hotelId);
+        if (dependents != null) {
+            dependents.forEach(this::packageChanged);
+        }
+    }
+
+    // Number of cached packages
+    public long size() {
+        return quotes.synchronous().estimatedSize();
+    }
+
+    private Quotes load(String packageId) {
+        TravelPackage travelPackage = mongoTemplate.findById(packageId, TravelPackage.class);
+        if (travelPackage == null) {
+            return null;
+        }
+        Quotes entry = new Quotes(travelPackage);
+        link(packagesByFlight, entry.flightIds, packageId);
+        link(packagesByHotel, entry.hotelIds, packageId);
+        return entry;
+    }
+
+    private static void link(Map<String, Set<String>> index, List<String> componentIds, String packageId) {
+        for (String componentId : componentIds) {
+            index.computeIfAbsent(componentId, id -> ConcurrentHashMap.newKeySet()).add(packageId);
+        }
+    }
+
+    // After an invalidation the package may already be loading again; its link is left for it
+    private void unlink(Map<String, Set<String>> index, List<String> componentIds, String packageId, boolean keepReloaded) {
+        for (String componentId : componentIds) {
+            index.computeIfPresent(componentId, (id, packages) -> {
+                if (!keepReloaded || !references(packageId, componentId)) {
+                    packages.remove(packageId);
+                }
+                return packages.isEmpty() ? null : packages;
+            });
+        }
+    }
+
+    private boolean references(String packageId, String componentId) {
+        CompletableFuture<Quotes> current = quotes.getIfPresent(packageId);
+        if (current == null) {
+            return false;
+        }
+        Quotes entry = loaded(current);
+        return entry == null || entry.flightIds.contains(componentId) || entry.hotelIds.contains(componentId);
+    }
+
+    // Null while loading, or when the load failed or found nothing
+    private static Quotes loaded(CompletableFuture<Quotes> future) {
+        return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    private static final class Quotes {
+        private final int minGroupSize;
+        private final PackageQuote standard;
+        private final PackageQuote group;
+        private final List<String> flightIds;
+        private final List<String> hotelIds;
+
+        private Quotes(TravelPackage travelPackage) {
+            double groupDiscount = travelPackage.getGroupDiscountPercentage() / 100.0;
+            this.minGroupSize = travelPackage.getMinGroupSize();
+            this.standard = new PackageQuote(travelPackage.getId(), travelPackage.getOriginalPrice(),
+                travelPackage.getDiscountedPrice(), travelPackage.getDiscountPercentage(), false);
+            this.group = new PackageQuote(travelPackage.getId(), travelPackage.getOriginalPrice(),
+                travelPackage.getDiscountedPrice() * (1 - groupDiscount),
+                travelPackage.getDiscountPercentage() + travelPackage.getGroupDiscountPercentage(), true);
+            this.flightIds = travelPackage.getFlightIds() == null ? List.of() : List.copyOf(travelPackage.getFlightIds());
+            this.hotelIds = travelPackage.getHotelIds() == null ? List.of() : List.copyOf(travelPackage.getHotelIds());
+        }
+    }
+}
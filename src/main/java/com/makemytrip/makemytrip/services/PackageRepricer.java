@@ -0,0 +1,246 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.config.CatalogCaches;
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.models.Hotel;
+import com.makemytrip.makemytrip.models.TravelPackage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Package prices are derived from their flights and hotels, so they go stale when a component's
+// price changes. This recomputes them in chunks: each chunk resolves its components with one
+// query per type, and writes only the packages whose price moved in one unordered bulk update.
+// Chunks run in parallel on a small pool. Packages without flights or hotels keep the price they
+// were created with, and each write only applies if the inputs it was priced from are unchanged,
+// so a concurrent edit of the package is not overwritten with a price for its old contents.
+@Component
+public class PackageRepricer implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PackageRepricer.class);
+    private static final double PRICE_PER_ACTIVITY = 50.0; // $50 per activity
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PackageQuoteCache packageQuoteCache;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${package-repricing.chunk-size:200}")
+    private int chunkSize;
+
+    private final ExecutorService workers;
+    private final ExecutorService coordinator;
+
+    public PackageRepricer(@Value("${package-repricing.threads:4}") int threads) {
+        AtomicInteger threadId = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "package-repricing-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.coordinator = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "package-repricing-job");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Sets originalPrice and discountedPrice from already resolved components
+    public static void applyPrice(TravelPackage travelPackage, Map<String, Flight> flights, Map<String, Hotel> hotels) {
+        double totalPrice = 0.0;
+
+        if (travelPackage.getFlightIds() != null) {
+            for (String flightId : travelPackage.getFlightIds()) {
+                Flight flight = flights.get(flightId);
+                if (flight != null) {
+                    totalPrice += flight.getPrice();
+                }
+            }
+        }
+
+        if (travelPackage.getHotelIds() != null) {
+            for (String hotelId : travelPackage.getHotelIds()) {
+                Hotel hotel = hotels.get(hotelId);
+                if (hotel != null) {
+                    totalPrice += hotel.getPricePerNight() * travelPackage.getDuration();
+                }
+            }
+        }
+
+        if (travelPackage.getTourActivities() != null) {
+            totalPrice += travelPackage.getTourActivities().size() * PRICE_PER_ACTIVITY;
+        }
+
+        travelPackage.setOriginalPrice(totalPrice);
+
+        double discountAmount = totalPrice * (travelPackage.getDiscountPercentage() / 100.0);
+        travelPackage.setDiscountedPrice(totalPrice - discountAmount);
+    }
+
+    public int repriceAll() {
+        return reprice(Query.query(new Criteria().orOperator(
+            Criteria.where("flightIds.0").exists(true),
+            Criteria.where("hotelIds.0").exists(true))));
+    }
+
+    // Reprices the packages that include the flight, in the background
+    public CompletableFuture<Integer> flightPriceChanged(String flightId) {
+        return inBackground(Query.query(Criteria.where("flightIds").is(flightId)));
+    }
+
+    public CompletableFuture<Integer> hotelPriceChanged(String hotelId) {
+        return inBackground(Query.query(Criteria.where("hotelIds").is(hotelId)));
+    }
+
+    // Returns the number of packages whose price changed
+    public int reprice(Query packages) {
+        packages.fields().include("flightIds", "hotelIds", "tourActivities", "duration",
+            "discountPercentage", "originalPrice", "discountedPrice");
+
+        List<CompletableFuture<Integer>> chunks = new ArrayList<>();
+        try (Stream<TravelPackage> stream = mongoTemplate.stream(packages, TravelPackage.class)) {
+            Iterator<TravelPackage> it = stream.iterator();
+            while (it.hasNext()) {
+                List<TravelPackage> chunk = new ArrayList<>(chunkSize);
+                while (it.hasNext() && chunk.size() < chunkSize) {
+                    chunk.add(it.next());
+                }
+                chunks.add(CompletableFuture.supplyAsync(() -> repriceChunk(chunk), workers));
+            }
+        }
+
+        int changed = 0;
+        for (CompletableFuture<Integer> chunk : chunks) {
+            changed += chunk.join();
+        }
+        if (changed > 0) {
+            log.info("Repriced {} travel packages", changed);
+        }
+        return changed;
+    }
+
+    @Override
+    public void destroy() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private CompletableFuture<Integer> inBackground(Query packages) {
+        return CompletableFuture.supplyAsync(() -> reprice(packages), coordinator)
+            .whenComplete((changed, e) -> {
+                if (e != null) {
+                    log.warn("Package repricing failed: {}", e.getMessage());
+                }
+            });
+    }
+
+    private int repriceChunk(List<TravelPackage> chunk) {
+        Set<String> flightIds = new HashSet<>();
+        Set<String> hotelIds = new HashSet<>();
+        for (TravelPackage travelPackage : chunk) {
+            if (travelPackage.getFlightIds() != null) {
+                flightIds.addAll(travelPackage.getFlightIds());
+            }
+            if (travelPackage.getHotelIds() != null) {
+                hotelIds.addAll(travelPackage.getHotelIds());
+            }
+        }
+        Map<String, Flight> flights = byId(flightIds, Flight.class, "price", Flight::getId);
+        Map<String, Hotel> hotels = byId(hotelIds, Hotel.class, "pricePerNight", Hotel::getId);
+
+        BulkOperations bulk = null;
+        List<String> changed = new ArrayList<>();
+        for (TravelPackage travelPackage : chunk) {
+            if (isEmpty(travelPackage.getFlightIds()) && isEmpty(travelPackage.getHotelIds())) {
+                continue;
+            }
+            double originalPrice = travelPackage.getOriginalPrice();
+            double discountedPrice = travelPackage.getDiscountedPrice();
+            applyPrice(travelPackage, flights, hotels);
+            if (originalPrice == travelPackage.getOriginalPrice() && discountedPrice == travelPackage.getDiscountedPrice()) {
+                continue;
+            }
+            if (bulk == null) {
+                bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TravelPackage.class);
+            }
+            bulk.updateOne(Query.query(Criteria.where("_id").is(travelPackage.getId())
+                .and("flightIds").is(travelPackage.getFlightIds())
+                .and("hotelIds").is(travelPackage.getHotelIds())
+                .and("tourActivities").is(travelPackage.getTourActivities())
+                .and("duration").is(travelPackage.getDuration())
+                .and("discountPercentage").is(travelPackage.getDiscountPercentage())), new Update()
+                .set("originalPrice", travelPackage.getOriginalPrice())
+                .set("discountedPrice", travelPackage.getDiscountedPrice()));
+            changed.add(travelPackage.getId());
+        }
+        if (bulk == null) {
+            return 0;
+        }
+        // Packages edited since they were read are left to the edit's own pricing
+        int written = bulk.execute().getModifiedCount();
+        changed.forEach(packageQuoteCache::packageChanged);
+        evictCached(changed);
+        return written;
+    }
+
+    private static boolean isEmpty(List<String> ids) {
+        return ids == null || ids.isEmpty();
+    }
+
+    // Same entries TravelPackageService evicts on an update
+    private void evictCached(List<String> packageIds) {
+        Cache byId = cacheManager.getCache(CatalogCaches.PACKAGE);
+        if (byId != null) {
+            packageIds.forEach(byId::evict);
+        }
+        for (String listing : List.of(CatalogCaches.PACKAGES, CatalogCaches.PACKAGE_PAGES)) {
+            Cache cache = cacheManager.getCache(listing);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private <T> Map<String, T> byId(Collection<String> ids, Class<T> type, String priceField,
+                                    Function<T, String> id) {
+        Map<String, T> byId = new HashMap<>();
+        if (ids.isEmpty()) {
+            return byId;
+        }
+        Query query = Query.query(Criteria.where("_id").in(ids));
+        query.fields().include(priceField);
+        for (T component : mongoTemplate.find(query, type)) {
+            byId.put(id.apply(component), component);
+        }
+        return byId;
+    }
+}
@@ -0,0 +1,231 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.SearchHistory;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+// Rolling top destinations over the last N days. Searches are counted per day as they are
+// saved, the window total is kept alongside, and the top K is cached so a read is a copy of
+// at most K strings. Days falling out of the window are subtracted once, when the day rolls.
+@Component
+public class PopularDestinations {
+
+    private static final Logger log = LoggerFactory.getLogger(PopularDestinations.class);
+
+    private static final Comparator<Entry> BY_COUNT = Comparator
+        .comparingLong((Entry e) -> e.count).reversed()
+        .thenComparing(e -> e.key);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${popular-destinations.window-days:30}")
+    private int windowDays;
+
+    @Value("${popular-destinations.top-k:10}")
+    private int topK;
+
+    private final TreeMap<LocalDate, Map<String, Long>> days = new TreeMap<>();
+    private final Map<String, Long> totals = new HashMap<>();
+    private final Map<String, String> displayNames = new HashMap<>();
+    private volatile Entry[] top = new Entry[0];
+    private volatile LocalDate windowStart;
+
+    private volatile boolean ready = false;
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Popular destinations not built, they will be aggregated in Mongo: {}", e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void rebuild() {
+        List<Document> counts = aggregate(LocalDate.now(clock).minusDays(windowDays - 1));
+        synchronized (this) {
+            days.clear();
+            totals.clear();
+            displayNames.clear();
+            windowStart = LocalDate.now(clock).minusDays(windowDays - 1);
+            for (Document row : counts) {
+                Document id = row.get("_id", Document.class);
+                add(LocalDate.parse(id.getString("day")), id.getString("destination"),
+                    ((Number) row.get("count")).longValue());
+            }
+            top = collectTop();
+            ready = true;
+        }
+        log.info("Popular destinations built: {} destinations over {} days", totals.size(), windowDays);
+    }
+
+    // Called when a search is saved
+    public void searched(String destination, LocalDateTime when) {
+        if (destination == null || destination.trim().isEmpty() || when == null) {
+            return;
+        }
+        synchronized (this) {
+            roll();
+            LocalDate day = when.toLocalDate();
+            if (day.isBefore(windowStart)) {
+                return;
+            }
+            long count = add(day, destination, 1);
+            promote(SuggestionTrie.normalize(destination), count);
+        }
+    }
+
+    public List<String> top(int limit) {
+        if (!LocalDate.now(clock).minusDays(windowDays - 1).equals(windowStart)) {
+            synchronized (this) {
+                roll();
+            }
+        }
+        Entry[] current = top;
+        List<String> results = new ArrayList<>(Math.min(limit, current.length));
+        for (int i = 0; i < current.length && results.size() < limit; i++) {
+            results.add(current[i].display);
+        }
+        return results;
+    }
+
+    // Top destinations straight from Mongo, for when the in-memory copy is not ready; same window
+    // and the same case-insensitive keys
+    public List<String> aggregateTop(int limit) {
+        Map<String, Long> counts = new HashMap<>();
+        Map<String, String> names = new HashMap<>();
+        for (Document row : aggregate(LocalDate.now(clock).minusDays(windowDays - 1))) {
+            String destination = row.get("_id", Document.class).getString("destination");
+            String key = SuggestionTrie.normalize(destination);
+            names.putIfAbsent(key, destination.trim());
+            counts.merge(key, ((Number) row.get("count")).longValue(), Long::sum);
+        }
+        List<Entry> entries = new ArrayList<>();
+        counts.forEach((key, count) -> entries.add(new Entry(key, names.get(key), count)));
+        entries.sort(BY_COUNT);
+        List<String> results = new ArrayList<>(Math.min(limit, entries.size()));
+        for (int i = 0; i < entries.size() && results.size() < limit; i++) {
+            results.add(entries.get(i).display);
+        }
+        return results;
+    }
+
+    // Per-day, per-destination search counts since `from`
+    public List<Document> aggregate(LocalDate from) {
+        Aggregation pipeline = Aggregation.newAggregation(
+            Aggregation.match(Criteria.where("searchDateTime").gte(from.atStartOfDay())
+                .and("destination").nin(null, "")),
+            Aggregation.project("destination")
+                .and(DateOperators.DateToString.dateOf("searchDateTime").toString("%Y-%m-%d")
+                    .withTimezone(DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId())))
+                .as("day"),
+            Aggregation.group("day", "destination").count().as("count"));
+        return mongoTemplate.aggregate(pipeline, SearchHistory.class, Document.class).getMappedResults();
+    }
+
+    private long add(LocalDate day, String destination, long count) {
+        String key = SuggestionTrie.normalize(destination);
+        displayNames.putIfAbsent(key, destination.trim());
+        days.computeIfAbsent(day, d -> new HashMap<>()).merge(key, count, Long::sum);
+        return totals.merge(key, count, Long::sum);
+    }
+
+    // Drops the days that left the window; counts only go down here, so the top is recomputed
+    private void roll() {
+        LocalDate start = LocalDate.now(clock).minusDays(windowDays - 1);
+        if (start.equals(windowStart)) {
+            return;
+        }
+        windowStart = start;
+        Map<LocalDate, Map<String, Long>> expired = days.headMap(start);
+        if (expired.isEmpty()) {
+            return;
+        }
+        for (Map<String, Long> day : expired.values()) {
+            for (Map.Entry<String, Long> count : day.entrySet()) {
+                if (totals.merge(count.getKey(), -count.getValue(), Long::sum) <= 0) {
+                    totals.remove(count.getKey());
+                    displayNames.remove(count.getKey());
+                }
+            }
+        }
+        expired.clear();
+        top = collectTop();
+    }
+
+    // Counts only go up between rolls, so a destination can only climb into or within the top
+    private void promote(String key, long count) {
+        Entry[] current = top;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].key.equals(key)) {
+                Entry[] resorted = current.clone();
+                resorted[i] = new Entry(key, displayNames.get(key), count);
+                Arrays.sort(resorted, BY_COUNT);
+                top = resorted;
+                return;
+            }
+        }
+        Entry entry = new Entry(key, displayNames.get(key), count);
+        if (current.length < topK || BY_COUNT.compare(entry, current[current.length - 1]) < 0) {
+            Entry[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = entry;
+            Arrays.sort(grown, BY_COUNT);
+            top = grown.length > topK ? Arrays.copyOf(grown, topK) : grown;
+        }
+    }
+
+    private Entry[] collectTop() {
+        PriorityQueue<Entry> heap = new PriorityQueue<>(topK + 1, BY_COUNT.reversed());
+        for (Map.Entry<String, Long> total : totals.entrySet()) {
+            heap.add(new Entry(total.getKey(), displayNames.get(total.getKey()), total.getValue()));
+            if (heap.size() > topK) {
+                heap.poll();
+            }
+        }
+        Entry[] sorted = heap.toArray(new Entry[0]);
+        Arrays.sort(sorted, BY_COUNT);
+        return sorted;
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final String display;
+        private final long count;
+
+        private Entry(String key, String display, long count) {
+            this.key = key;
+            this.display = display;
+            this.count = count;
+        }
+    }
+}
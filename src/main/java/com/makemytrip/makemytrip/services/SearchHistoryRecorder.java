@@ -0,0 +1,168 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.SearchHistory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Write-behind search history. Searches are queued on the request thread and inserted in bulk
+// by a scheduled flush, which then trims each touched user back to the newest entries with one
+// ranged delete. When Mongo falls behind and the queue fills, new entries are dropped and counted
+// rather than slowing down searches. Clearing a user's history goes through here too, so entries
+// still queued or mid-flush cannot reappear after the delete.
+@Component
+public class SearchHistoryRecorder implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchHistoryRecorder.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${search-history.max-per-user:20}")
+    private int maxPerUser;
+
+    @Value("${search-history.batch-size:500}")
+    private int batchSize;
+
+    private final BlockingQueue<SearchHistory> queue;
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong trimmed = new AtomicLong();
+    private final Object flushLock = new Object();
+
+    public SearchHistoryRecorder(@Value("${search-history.queue-capacity:10000}") int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    public void record(SearchHistory history) {
+        if (!queue.offer(history)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search-history.flush-interval-ms:1000}")
+    public void flush() {
+        long droppedBefore = dropped.get();
+        synchronized (flushLock) {
+            List<SearchHistory> batch = new ArrayList<>();
+            while (queue.drainTo(batch, batchSize) > 0) {
+                write(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        // Only reached when the queue was full at some point since the last flush
+        if (dropped.get() > droppedBefore) {
+            log.warn("Search history queue full, {} entries dropped so far", dropped.get());
+        }
+    }
+
+    // Waits out any flush in progress, then drops the user's queued entries before deleting the
+    // stored ones
+    public void clear(String userId) {
+        synchronized (flushLock) {
+            queue.removeIf(history -> userId.equals(history.getUserId()));
+            mongoTemplate.remove(Query.query(Criteria.where("userId").is(userId)), SearchHistory.class);
+        }
+    }
+
+    // Whatever is still queued is written before Mongo goes away
+    @EventListener(ContextClosedEvent.class)
+    public void onContextClosed() {
+        flush();
+    }
+
+    public int getQueued() {
+        return queue.size();
+    }
+
+    public long getRecorded() {
+        return recorded.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getTrimmed() {
+        return trimmed.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("search.history.queued", queue, BlockingQueue::size).register(registry);
+        FunctionCounter.builder("search.history.recorded", recorded, AtomicLong::get).register(registry);
+        FunctionCounter.builder("search.history.dropped", dropped, AtomicLong::get).register(registry);
+        FunctionCounter.builder("search.history.failed", failed, AtomicLong::get).register(registry);
+        FunctionCounter.builder("search.history.trimmed", trimmed, AtomicLong::get)
+            .description("Entries deleted to keep each user at search-history.max-per-user")
+            .register(registry);
+    }
+
+    private void write(List<SearchHistory> batch) {
+        try {
+            mongoTemplate.insert(batch, SearchHistory.class);
+            recorded.addAndGet(batch.size());
+        } catch (RuntimeException e) {
+            failed.addAndGet(batch.size());
+            log.warn("Could not write {} search history entries: {}", batch.size(), e.getMessage());
+            return;
+        }
+
+        Set<String> users = new LinkedHashSet<>();
+        for (SearchHistory history : batch) {
+            users.add(history.getUserId());
+        }
+        for (String userId : users) {
+            try {
+                cap(userId);
+            } catch (RuntimeException e) {
+                log.warn("Could not trim search history for user {}: {}", userId, e.getMessage());
+            }
+        }
+    }
+
+    // Finds the oldest entry worth keeping and deletes everything ordered after it in one call
+    private void cap(String userId) {
+        Query newest = Query.query(Criteria.where("userId").is(userId))
+            .with(Sort.by(Sort.Direction.DESC, "searchDateTime", "_id"))
+            .skip(maxPerUser - 1)
+            .limit(1);
+        newest.fields().include("searchDateTime");
+        SearchHistory oldestKept = mongoTemplate.findOne(newest, SearchHistory.class);
+        if (oldestKept == null) {
+            return;
+        }
+
+        Criteria older = new Criteria().orOperator(
+            Criteria.where("searchDateTime").lt(oldestKept.getSearchDateTime()),
+            Criteria.where("searchDateTime").is(oldestKept.getSearchDateTime()).and("_id").lt(oldestKept.getId()));
+        trimmed.addAndGet(mongoTemplate.remove(Query.query(Criteria.where("userId").is(userId).andOperator(older)),
+            SearchHistory.class).getDeletedCount());
+    }
+}
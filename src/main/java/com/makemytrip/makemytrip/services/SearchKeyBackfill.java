@@ -0,0 +1,73 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.models.FlightStatus;
+import com.makemytrip.makemytrip.models.Hotel;
+import com.makemytrip.makemytrip.models.SearchKeys;
+import com.makemytrip.makemytrip.models.Searchable;
+import com.makemytrip.makemytrip.models.TravelPackage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Fills in search keys for documents written before they existed, or by tools that bypass the
+// mapping layer. Runs at startup and only touches documents that have no keys yet.
+@Component
+public class SearchKeyBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchKeyBackfill.class);
+    private static final int BATCH_SIZE = 500;
+
+    private static final List<Class<? extends Searchable>> TYPES =
+        List.of(Flight.class, Hotel.class, FlightStatus.class, TravelPackage.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            for (Class<? extends Searchable> type : TYPES) {
+                backfill(type);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Search key backfill skipped: {}", e.getMessage());
+        }
+    }
+
+    public int backfill(Class<? extends Searchable> type) {
+        Query missing = Query.query(Criteria.where(SearchKeys.FIELD).exists(false));
+        int updated = 0;
+        try (Stream<? extends Searchable> documents = mongoTemplate.stream(missing, type)) {
+            Iterator<? extends Searchable> it = documents.iterator();
+            while (it.hasNext()) {
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+                int batch = 0;
+                while (it.hasNext() && batch < BATCH_SIZE) {
+                    Searchable document = it.next();
+                    bulk.updateOne(Query.query(Criteria.where("_id").is(document.getId())),
+                        Update.update(SearchKeys.FIELD, document.refreshSearchKeys()));
+                    batch++;
+                }
+                bulk.execute();
+                updated += batch;
+            }
+        }
+        if (updated > 0) {
+            log.info("Added search keys to {} {} documents", updated, mongoTemplate.getCollectionName(type));
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,238 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.SearchKeys;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Popularity-weighted prefix trie. Every node caches its top suggestions, so a lookup is a
+// walk down the prefix and a copy of at most `limit` strings. Terms are indexed under each
+// word start ("new delhi" is found by "new" and by "del"). Writes are serialized, reads are lock-free.
+public class SuggestionTrie {
+
+    private static final Comparator<Term> BY_POPULARITY = Comparator
+        .comparingLong((Term t) -> t.weight).reversed()
+        .thenComparing(t -> t.key);
+
+    private final int topK;
+    private final Node root = new Node();
+    private final Map<String, Term> terms = new HashMap<>();
+
+    public SuggestionTrie(int topK) {
+        this.topK = topK;
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        Node node = root;
+        String key = normalize(prefix);
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        Term[] top = node.top;
+        List<String> results = new ArrayList<>(Math.min(limit, top.length));
+        for (int i = 0; i < top.length && results.size() < limit; i++) {
+            results.add(top[i].display);
+        }
+        return results;
+    }
+
+    // Adjusts how many catalog rows mention a term; the term disappears when none do,
+    // however much it has been searched for
+    public synchronized void adjust(String value, long delta) {
+        String key = normalize(value);
+        if (key.isEmpty() || delta == 0) {
+            return;
+        }
+        Term term = terms.get(key);
+        if (term == null) {
+            if (delta < 0) {
+                return;
+            }
+            term = new Term(key, value.trim());
+            terms.put(key, term);
+            for (String suffix : wordSuffixes(key)) {
+                insertPath(suffix).terminals.add(term);
+            }
+        }
+        term.rows = Math.max(0, term.rows + delta);
+        reweigh(term);
+    }
+
+    // Only boosts terms that are already known, so free text never becomes a suggestion
+    public synchronized void boost(String value, long delta) {
+        Term term = terms.get(normalize(value));
+        if (term != null && delta != 0) {
+            term.boost = Math.max(0, term.boost + delta);
+            reweigh(term);
+        }
+    }
+
+    // Halves every boost, so past searches fade instead of outranking the catalog forever
+    public synchronized void decayBoosts() {
+        boolean changed = false;
+        for (Term term : terms.values()) {
+            if (term.boost > 0) {
+                term.boost /= 2;
+                term.weight = term.rows + term.boost;
+                changed = true;
+            }
+        }
+        if (changed) {
+            rebuildTops(root);
+        }
+    }
+
+    public synchronized int size() {
+        return terms.size();
+    }
+
+    private void reweigh(Term term) {
+        long before = term.weight;
+        term.weight = term.rows == 0 ? 0 : term.rows + term.boost;
+        boolean decreased = term.weight < before;
+
+        List<Node> path = new ArrayList<>();
+        for (String suffix : wordSuffixes(term.key)) {
+            path.clear();
+            Node node = root;
+            for (int i = 0; i < suffix.length(); i++) {
+                node = node.children.get(suffix.charAt(i));
+                path.add(node);
+            }
+            // Deepest first, so a node that has to merge sees its children's updated lists
+            for (int i = path.size() - 1; i >= 0; i--) {
+                refresh(path.get(i), term, decreased);
+            }
+        }
+        refresh(root, term, decreased);
+
+        if (term.weight == 0) {
+            terms.remove(term.key);
+            for (String suffix : wordSuffixes(term.key)) {
+                removeTerminal(suffix, term);
+            }
+        }
+    }
+
+    private void refresh(Node node, Term term, boolean decreased) {
+        Term[] top = node.top;
+        int at = indexOf(top, term);
+
+        if (at < 0) {
+            if (term.weight > 0 && (top.length < topK || BY_POPULARITY.compare(term, top[top.length - 1]) < 0)) {
+                Term[] grown = Arrays.copyOf(top, top.length + 1);
+                grown[top.length] = term;
+                Arrays.sort(grown, BY_POPULARITY);
+                node.top = grown.length > topK ? Arrays.copyOf(grown, topK) : grown;
+            }
+            return;
+        }
+        if (decreased && top.length == topK) {
+            // The term may now rank below something outside the cached list
+            node.top = mergeTops(node);
+            return;
+        }
+        if (term.weight == 0) {
+            Term[] shrunk = new Term[top.length - 1];
+            System.arraycopy(top, 0, shrunk, 0, at);
+            System.arraycopy(top, at + 1, shrunk, at, shrunk.length - at);
+            node.top = shrunk;
+            return;
+        }
+        Term[] resorted = top.clone();
+        Arrays.sort(resorted, BY_POPULARITY);
+        node.top = resorted;
+    }
+
+    private void rebuildTops(Node node) {
+        for (Node child : node.children.values()) {
+            rebuildTops(child);
+        }
+        node.top = mergeTops(node);
+    }
+
+    // A node's top list is the best of its own terms and its children's top lists
+    private Term[] mergeTops(Node node) {
+        Set<Term> unique = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Term term : node.terminals) {
+            if (term.weight > 0) {
+                unique.add(term);
+            }
+        }
+        for (Node child : node.children.values()) {
+            for (Term term : child.top) {
+                if (term.weight > 0) {
+                    unique.add(term);
+                }
+            }
+        }
+        Term[] all = unique.toArray(new Term[0]);
+        Arrays.sort(all, BY_POPULARITY);
+        return all.length > topK ? Arrays.copyOf(all, topK) : all;
+    }
+
+    private Node insertPath(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+        }
+        return node;
+    }
+
+    private void removeTerminal(String key, Term term) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        if (node != null) {
+            node.terminals.remove(term);
+        }
+    }
+
+    private static int indexOf(Term[] top, Term term) {
+        for (int i = 0; i < top.length; i++) {
+            if (top[i] == term) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<String> wordSuffixes(String key) {
+        return SearchKeys.wordSuffixes(key);
+    }
+
+    static String normalize(String value) {
+        return SearchKeys.normalize(value);
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new ConcurrentHashMap<>();
+        private final List<Term> terminals = new ArrayList<>(1);
+        private volatile Term[] top = new Term[0];
+    }
+
+    private static final class Term {
+        private final String key;
+        private final String display;
+        private long rows; // catalog rows mentioning the term
+        private long boost; // searches for it, halved by decayBoosts()
+        private volatile long weight;
+
+        private Term(String key, String display) {
+            this.key = key;
+            this.display = display;
+        }
+    }
+}
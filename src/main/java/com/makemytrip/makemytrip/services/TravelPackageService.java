@@ -1,18 +1,36 @@
 package com.makemytrip.makemytrip.services;
 
+import com.makemytrip.makemytrip.config.CatalogCaches;
+import com.makemytrip.makemytrip.models.CursorPage;
 import com.makemytrip.makemytrip.models.TravelPackage;
 import com.makemytrip.makemytrip.models.Flight;
 import com.makemytrip.makemytrip.models.Hotel;
+import com.makemytrip.makemytrip.models.PackageQuote;
+import com.makemytrip.makemytrip.models.SearchKeys;
 import com.makemytrip.makemytrip.repositories.TravelPackageRepository;
 import com.makemytrip.makemytrip.repositories.FlightRepository;
 import com.makemytrip.makemytrip.repositories.HotelRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
 import org.springframework.stereotype.Service;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 @Service
+@Timed("makemytrip.service")
 public class TravelPackageService {
 
     @Autowired
@@ -24,16 +42,36 @@ public class TravelPackageService {
     @Autowired
     private HotelRepository hotelRepository;
 
+    @Autowired
+    private KeysetPaging keysetPaging;
+
+    @Autowired
+    private PackageQuoteCache packageQuoteCache;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${search.text-indexes.enabled:false}")
+    private boolean textSearchEnabled;
+
+    @Cacheable(cacheNames = CatalogCaches.PACKAGES, key = "'active'")
     public List<TravelPackage> getAllPackages() {
         return travelPackageRepository.findByIsActiveTrue();
     }
 
+    @Cacheable(CatalogCaches.PACKAGE_PAGES)
+    public CursorPage<TravelPackage> getAllPackages(String sort, String cursor, Integer size) {
+        Query activeOnly = new Query(Criteria.where("isActive").is(true));
+        return keysetPaging.scroll(activeOnly, TravelPackage.class, KeysetPaging.PACKAGE_SORTS, sort, cursor, size);
+    }
+
+    @Cacheable(CatalogCaches.PACKAGE)
     public Optional<TravelPackage> getPackageById(String id) {
         return travelPackageRepository.findById(id);
     }
 
     public List<TravelPackage> getPackagesByDestination(String destination) {
-        return travelPackageRepository.findByDestinationContaining(destination);
+        return travelPackageRepository.findByDestinationPrefix(SearchKeys.prefix(destination));
     }
 
     public List<TravelPackage> getPackagesByType(String packageType) {
@@ -49,111 +87,90 @@ public class TravelPackageService {
     }
 
     public List<TravelPackage> searchPackages(String query) {
-        List<TravelPackage> results = travelPackageRepository.findByPackageNameContaining(query);
+        return searchPackages(query, null);
+    }
+
+    // maxTime, when given, bounds each query on the server
+    public List<TravelPackage> searchPackages(String query, Duration maxTime) {
+        List<TravelPackage> results = find(Query.query(
+            Criteria.where(SearchKeys.path("packageName")).regex(SearchKeys.prefix(query))), maxTime);
         
         if (results.isEmpty()) {
-            results = travelPackageRepository.findByDestinationContaining(query);
+            results = find(Query.query(
+                Criteria.where(SearchKeys.path("destination")).regex(SearchKeys.prefix(query))), maxTime);
+        }
+        
+        // Free-text words anywhere in the name or description need the text index
+        if (results.isEmpty() && textSearchEnabled) {
+            results = find(TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(query)), maxTime);
         }
         
         return results;
     }
 
+    private List<TravelPackage> find(Query query, Duration maxTime) {
+        if (maxTime != null) {
+            query.maxTime(maxTime);
+        }
+        return mongoTemplate.find(query, TravelPackage.class);
+    }
+
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CatalogCaches.PACKAGE, key = "#result.id"),
+        @CacheEvict(cacheNames = {CatalogCaches.PACKAGES, CatalogCaches.PACKAGE_PAGES}, allEntries = true)
+    })
     public TravelPackage createPackage(TravelPackage travelPackage) {
         calculatePackagePrice(travelPackage);
-        return travelPackageRepository.save(travelPackage);
+        TravelPackage saved = travelPackageRepository.save(travelPackage);
+        packageQuoteCache.packageChanged(saved.getId());
+        return saved;
     }
 
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CatalogCaches.PACKAGE, key = "#id"),
+        @CacheEvict(cacheNames = {CatalogCaches.PACKAGES, CatalogCaches.PACKAGE_PAGES}, allEntries = true)
+    })
     public TravelPackage updatePackage(String id, TravelPackage travelPackage) {
         travelPackage.setId(id);
         calculatePackagePrice(travelPackage);
-        return travelPackageRepository.save(travelPackage);
+        TravelPackage saved = travelPackageRepository.save(travelPackage);
+        packageQuoteCache.packageChanged(id);
+        return saved;
     }
 
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CatalogCaches.PACKAGE, key = "#id"),
+        @CacheEvict(cacheNames = {CatalogCaches.PACKAGES, CatalogCaches.PACKAGE_PAGES}, allEntries = true)
+    })
     public void deletePackage(String id) {
         travelPackageRepository.deleteById(id);
+        packageQuoteCache.packageChanged(id);
     }
 
-    public TravelPackage calculateGroupDiscount(String packageId, int groupSize) {
-        Optional<TravelPackage> optionalPackage = travelPackageRepository.findById(packageId);
-        
-        if (optionalPackage.isPresent()) {
-            TravelPackage travelPackage = optionalPackage.get();
-            double finalPrice = travelPackage.getDiscountedPrice();
-            
-            if (groupSize >= travelPackage.getMinGroupSize()) {
-                double additionalDiscount = travelPackage.getGroupDiscountPercentage() / 100.0;
-                finalPrice = finalPrice * (1 - additionalDiscount);
-                
-                // Create a copy with updated price for display
-                TravelPackage discountedPackage = new TravelPackage();
-                copyPackageProperties(travelPackage, discountedPackage);
-                discountedPackage.setDiscountedPrice(finalPrice);
-                discountedPackage.setDiscountPercentage(
-                    travelPackage.getDiscountPercentage() + travelPackage.getGroupDiscountPercentage()
-                );
-                
-                return discountedPackage;
-            }
-            
-            return travelPackage;
-        }
-        
-        return null;
+    public PackageQuote calculateGroupDiscount(String packageId, int groupSize) {
+        return packageQuoteCache.quote(packageId, groupSize);
     }
 
+    // One findAllById per component type instead of a lookup per id
     private void calculatePackagePrice(TravelPackage travelPackage) {
-        double totalPrice = 0.0;
-        
-        // Calculate flight costs
-        if (travelPackage.getFlightIds() != null) {
-            for (String flightId : travelPackage.getFlightIds()) {
-                Optional<Flight> flight = flightRepository.findById(flightId);
-                if (flight.isPresent()) {
-                    totalPrice += flight.get().getPrice();
-                }
+        Map<String, Flight> flights = new HashMap<>();
+        if (travelPackage.getFlightIds() != null && !travelPackage.getFlightIds().isEmpty()) {
+            for (Flight flight : flightRepository.findAllById(travelPackage.getFlightIds())) {
+                flights.put(flight.getId(), flight);
             }
         }
         
-        // Calculate hotel costs
-        if (travelPackage.getHotelIds() != null) {
-            for (String hotelId : travelPackage.getHotelIds()) {
-                Optional<Hotel> hotel = hotelRepository.findById(hotelId);
-                if (hotel.isPresent()) {
-                    totalPrice += hotel.get().getPricePerNight() * travelPackage.getDuration();
-                }
+        Map<String, Hotel> hotels = new HashMap<>();
+        if (travelPackage.getHotelIds() != null && !travelPackage.getHotelIds().isEmpty()) {
+            for (Hotel hotel : hotelRepository.findAllById(travelPackage.getHotelIds())) {
+                hotels.put(hotel.getId(), hotel);
             }
         }
         
-        // Add tour activity costs (mock pricing)
-        if (travelPackage.getTourActivities() != null) {
-            totalPrice += travelPackage.getTourActivities().size() * 50.0; // $50 per activity
-        }
-        
-        travelPackage.setOriginalPrice(totalPrice);
-        
-        // Apply discount
-        double discountAmount = totalPrice * (travelPackage.getDiscountPercentage() / 100.0);
-        travelPackage.setDiscountedPrice(totalPrice - discountAmount);
-    }
-
-    private void copyPackageProperties(TravelPackage source, TravelPackage target) {
-        target.setId(source.getId());
-        target.setPackageName(source.getPackageName());
-        target.setDescription(source.getDescription());
-        target.setDestination(source.getDestination());
-        target.setDuration(source.getDuration());
-        target.setOriginalPrice(source.getOriginalPrice());
-        target.setFlightIds(source.getFlightIds());
-        target.setHotelIds(source.getHotelIds());
-        target.setTourActivities(source.getTourActivities());
-        target.setPackageType(source.getPackageType());
-        target.setActive(source.isActive());
-        target.setImageUrl(source.getImageUrl());
-        target.setHighlights(source.getHighlights());
-        target.setMinGroupSize(source.getMinGroupSize());
-        target.setGroupDiscountPercentage(source.getGroupDiscountPercentage());
+        PackageRepricer.applyPrice(travelPackage, flights, hotels);
     }
 
+    @CacheEvict(cacheNames = {CatalogCaches.PACKAGES, CatalogCaches.PACKAGE_PAGES, CatalogCaches.PACKAGE}, allEntries = true)
     public void initializeMockData() {
         if (travelPackageRepository.count() == 0) {
             // Create some mock travel packages
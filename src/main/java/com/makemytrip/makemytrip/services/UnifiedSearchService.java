@@ -0,0 +1,158 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.SearchKeys;
+import com.makemytrip.makemytrip.models.UnifiedSearchResult;
+import com.makemytrip.makemytrip.models.UnifiedSearchResult.Hit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// One query against flights, hotels and packages at once. Each source runs on a small pool with
+// its own timeout, so the response takes as long as the slowest source that answers in time
+// rather than the sum of all three; a source that misses its deadline is left out and reported.
+// The same deadline is sent to Mongo as maxTime, so an abandoned query stops on the server too,
+// and the pool's queue is bounded: when it is full a source is reported unavailable straight away
+// instead of waiting behind earlier searches. Only hits that match a word start are returned.
+@Service
+public class UnifiedSearchService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(UnifiedSearchService.class);
+
+    private static final Comparator<Hit> RANKING = Comparator
+        .comparingInt(Hit::getScore).reversed()
+        .thenComparingDouble(Hit::getPrice);
+
+    @Autowired
+    private EnhancedSearchService enhancedSearchService;
+
+    @Autowired
+    private TravelPackageService travelPackageService;
+
+    @Value("${unified-search.timeout-ms:800}")
+    private long timeoutMillis;
+
+    @Value("${unified-search.limit-per-source:20}")
+    private int limitPerSource;
+
+    private final ThreadPoolExecutor sources;
+
+    public UnifiedSearchService(@Value("${unified-search.threads:8}") int threads,
+                                @Value("${unified-search.queue-capacity:64}") int queueCapacity) {
+        AtomicInteger threadId = new AtomicInteger();
+        this.sources = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "unified-search-" + threadId.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    public UnifiedSearchResult search(String query) {
+        String needle = SearchKeys.normalize(query);
+        if (needle.isEmpty()) {
+            return new UnifiedSearchResult(List.of(), List.of());
+        }
+
+        // A destination search: flights to or from it, hotels in it, packages named after or going to it
+        Duration maxTime = Duration.ofMillis(timeoutMillis);
+        CompletableFuture<List<Hit>> flights = fetch("FLIGHT",
+            () -> enhancedSearchService.searchFlights(null, query, null, null, null, null, maxTime),
+            flight -> new Hit("FLIGHT", score(needle, flight.getTo(), flight.getFrom()), flight.getPrice(), flight));
+        CompletableFuture<List<Hit>> hotels = fetch("HOTEL",
+            () -> enhancedSearchService.searchHotels(query, null, null, null, null, maxTime),
+            hotel -> new Hit("HOTEL", score(needle, hotel.getLocation(), hotel.gethotelName()), hotel.getPricePerNight(), hotel));
+        CompletableFuture<List<Hit>> packages = fetch("PACKAGE",
+            () -> travelPackageService.searchPackages(query, maxTime),
+            travelPackage -> new Hit("PACKAGE", score(needle, travelPackage.getDestination(), travelPackage.getPackageName()),
+                travelPackage.getDiscountedPrice(), travelPackage));
+
+        List<Hit> results = new ArrayList<>();
+        List<String> unavailable = new ArrayList<>();
+        collect("FLIGHT", flights, results, unavailable);
+        collect("HOTEL", hotels, results, unavailable);
+        collect("PACKAGE", packages, results, unavailable);
+        results.sort(RANKING);
+        return new UnifiedSearchResult(results, unavailable);
+    }
+
+    @Override
+    public void destroy() {
+        sources.shutdownNow();
+    }
+
+    // Completes with the source's best hits, or null once it fails, runs out of time or finds the pool full
+    private <T> CompletableFuture<List<Hit>> fetch(String source, Supplier<List<T>> search, Function<T, Hit> toHit) {
+        CompletableFuture<List<T>> items;
+        try {
+            items = CompletableFuture.supplyAsync(search, sources);
+        } catch (RejectedExecutionException e) {
+            log.info("Unified search: {} skipped, {} searches already queued", source, sources.getQueue().size());
+            return CompletableFuture.completedFuture(null);
+        }
+        return items
+            .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+            .handle((found, e) -> {
+                if (e != null) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof TimeoutException) {
+                        log.info("Unified search: {} did not answer within {} ms", source, timeoutMillis);
+                    } else {
+                        log.warn("Unified search: {} failed: {}", source, cause.getMessage());
+                    }
+                    return null;
+                }
+                return found.stream()
+                    .map(toHit)
+                    .filter(hit -> hit.getScore() > 0)
+                    .sorted(RANKING)
+                    .limit(limitPerSource)
+                    .collect(Collectors.toList());
+            });
+    }
+
+    private static void collect(String source, CompletableFuture<List<Hit>> hits, List<Hit> results, List<String> unavailable) {
+        List<Hit> sourceHits = hits.join();
+        if (sourceHits == null) {
+            unavailable.add(source);
+        } else {
+            results.addAll(sourceHits);
+        }
+    }
+
+    // Exact match on the main field, then a word of it starting with the query, then the same on the second field
+    private static int score(String needle, String primary, String secondary) {
+        int score = matchScore(needle, primary) * 2;
+        return score > 0 ? score + 1 : matchScore(needle, secondary);
+    }
+
+    private static int matchScore(String needle, String value) {
+        String normalized = SearchKeys.normalize(value);
+        if (normalized.equals(needle)) {
+            return 2;
+        }
+        for (String suffix : SearchKeys.wordSuffixes(normalized)) {
+            if (suffix.startsWith(needle)) {
+                return 1;
+            }
+        }
+        return 0;
+    }
+}
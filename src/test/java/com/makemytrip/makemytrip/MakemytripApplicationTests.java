@@ -1,9 +1,12 @@
 package com.makemytrip.makemytrip;
 
+import com.makemytrip.makemytrip.support.EmbeddedMongoConfig;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 
 @SpringBootTest
+@Import(EmbeddedMongoConfig.class)
 class MakemytripApplicationTests {
 
 	@Test
@@ -0,0 +1,49 @@
+package com.makemytrip.makemytrip.benchmarks;
+
+import com.makemytrip.makemytrip.MakemytripApplication;
+import com.makemytrip.makemytrip.support.EmbeddedMongoConfig;
+import com.makemytrip.makemytrip.support.SyntheticCatalog;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+// The application on the in-memory Mongo stand-in, seeded with `rows` flights and hotels and a
+// package and a search per ten rows. Large sizes need a matching heap, e.g. -jvmArgs -Xmx16g.
+final class BenchmarkCatalog implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+    private final String userId;
+
+    private BenchmarkCatalog(ConfigurableApplicationContext context, String userId) {
+        this.context = context;
+        this.userId = userId;
+    }
+
+    static BenchmarkCatalog start(int rows) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(MakemytripApplication.class, EmbeddedMongoConfig.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "flight-status.simulator.enabled=false",
+                "logging.level.root=WARN",
+                "logging.level.de.bwaldvogel=OFF")
+            .run();
+        SyntheticCatalog catalog = SyntheticCatalog.seed(context.getBean(MongoTemplate.class),
+            rows, rows, 1, Math.max(rows / 10, 1), Math.max(rows / 10, 1), 0);
+        SyntheticCatalog.refresh(context);
+        return new BenchmarkCatalog(context, catalog.getUserIds().get(0));
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    String userId() {
+        return userId;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,74 @@
+package com.makemytrip.makemytrip.benchmarks;
+
+import com.makemytrip.makemytrip.models.BookingResult;
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.services.BookingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+// Booking's conditional decrement: a seat that is available, and one that is sold out (the guard
+// fails and the flight is looked up to tell sold out from missing). Add -t N for contention.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingBenchmark {
+
+    @Param({"10000"})
+    private int rows;
+
+    private BenchmarkCatalog catalog;
+    private BookingService bookingService;
+    private String availableFlightId;
+    private String soldOutFlightId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalog = BenchmarkCatalog.start(rows);
+        bookingService = catalog.bean(BookingService.class);
+        MongoTemplate mongoTemplate = catalog.bean(MongoTemplate.class);
+        availableFlightId = mongoTemplate.save(flight("BenchAir 1", Integer.MAX_VALUE)).getId();
+        soldOutFlightId = mongoTemplate.save(flight("BenchAir 2", 0)).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        catalog.close();
+    }
+
+    @Benchmark
+    public BookingResult bookAvailableSeat() {
+        return bookingService.bookFlight(catalog.userId(), availableFlightId, 1, 100);
+    }
+
+    @Benchmark
+    public BookingResult bookSoldOutFlight() {
+        return bookingService.bookFlight(catalog.userId(), soldOutFlightId, 1, 100);
+    }
+
+    private static Flight flight(String name, int seats) {
+        Flight flight = new Flight();
+        flight.setFlightName(name);
+        flight.setFrom("Delhi");
+        flight.setTo("Mumbai");
+        flight.setPrice(100);
+        flight.setAvailableSeats(seats);
+        return flight;
+    }
+}
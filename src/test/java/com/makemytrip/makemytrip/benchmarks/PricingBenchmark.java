@@ -0,0 +1,109 @@
+package com.makemytrip.makemytrip.benchmarks;
+
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.models.Hotel;
+import com.makemytrip.makemytrip.models.TravelPackage;
+import com.makemytrip.makemytrip.services.PackageRepricer;
+import com.makemytrip.makemytrip.services.TravelPackageService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.AopTestUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Package pricing: the arithmetic alone, one package with its component lookups
+// (TravelPackageService.calculatePackagePrice) and a full reprice pass over every package
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PricingBenchmark {
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    private BenchmarkCatalog catalog;
+    private MethodHandle calculatePackagePrice;
+    private PackageRepricer packageRepricer;
+    private List<TravelPackage> packages;
+    private Map<String, Flight> flights;
+    private Map<String, Hotel> hotels;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        catalog = BenchmarkCatalog.start(rows);
+        // calculatePackagePrice is private, and the bean is a caching proxy without the target's fields.
+        // The handle is resolved here so the benchmark measures the call, not reflective lookup.
+        TravelPackageService travelPackageService = AopTestUtils.getTargetObject(catalog.bean(TravelPackageService.class));
+        calculatePackagePrice = MethodHandles.privateLookupIn(TravelPackageService.class, MethodHandles.lookup())
+            .findVirtual(TravelPackageService.class, "calculatePackagePrice", MethodType.methodType(void.class, TravelPackage.class))
+            .bindTo(travelPackageService);
+        packageRepricer = catalog.bean(PackageRepricer.class);
+
+        MongoTemplate mongoTemplate = catalog.bean(MongoTemplate.class);
+        packages = mongoTemplate.find(new Query().limit(1000), TravelPackage.class);
+        flights = new HashMap<>();
+        hotels = new HashMap<>();
+        for (TravelPackage travelPackage : packages) {
+            for (String flightId : travelPackage.getFlightIds()) {
+                flights.put(flightId, mongoTemplate.findById(flightId, Flight.class));
+            }
+            for (String hotelId : travelPackage.getHotelIds()) {
+                hotels.put(hotelId, mongoTemplate.findById(hotelId, Hotel.class));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        catalog.close();
+    }
+
+    @Benchmark
+    public TravelPackage applyPrice() {
+        TravelPackage travelPackage = nextPackage();
+        PackageRepricer.applyPrice(travelPackage, flights, hotels);
+        return travelPackage;
+    }
+
+    @Benchmark
+    public TravelPackage calculatePackagePrice() throws Throwable {
+        TravelPackage travelPackage = nextPackage();
+        calculatePackagePrice.invokeExact(travelPackage);
+        return travelPackage;
+    }
+
+    // Prices are already current after the first pass, so this measures the read and compare work
+    @Benchmark
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public int repriceAll() {
+        return packageRepricer.repriceAll();
+    }
+
+    private TravelPackage nextPackage() {
+        return packages.get((next++ & Integer.MAX_VALUE) % packages.size());
+    }
+}
@@ -0,0 +1,105 @@
+package com.makemytrip.makemytrip.benchmarks;
+
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.models.Hotel;
+import com.makemytrip.makemytrip.repositories.SearchQueries;
+import com.makemytrip.makemytrip.services.EnhancedSearchService;
+import com.makemytrip.makemytrip.services.PopularDestinations;
+import com.makemytrip.makemytrip.support.SyntheticCatalog;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Search filter pipelines: the in-memory flight index, the same filters as a Mongo query (the
+// fallback while the index loads), hotel search, location suggestions and popular destinations
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    private BenchmarkCatalog catalog;
+    private EnhancedSearchService enhancedSearchService;
+    private PopularDestinations popularDestinations;
+    private MongoTemplate mongoTemplate;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalog = BenchmarkCatalog.start(rows);
+        enhancedSearchService = catalog.bean(EnhancedSearchService.class);
+        popularDestinations = catalog.bean(PopularDestinations.class);
+        mongoTemplate = catalog.bean(MongoTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        catalog.close();
+    }
+
+    @Benchmark
+    public List<Flight> searchFlightsByRoute() {
+        String from = city();
+        return enhancedSearchService.searchFlights(from, city(), null, null, null, null);
+    }
+
+    @Benchmark
+    public List<Flight> searchFlightsFiltered() {
+        return enhancedSearchService.searchFlights(prefix(city()), null, null, 2000.0, 9000.0, 10);
+    }
+
+    @Benchmark
+    public List<Flight> searchFlightsInMongo() {
+        return mongoTemplate.find(SearchQueries.flights(prefix(city()), null, null, 2000.0, 9000.0, 10), Flight.class);
+    }
+
+    @Benchmark
+    public List<Hotel> searchHotels() {
+        return enhancedSearchService.searchHotels(prefix(city()), 1000.0, 8000.0, null, 5);
+    }
+
+    @Benchmark
+    public List<String> locationSuggestions() {
+        return enhancedSearchService.getLocationSuggestions(prefix(city()));
+    }
+
+    @Benchmark
+    public List<String> popularDestinations() {
+        return enhancedSearchService.getPopularDestinations();
+    }
+
+    @Benchmark
+    public List<Document> popularDestinationsAggregation() {
+        return popularDestinations.aggregate(LocalDate.now().minusDays(29));
+    }
+
+    // Benchmark-scoped state is shared between threads; a racy counter only skews the mix
+    private String city() {
+        return SyntheticCatalog.CITIES[(next++ & Integer.MAX_VALUE) % SyntheticCatalog.CITIES.length];
+    }
+
+    private static String prefix(String city) {
+        return city.substring(0, Math.min(3, city.length()));
+    }
+}
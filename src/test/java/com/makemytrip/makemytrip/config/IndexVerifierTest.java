@@ -0,0 +1,23 @@
+package com.makemytrip.makemytrip.config;
+
+import com.makemytrip.makemytrip.MakemytripApplication;
+import com.makemytrip.makemytrip.support.EmbeddedMongoConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = MakemytripApplication.class)
+@Import(EmbeddedMongoConfig.class)
+class IndexVerifierTest {
+
+    @Autowired
+    private IndexVerifier indexVerifier;
+
+    @Test
+    void everyRepositoryFinderHasAQueryPlanProbe() {
+        assertThat(indexVerifier.unprobedFinders()).isEmpty();
+    }
+}
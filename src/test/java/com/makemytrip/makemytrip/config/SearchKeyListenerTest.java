@@ -0,0 +1,82 @@
+package com.makemytrip.makemytrip.config;
+
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.models.Hotel;
+import com.makemytrip.makemytrip.models.SearchKeys;
+import com.makemytrip.makemytrip.repositories.FlightRepository;
+import com.makemytrip.makemytrip.repositories.HotelRepository;
+import com.makemytrip.makemytrip.support.EmbeddedMongoConfig;
+import com.mongodb.client.model.Filters;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(EmbeddedMongoConfig.class)
+class SearchKeyListenerTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Test
+    void keysAreWrittenOnInsertAndRefreshedOnEverySave() {
+        Flight flight = new Flight();
+        flight.setFlightName("IndiGo 6E");
+        flight.setFrom("New Delhi");
+        flight.setTo("Goa (North)");
+        String id = flightRepository.insert(flight).getId();
+
+        Document search = storedKeys("flight", id);
+        assertThat(search.getList("from", String.class)).containsExactly("new delhi", "delhi");
+        assertThat(search.getList("to", String.class)).containsExactly("goa (north)", "north)");
+        assertThat(search.getList("flightName", String.class)).containsExactly("indigo 6e", "6e");
+
+        flight.setFrom("Mumbai");
+        mongoTemplate.save(flight);
+        assertThat(storedKeys("flight", id).getList("from", String.class)).containsExactly("mumbai");
+        assertThat(flightRepository.findByFromPrefix(SearchKeys.prefix("del"))).isEmpty();
+        assertThat(flightRepository.findByFromOrToPrefix(SearchKeys.prefix("(north")))
+            .extracting(Flight::getId).containsExactly(id);
+    }
+
+    @Test
+    void bulkInsertsGetKeysToo() {
+        Hotel first = hotel("Sea View", "Goa", "Pool, Free WiFi");
+        Hotel second = hotel("Hill Top", "Shimla", "[Spa]");
+        hotelRepository.saveAll(List.of(first, second));
+
+        assertThat(hotelRepository.findByAmenitiesPrefix(SearchKeys.prefix("wifi")))
+            .extracting(Hotel::gethotelName).containsExactly("Sea View");
+        // Regex metacharacters in the input reach Mongo escaped
+        assertThat(hotelRepository.findByAmenitiesPrefix(SearchKeys.prefix("[spa")))
+            .extracting(Hotel::gethotelName).containsExactly("Hill Top");
+        assertThat(hotelRepository.findByAmenitiesPrefix(SearchKeys.prefix(".*"))).isEmpty();
+    }
+
+    private Document storedKeys(String collection, String id) {
+        Document stored = mongoTemplate.getCollection(collection).find(Filters.eq("_id", new ObjectId(id))).first();
+        return stored.get(SearchKeys.FIELD, Document.class);
+    }
+
+    private static Hotel hotel(String name, String location, String amenities) {
+        Hotel hotel = new Hotel();
+        hotel.sethotelName(name);
+        hotel.setLocation(location);
+        hotel.setamenities(amenities);
+        return hotel;
+    }
+}
@@ -0,0 +1,159 @@
+package com.makemytrip.makemytrip.load;
+
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.models.Users;
+import com.makemytrip.makemytrip.support.EmbeddedMongoConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Throughput of the booking and search endpoints with many concurrent clients, each sending its
+// requests one after another. Run with:
+//   mvn test -Pload-test [-Pjdk21 -Dspring.profiles.active=virtual-threads] [-Dload.clients=10000]
+// and compare the two modes; the virtual-threads profile refuses to start before Java 21.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(EmbeddedMongoConfig.class)
+@Tag("load")
+class BookingAndSearchLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 10_000);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("load.requests-per-client", 5);
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final HttpClient http = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(30))
+        .build();
+
+    private String userId;
+    private String flightId;
+
+    @BeforeEach
+    void seed() {
+        mongoTemplate.dropCollection(Flight.class);
+        for (int i = 0; i < 100; i++) {
+            Flight flight = new Flight();
+            flight.setFlightName("LoadAir " + i);
+            flight.setFrom(i % 2 == 0 ? "Delhi" : "Mumbai");
+            flight.setTo(i % 2 == 0 ? "Mumbai" : "Delhi");
+            flight.setPrice(100 + i);
+            flight.setAvailableSeats(CLIENTS * REQUESTS_PER_CLIENT);
+            flightId = mongoTemplate.save(flight).getId();
+        }
+        userId = mongoTemplate.save(new Users()).getId();
+    }
+
+    @Test
+    void bookingThroughput() throws Exception {
+        Result result = run("POST /booking/flight", i -> HttpRequest.newBuilder(uri(
+                "/booking/flight?userId=" + userId + "&flightId=" + flightId + "&seats=1&price=100"))
+            .POST(HttpRequest.BodyPublishers.noBody()));
+
+        int remaining = mongoTemplate.findById(flightId, Flight.class).getAvailableSeats();
+        assertThat(result.serverErrors.get()).isZero();
+        assertThat(CLIENTS * REQUESTS_PER_CLIENT - remaining).isEqualTo(result.ok.get());
+    }
+
+    @Test
+    void searchThroughput() throws Exception {
+        Result result = run("GET /api/search/flights", i -> HttpRequest.newBuilder(uri(
+                "/api/search/flights?from=" + (i % 2 == 0 ? "Del" : "Mum") + "&size=20"))
+            .GET());
+
+        assertThat(result.serverErrors.get()).isZero();
+        assertThat(result.ok.get()).isPositive();
+    }
+
+    private Result run(String name, IntFunction<HttpRequest.Builder> request) throws Exception {
+        Result result = new Result(CLIENTS * REQUESTS_PER_CLIENT);
+        CompletableFuture<?>[] clients = new CompletableFuture<?>[CLIENTS];
+        long start = System.nanoTime();
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = client(i, 0, request, result);
+        }
+        CompletableFuture.allOf(clients).get(10, TimeUnit.MINUTES);
+        long elapsedNanos = System.nanoTime() - start;
+
+        long[] latencies = Arrays.copyOf(result.latencies, result.recorded.get());
+        Arrays.sort(latencies);
+        System.out.printf("%s, virtual threads %s: %d clients x %d requests in %.1fs = %.0f req/s, "
+                + "ok %d, server errors %d, client errors %d, p50 %.1fms, p99 %.1fms, max %.1fms%n",
+            name, virtualThreads, CLIENTS, REQUESTS_PER_CLIENT, elapsedNanos / 1e9,
+            result.recorded.get() / (elapsedNanos / 1e9), result.ok.get(), result.serverErrors.get(),
+            result.clientErrors.get(), percentile(latencies, 0.50), percentile(latencies, 0.99),
+            percentile(latencies, 1.0));
+        return result;
+    }
+
+    // Each client sends its next request once the previous one has completed
+    private CompletableFuture<Void> client(int client, int sent, IntFunction<HttpRequest.Builder> request, Result result) {
+        if (sent == REQUESTS_PER_CLIENT) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long start = System.nanoTime();
+        return http.sendAsync(request.apply(client).timeout(Duration.ofMinutes(2)).build(), HttpResponse.BodyHandlers.discarding())
+            .handle((response, e) -> {
+                result.latencies[result.recorded.getAndIncrement()] = System.nanoTime() - start;
+                if (e != null) {
+                    result.clientErrors.incrementAndGet();
+                } else if (response.statusCode() >= 500) {
+                    result.serverErrors.incrementAndGet();
+                } else if (response.statusCode() < 300) {
+                    result.ok.incrementAndGet();
+                }
+                return null;
+            })
+            .thenCompose(ignored -> client(client, sent + 1, request, result));
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private static final class Result {
+        private final long[] latencies;
+        private final AtomicInteger recorded = new AtomicInteger();
+        private final AtomicInteger ok = new AtomicInteger();
+        private final AtomicInteger serverErrors = new AtomicInteger();
+        private final AtomicInteger clientErrors = new AtomicInteger();
+
+        private Result(int requests) {
+            this.latencies = new long[requests];
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.makemytrip.makemytrip.load;
+
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.support.EmbeddedMongoConfig;
+import com.makemytrip.makemytrip.support.SyntheticCatalog;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Replays a production-like request mix against a seeded catalog and reports latency percentiles
+// and throughput per endpoint. Offline, so it can gate CI:
+//   mvn test -Pload-test -Dtest=TrafficMixLoadTest [-Dload.flights=200000] [-Dload.duration-seconds=60]
+// Besides server errors, it fails when any single response is larger than load.max-response-bytes:
+// an endpoint that returns a whole collection grows with the catalog, whatever its latency here.
+// Set load.max-p99-ms to also fail on a latency budget. Absolute latencies include the in-process
+// Mongo stand-in, which is far slower than a real server; compare runs with each other.
+// responseSizes runs in the default build: the same mix, sent a few times each against a small
+// catalog that is still several pages deep, checking only for server errors and response size.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(EmbeddedMongoConfig.class)
+class TrafficMixLoadTest {
+
+    private static final int FLIGHTS = Integer.getInteger("load.flights", 10_000);
+    private static final int HOTELS = Integer.getInteger("load.hotels", 10_000);
+    private static final int USERS = Integer.getInteger("load.users", 1_000);
+    private static final int PACKAGES = Integer.getInteger("load.packages", 2_000);
+    private static final int FLIGHT_STATUSES = Integer.getInteger("load.flight-statuses", 2_000);
+    private static final int HOT_FLIGHTS = Integer.getInteger("load.hot-flights", 5);
+    private static final int HOT_FLIGHT_SEATS = Integer.getInteger("load.hot-flight-seats", 2_000);
+    private static final int BOOKING_BURST = Integer.getInteger("load.booking-burst", 5);
+    private static final int THREADS = Integer.getInteger("load.threads", 16);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 5);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration-seconds", 30);
+    private static final long MAX_RESPONSE_BYTES = Long.getLong("load.max-response-bytes", 256 * 1024);
+    private static final long MAX_P99_MS = Long.getLong("load.max-p99-ms", 0);
+    private static final int SMALL_CATALOG = Integer.getInteger("load.small-catalog", 1_000);
+    private static final int SMALL_REQUESTS = Integer.getInteger("load.small-requests", 5);
+    private static final long SMALL_MAX_RESPONSE_BYTES = Long.getLong("load.small-max-response-bytes", 32 * 1024);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ApplicationContext context;
+
+    private final HttpClient http = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(30))
+        .build();
+
+    private final AtomicLong seatsBooked = new AtomicLong();
+
+    private SyntheticCatalog catalog;
+    private List<String> hotFlightIds;
+
+    private void seed(int flights, int hotels, int users, int packages, int flightStatuses) {
+        catalog = SyntheticCatalog.seed(mongoTemplate, flights, hotels, users, packages, users * 10, flightStatuses);
+        hotFlightIds = new ArrayList<>();
+        for (int i = 0; i < HOT_FLIGHTS; i++) {
+            Flight flight = new Flight();
+            flight.setFlightName("HotAir " + i);
+            flight.setFrom("Delhi");
+            flight.setTo("Goa");
+            flight.setPrice(4999);
+            flight.setAvailableSeats(HOT_FLIGHT_SEATS);
+            hotFlightIds.add(mongoTemplate.save(flight).getId());
+        }
+        SyntheticCatalog.refresh(context);
+    }
+
+    @Test
+    @Tag("load")
+    void trafficMix() throws Exception {
+        seed(FLIGHTS, HOTELS, USERS, PACKAGES, FLIGHT_STATUSES);
+        List<Endpoint> mix = mix();
+
+        run(mix, WARMUP_SECONDS);
+        mix.forEach(Endpoint::reset);
+        long elapsedNanos = run(mix, DURATION_SECONDS);
+        report(mix, elapsedNanos);
+
+        long remaining = 0;
+        for (String flightId : hotFlightIds) {
+            remaining += mongoTemplate.findById(flightId, Flight.class).getAvailableSeats();
+        }
+        assertThat((long) HOT_FLIGHTS * HOT_FLIGHT_SEATS - remaining)
+            .as("seats sold vs successful bookings").isEqualTo(seatsBooked.get());
+
+        assertThat(mix.stream().mapToLong(endpoint -> endpoint.ok.sum()).sum()).isPositive();
+        for (Endpoint endpoint : mix) {
+            assertThat(endpoint.serverErrors.sum()).as("%s server errors", endpoint.name).isZero();
+            assertThat(endpoint.ioErrors.sum()).as("%s failed requests", endpoint.name).isZero();
+            assertThat(endpoint.maxBytes.get()).as("%s largest response, in bytes", endpoint.name)
+                .isLessThanOrEqualTo(MAX_RESPONSE_BYTES);
+            if (MAX_P99_MS > 0) {
+                assertThat(endpoint.latency.getValueAtPercentile(99) / 1_000_000)
+                    .as("%s p99, in ms", endpoint.name).isLessThanOrEqualTo(MAX_P99_MS);
+            }
+        }
+    }
+
+    @Test
+    void responseSizes() {
+        seed(SMALL_CATALOG, SMALL_CATALOG, 50, SMALL_CATALOG / 5, SMALL_CATALOG / 5);
+        List<Endpoint> mix = mix();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (Endpoint endpoint : mix) {
+            for (int i = 0; i < SMALL_REQUESTS; i++) {
+                send(endpoint, endpoint.request.apply(random));
+            }
+        }
+
+        for (Endpoint endpoint : mix) {
+            assertThat(endpoint.ok.sum()).as("%s successful requests", endpoint.name).isPositive();
+            assertThat(endpoint.serverErrors.sum()).as("%s server errors", endpoint.name).isZero();
+            assertThat(endpoint.ioErrors.sum()).as("%s failed requests", endpoint.name).isZero();
+            assertThat(endpoint.maxBytes.get()).as("%s largest response, in bytes", endpoint.name)
+                .isLessThanOrEqualTo(SMALL_MAX_RESPONSE_BYTES);
+        }
+    }
+
+    private List<Endpoint> mix() {
+        return List.of(
+            // Autocomplete fires on every keystroke, so it dominates
+            new Endpoint("GET /api/search/suggestions/locations", 25,
+                r -> get("/api/search/suggestions/locations?query=" + typed(city(r), r))),
+            new Endpoint("GET /api/search/suggestions/airlines", 8,
+                r -> get("/api/search/suggestions/airlines?query=" + typed(pick(SyntheticCatalog.AIRLINES, r), r))),
+            new Endpoint("GET /api/search/flights", 10,
+                r -> get("/api/search/flights?from=" + city(r) + "&to=" + city(r) + "&size=20")),
+            new Endpoint("GET /api/search/hotels", 5,
+                r -> get("/api/search/hotels?location=" + typed(city(r), r) + "&size=20")),
+            new Endpoint("GET /api/search/popular-destinations", 2,
+                r -> get("/api/search/popular-destinations")),
+            new Endpoint("POST /booking/flight (hot)", 12,
+                r -> post("/booking/flight?userId=" + pick(catalog.getUserIds(), r)
+                    + "&flightId=" + pick(hotFlightIds, r) + "&seats=1&price=4999")),
+            // Clients poll a small set of flights they are waiting on
+            new Endpoint("GET /api/flight-status/{flightNumber}", 20,
+                r -> get("/api/flight-status/" + pick(catalog.getFlightNumbers().subList(0,
+                    Math.min(200, catalog.getFlightNumbers().size())), r))),
+            new Endpoint("GET /api/packages", 7,
+                r -> get("/api/packages?size=20")),
+            new Endpoint("GET /api/packages/{id}", 5,
+                r -> get("/api/packages/" + pick(catalog.getPackageIds(), r))),
+            new Endpoint("GET /api/packages/{id}/group-discount", 2,
+                r -> get("/api/packages/" + pick(catalog.getPackageIds(), r) + "/group-discount?groupSize=" + (1 + r.nextInt(8)))),
+            new Endpoint("GET /flight", 2,
+                r -> get("/flight")),
+            new Endpoint("GET /hotel", 2,
+                r -> get("/hotel")));
+    }
+
+    // Closed loop: each thread sends its next request as soon as the previous one completes
+    private long run(List<Endpoint> mix, int seconds) throws Exception {
+        int totalWeight = mix.stream().mapToInt(endpoint -> endpoint.weight).sum();
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                workers.add(threads.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        Endpoint endpoint = choose(mix, random.nextInt(totalWeight));
+                        // Bookings open for a hot flight arrive together
+                        int repeat = endpoint.name.startsWith("POST /booking") ? BOOKING_BURST : 1;
+                        for (int j = 0; j < repeat; j++) {
+                            send(endpoint, endpoint.request.apply(random));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get(seconds + 300L, TimeUnit.SECONDS);
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void send(Endpoint endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (Exception e) {
+            endpoint.ioErrors.increment();
+            return;
+        }
+        endpoint.latency.recordValue(Math.min(System.nanoTime() - start, endpoint.latency.getHighestTrackableValue()));
+        endpoint.maxBytes.accumulate(response.body().length);
+        int status = response.statusCode();
+        if (status >= 500) {
+            endpoint.serverErrors.increment();
+        } else if (status >= 400) {
+            endpoint.rejected.increment();
+        } else {
+            endpoint.ok.increment();
+            if (endpoint.name.startsWith("POST /booking")) {
+                seatsBooked.incrementAndGet();
+            }
+        }
+    }
+
+    private static void report(List<Endpoint> mix, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        Histogram all = new Histogram(TimeUnit.MINUTES.toNanos(1), 3);
+        StringBuilder table = new StringBuilder(String.format("%n%-42s %9s %9s %9s %9s %9s %9s %7s %5s %10s%n",
+            "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "4xx", "5xx", "max bytes"));
+        for (Endpoint endpoint : mix) {
+            Histogram latency = endpoint.latency;
+            all.add(latency);
+            table.append(String.format("%-42s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %7d %5d %10d%n",
+                endpoint.name, latency.getTotalCount(), latency.getTotalCount() / seconds,
+                millis(latency, 50), millis(latency, 99), millis(latency, 99.9), latency.getMaxValue() / 1e6,
+                endpoint.rejected.sum(), endpoint.serverErrors.sum() + endpoint.ioErrors.sum(), endpoint.maxBytes.get()));
+        }
+        table.append(String.format("%-42s %9d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+            "all (" + THREADS + " threads, " + DURATION_SECONDS + "s)", all.getTotalCount(), all.getTotalCount() / seconds,
+            millis(all, 50), millis(all, 99), millis(all, 99.9), all.getMaxValue() / 1e6));
+        System.out.print(table);
+    }
+
+    private static double millis(Histogram latency, double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    private static Endpoint choose(List<Endpoint> mix, int ticket) {
+        for (Endpoint endpoint : mix) {
+            ticket -= endpoint.weight;
+            if (ticket < 0) {
+                return endpoint;
+            }
+        }
+        return mix.get(mix.size() - 1);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).timeout(Duration.ofMinutes(1)).GET().build();
+    }
+
+    private HttpRequest post(String path) {
+        return HttpRequest.newBuilder(uri(path)).timeout(Duration.ofMinutes(1))
+            .POST(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String city(ThreadLocalRandom random) {
+        return URLEncoder.encode(pick(SyntheticCatalog.CITIES, random), StandardCharsets.UTF_8);
+    }
+
+    // What has been typed so far, one to four characters
+    private static String typed(String word, ThreadLocalRandom random) {
+        return word.substring(0, Math.min(word.length(), 1 + random.nextInt(4))).replace(" ", "%20");
+    }
+
+    private static <T> T pick(T[] values, ThreadLocalRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static <T> T pick(List<T> values, ThreadLocalRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static final class Endpoint {
+        private final String name;
+        private final int weight;
+        private final Function<ThreadLocalRandom, HttpRequest> request;
+        private final ConcurrentHistogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+        private final LongAdder ioErrors = new LongAdder();
+        private final LongAccumulator maxBytes = new LongAccumulator(Math::max, 0);
+
+        private Endpoint(String name, int weight, Function<ThreadLocalRandom, HttpRequest> request) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+        }
+
+        private void reset() {
+            latency.reset();
+            ok.reset();
+            rejected.reset();
+            serverErrors.reset();
+            ioErrors.reset();
+            maxBytes.reset();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.makemytrip.makemytrip.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchKeysTest {
+
+    @Test
+    void wordSuffixesStartAtEveryWord() {
+        assertThat(SearchKeys.wordSuffixes("new delhi")).containsExactly("new delhi", "delhi");
+        assertThat(SearchKeys.wordSuffixes("new  delhi")).containsExactly("new  delhi", "delhi");
+        assertThat(SearchKeys.wordSuffixes("st. john's-wood")).containsExactly("st. john's-wood", "john's-wood", "s-wood", "wood");
+        assertThat(SearchKeys.wordSuffixes("terminal 2")).containsExactly("terminal 2", "2");
+        // The whole value is always a key, even when it starts with punctuation
+        assertThat(SearchKeys.wordSuffixes("(north) goa")).containsExactly("(north) goa", "north) goa", "goa");
+        assertThat(SearchKeys.wordSuffixes("")).isEmpty();
+    }
+
+    @Test
+    void ofNormalizesEveryNamedValue() {
+        Map<String, List<String>> keys = SearchKeys.of("from", "  New Delhi ", "to", null, "flightName", "IndiGo");
+
+        assertThat(keys).containsOnlyKeys("from", "to", "flightName");
+        assertThat(keys.get("from")).containsExactly("new delhi", "delhi");
+        assertThat(keys.get("to")).isEmpty();
+        assertThat(keys.get("flightName")).containsExactly("indigo");
+    }
+
+    @Test
+    void prefixMatchesWordStartsIgnoringCase() {
+        Pattern prefix = SearchKeys.prefix(" DEL");
+
+        assertThat(prefix.pattern()).isEqualTo("^del");
+        assertThat(SearchKeys.startsAWord(prefix, "New Delhi")).isTrue();
+        assertThat(SearchKeys.startsAWord(prefix, "Model Town")).isFalse();
+    }
+
+    @Test
+    void multiWordInputMatchesFromTheWordItStartsAt() {
+        Pattern prefix = SearchKeys.prefix("New Del");
+
+        assertThat(prefix.pattern()).isEqualTo("^new del");
+        assertThat(SearchKeys.startsAWord(prefix, "New Delhi")).isTrue();
+        assertThat(SearchKeys.startsAWord(prefix, "Old New Delhi")).isTrue();
+        assertThat(SearchKeys.startsAWord(prefix, "New Town Delhi")).isFalse();
+    }
+
+    @Test
+    void regexMetacharactersAreMatchedLiterally() {
+        assertThat(SearchKeys.startsAWord(SearchKeys.prefix(".*"), "Goa")).isFalse();
+        assertThat(SearchKeys.startsAWord(SearchKeys.prefix(".*"), ".*goa")).isTrue();
+        assertThat(SearchKeys.startsAWord(SearchKeys.prefix("("), "(north) goa")).isTrue();
+        assertThat(SearchKeys.startsAWord(SearchKeys.prefix("("), "goa")).isFalse();
+        assertThat(SearchKeys.startsAWord(SearchKeys.prefix("\\"), "\\ terminal")).isTrue();
+        assertThat(SearchKeys.startsAWord(SearchKeys.prefix("\\"), "terminal")).isFalse();
+        assertThat(SearchKeys.startsAWord(SearchKeys.prefix("[a-"), "[a-z] hotel")).isTrue();
+        assertThat(SearchKeys.startsAWord(SearchKeys.prefix("[a-"), "agra")).isFalse();
+        assertThat(SearchKeys.startsAWord(SearchKeys.prefix("goa+"), "goaaa")).isFalse();
+        assertThat(SearchKeys.startsAWord(SearchKeys.prefix("goa+"), "goa+ resort")).isTrue();
+    }
+
+    @Test
+    void leadingPunctuationIsSkippedUnlessThatIsAllThereIs() {
+        assertThat(SearchKeys.prefix("-goa").pattern()).isEqualTo("^goa");
+        assertThat(SearchKeys.prefix("(north").pattern()).isEqualTo("^north");
+        assertThat(SearchKeys.startsAWord(SearchKeys.prefix("(north"), "Goa (North)")).isTrue();
+        // Punctuation after the first letter is kept, escaped
+        assertThat(SearchKeys.prefix("st. j").pattern()).isEqualTo("^st\\. j");
+        assertThat(SearchKeys.prefix("--").pattern()).isEqualTo("^\\-\\-");
+    }
+
+    @Test
+    void emptyInputMatchesEverything() {
+        assertThat(SearchKeys.prefix("").pattern()).isEqualTo("^");
+        assertThat(SearchKeys.prefix(null).pattern()).isEqualTo("^");
+        assertThat(SearchKeys.prefix("   ").pattern()).isEqualTo("^");
+        assertThat(SearchKeys.startsAWord(SearchKeys.prefix(""), "Goa")).isTrue();
+    }
+}
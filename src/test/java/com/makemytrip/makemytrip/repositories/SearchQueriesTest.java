@@ -0,0 +1,157 @@
+package com.makemytrip.makemytrip.repositories;
+
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.models.Hotel;
+import com.makemytrip.makemytrip.models.SearchKeys;
+import com.makemytrip.makemytrip.support.EmbeddedMongoConfig;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(EmbeddedMongoConfig.class)
+class SearchQueriesTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void seed() {
+        mongoTemplate.remove(new Query(), Flight.class);
+        mongoTemplate.remove(new Query(), Hotel.class);
+        mongoTemplate.insertAll(List.of(
+            flight("f1", "IndiGo 101", "New Delhi", "Mumbai", 5000, 10),
+            flight("f2", "Vistara 202", " new delhi ", "MUMBAI", 3000, 0),
+            flight("f3", "IndiGo 303", "Delhi", "Goa", 4000, 20),
+            flight("f4", "SpiceJet 404", "Mumbai", "New Delhi", 2000, 5),
+            flight("f5", "Air India 505", "Navi Mumbai", "Delhi", 6000, 50)));
+        mongoTemplate.insertAll(List.of(
+            hotel("h1", "Sea View", "North Goa", 3000, 5, "Pool, Free WiFi"),
+            hotel("h2", "Hill Top", "Shimla", 2000, 0, "Spa"),
+            hotel("h3", "Beach Hut", "Goa", 1500, 2, "WiFi")));
+    }
+
+    @Test
+    void noFlightFiltersMatchesEverything() {
+        assertThat(flights(null, null, null, null, null, null)).containsExactlyInAnyOrder("f1", "f2", "f3", "f4", "f5");
+    }
+
+    @Test
+    void routeIsTheWholeValueIgnoringCaseAndSurroundingSpace() {
+        assertThat(flights("New Delhi", "Mumbai", null, null, null, null)).containsExactlyInAnyOrder("f1", "f2");
+        assertThat(flights("  NEW DELHI", "mumbai ", null, null, null, null)).containsExactlyInAnyOrder("f1", "f2");
+        assertThat(flights("delhi", "goa", null, null, null, null)).containsExactly("f3");
+        // "delhi" is a search key of "New Delhi", but not the whole value
+        assertThat(flights("Delhi", "Mumbai", null, null, null, null)).isEmpty();
+        assertThat(flights("New", "Mumbai", null, null, null, null)).isEmpty();
+    }
+
+    @Test
+    void aSingleLocationMatchesAWordStartOfEitherEnd() {
+        assertThat(flights("mum", null, null, null, null, null)).containsExactlyInAnyOrder("f1", "f2", "f4", "f5");
+        assertThat(flights(null, "mum", null, null, null, null)).containsExactlyInAnyOrder("f1", "f2", "f4", "f5");
+        assertThat(flights(null, "goa", null, null, null, null)).containsExactly("f3");
+        assertThat(flights("umbai", null, null, null, null, null)).isEmpty();
+    }
+
+    @Test
+    void airlineMatchesAWordStartOfTheFlightName() {
+        assertThat(flights(null, null, "indigo", null, null, null)).containsExactlyInAnyOrder("f1", "f3");
+        assertThat(flights(null, null, "India", null, null, null)).containsExactly("f5");
+        assertThat(flights(null, null, "", null, null, null)).hasSize(5);
+        assertThat(flights(null, null, "digo", null, null, null)).isEmpty();
+    }
+
+    @Test
+    void priceBoundsAreInclusiveAndSeatsAreAMinimum() {
+        assertThat(flights(null, null, null, 3000.0, null, null)).containsExactlyInAnyOrder("f1", "f2", "f3", "f5");
+        assertThat(flights(null, null, null, null, 3000.0, null)).containsExactlyInAnyOrder("f2", "f4");
+        assertThat(flights(null, null, null, 3000.0, 5000.0, null)).containsExactlyInAnyOrder("f1", "f2", "f3");
+        assertThat(flights(null, null, null, null, null, 10)).containsExactlyInAnyOrder("f1", "f3", "f5");
+        assertThat(flights(null, null, null, null, null, 0)).hasSize(5);
+    }
+
+    @Test
+    void flightFiltersCombine() {
+        assertThat(flights("New Delhi", "Mumbai", null, null, null, 1)).containsExactly("f1");
+        assertThat(flights("delhi", null, "indigo", 4500.0, null, 5)).containsExactly("f1");
+        // A lone "to" still matches either end of the route
+        assertThat(flights(null, "delhi", null, null, 5000.0, 5)).containsExactlyInAnyOrder("f1", "f3", "f4");
+        assertThat(flights("mumbai", null, "air", 1000.0, 9000.0, 60)).isEmpty();
+    }
+
+    @Test
+    void hotelFiltersAloneAndCombined() {
+        assertThat(hotels(null, null, null, null, null)).containsExactlyInAnyOrder("h1", "h2", "h3");
+        assertThat(hotels("", null, null, "", null)).containsExactlyInAnyOrder("h1", "h2", "h3");
+        assertThat(hotels("goa", null, null, null, null)).containsExactlyInAnyOrder("h1", "h3");
+        assertThat(hotels("NORTH", null, null, null, null)).containsExactly("h1");
+        assertThat(hotels("oa", null, null, null, null)).isEmpty();
+        assertThat(hotels(null, 2000.0, 3000.0, null, null)).containsExactlyInAnyOrder("h1", "h2");
+        assertThat(hotels(null, null, null, "wifi", null)).containsExactlyInAnyOrder("h1", "h3");
+        assertThat(hotels(null, null, null, "free", null)).containsExactly("h1");
+        assertThat(hotels(null, null, null, null, 1)).containsExactlyInAnyOrder("h1", "h3");
+        assertThat(hotels("goa", null, 2000.0, "wifi", 1)).containsExactly("h3");
+    }
+
+    @Test
+    void resultsCarryOnlyTheListedFieldsAndNeverTheSearchKeys() {
+        List<Document> flights = mongoTemplate.find(SearchQueries.flights("mum", null, null, null, null, null),
+            Document.class, "flight");
+        assertThat(flights).isNotEmpty().allSatisfy(flight -> assertThat(flight.keySet())
+            .doesNotContain(SearchKeys.FIELD)
+            .isSubsetOf("_id", "flightName", "from", "to", "departureTime", "arrivalTime", "price", "availableSeats"));
+
+        List<Document> hotels = mongoTemplate.find(SearchQueries.hotels("goa", null, null, null, null),
+            Document.class, "hotels");
+        assertThat(hotels).isNotEmpty().allSatisfy(hotel -> assertThat(hotel.keySet())
+            .doesNotContain(SearchKeys.FIELD)
+            .isSubsetOf("_id", "hotelName", "location", "pricePerNight", "availableRooms", "amenities"));
+    }
+
+    private List<String> flights(String from, String to, String airline, Double minPrice, Double maxPrice, Integer minSeats) {
+        List<String> ids = new ArrayList<>();
+        mongoTemplate.find(SearchQueries.flights(from, to, airline, minPrice, maxPrice, minSeats), Flight.class)
+            .forEach(flight -> ids.add(flight.getId()));
+        return ids;
+    }
+
+    private List<String> hotels(String location, Double minPrice, Double maxPrice, String amenities, Integer minRooms) {
+        List<String> ids = new ArrayList<>();
+        mongoTemplate.find(SearchQueries.hotels(location, minPrice, maxPrice, amenities, minRooms), Hotel.class)
+            .forEach(hotel -> ids.add(hotel.getId()));
+        return ids;
+    }
+
+    private static Flight flight(String id, String name, String from, String to, double price, int seats) {
+        Flight flight = new Flight();
+        flight.setId(id);
+        flight.setFlightName(name);
+        flight.setFrom(from);
+        flight.setTo(to);
+        flight.setPrice(price);
+        flight.setAvailableSeats(seats);
+        return flight;
+    }
+
+    private static Hotel hotel(String id, String name, String location, double price, int rooms, String amenities) {
+        Hotel hotel = new Hotel();
+        hotel.setId(id);
+        hotel.sethotelName(name);
+        hotel.setLocation(location);
+        hotel.setPricePerNight(price);
+        hotel.setAvailableRooms(rooms);
+        hotel.setamenities(amenities);
+        return hotel;
+    }
+}
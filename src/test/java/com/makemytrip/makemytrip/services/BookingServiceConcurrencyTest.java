@@ -0,0 +1,166 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.BatchBookingRequest;
+import com.makemytrip.makemytrip.models.BatchBookingResult;
+import com.makemytrip.makemytrip.models.BookingRecord;
+import com.makemytrip.makemytrip.models.BookingResult;
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.models.Hotel;
+import com.makemytrip.makemytrip.models.Users;
+import com.makemytrip.makemytrip.support.EmbeddedMongoConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(EmbeddedMongoConfig.class)
+class BookingServiceConcurrencyTest {
+
+    private static final int SEATS = 100;
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 10;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private FlightSearchIndex flightSearchIndex;
+
+    @Test
+    void parallelBookingsNeverOversellAFlight() throws Exception {
+        Flight flight = new Flight();
+        flight.setFlightName("StressAir");
+        flight.setFrom("DEL");
+        flight.setTo("BOM");
+        flight.setPrice(100);
+        flight.setAvailableSeats(SEATS);
+        flight = mongoTemplate.save(flight);
+
+        List<String> userIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Users user = new Users();
+            user.setFirstName("user" + i);
+            userIds.add(mongoTemplate.save(user).getId());
+        }
+
+        String flightId = flight.getId();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<int[]>> futures = new ArrayList<>();
+        for (String userId : userIds) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                int[] outcome = new int[2];
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    BookingResult result = bookingService.bookFlight(userId, flightId, 1, 100);
+                    outcome[result.isBooked() ? 0 : 1]++;
+                    if (!result.isBooked()) {
+                        assertThat(result.getStatus()).isEqualTo(BookingResult.Status.SOLD_OUT);
+                    }
+                }
+                return outcome;
+            }));
+        }
+        start.countDown();
+
+        int booked = 0;
+        int soldOut = 0;
+        for (Future<int[]> future : futures) {
+            int[] outcome = future.get(60, TimeUnit.SECONDS);
+            booked += outcome[0];
+            soldOut += outcome[1];
+        }
+        pool.shutdown();
+
+        assertThat(booked).isEqualTo(SEATS);
+        assertThat(soldOut).isEqualTo(THREADS * ATTEMPTS_PER_THREAD - SEATS);
+        assertThat(mongoTemplate.findById(flightId, Flight.class).getAvailableSeats()).isZero();
+        // However the bookings reported back, the index ends on the last seat count
+        assertThat(flightSearchIndex.search("DEL", "BOM", null, null, null, 1)).extracting(Flight::getId).doesNotContain(flightId);
+    }
+
+    @Test
+    void missingFlightIsReportedAsNotFound() {
+        Users user = mongoTemplate.save(new Users());
+        BookingResult result = bookingService.bookFlight(user.getId(), "000000000000000000000000", 1, 100);
+        assertThat(result.getStatus()).isEqualTo(BookingResult.Status.NOT_FOUND);
+    }
+
+    @Test
+    void parallelItinerariesAreNeverHalfBooked() throws Exception {
+        Flight flight = new Flight();
+        flight.setFlightName("StressAir");
+        flight.setFrom("DEL");
+        flight.setTo("GOI");
+        flight.setPrice(100);
+        flight.setAvailableSeats(SEATS);
+        String flightId = mongoTemplate.save(flight).getId();
+
+        // Fewer rooms than seats, so most itineraries get their seat and then fail on the hotel
+        Hotel hotel = new Hotel();
+        hotel.sethotelName("StressInn");
+        hotel.setLocation("GOI");
+        hotel.setAvailableRooms(SEATS / 4);
+        String hotelId = mongoTemplate.save(hotel).getId();
+        String userId = mongoTemplate.save(new Users()).getId();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                int booked = 0;
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    BatchBookingResult result = bookingService.bookItinerary(userId,
+                        List.of(item("Flight", flightId), item("Hotel", hotelId)));
+                    if (result.getStatus() == BookingResult.Status.BOOKED) {
+                        booked++;
+                    } else {
+                        assertThat(result.getStatus()).isEqualTo(BookingResult.Status.SOLD_OUT);
+                        assertThat(result.getBookings()).isEmpty();
+                    }
+                }
+                return booked;
+            }));
+        }
+        start.countDown();
+
+        int booked = 0;
+        for (Future<Integer> future : futures) {
+            booked += future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertThat(booked).isEqualTo(SEATS / 4);
+        assertThat(mongoTemplate.findById(hotelId, Hotel.class).getAvailableRooms()).isZero();
+        assertThat(mongoTemplate.findById(flightId, Flight.class).getAvailableSeats()).isEqualTo(SEATS - booked);
+        assertThat(mongoTemplate.count(new Query(Criteria.where("userId").is(userId)), BookingRecord.class)).isEqualTo(2L * booked);
+    }
+
+    private static BatchBookingRequest.Item item(String type, String id) {
+        BatchBookingRequest.Item item = new BatchBookingRequest.Item();
+        item.setType(type);
+        item.setId(id);
+        item.setQuantity(1);
+        item.setPrice(100);
+        return item;
+    }
+}
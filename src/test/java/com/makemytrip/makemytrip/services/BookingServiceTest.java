@@ -0,0 +1,127 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.BatchBookingRequest;
+import com.makemytrip.makemytrip.models.BookingRecord;
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.models.Hotel;
+import com.makemytrip.makemytrip.repositories.BookingRepository;
+import com.makemytrip.makemytrip.repositories.UserRepository;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingServiceTest {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private BookingRepository bookingRepository;
+    private BookingService bookingService;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "bookings");
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.existsById("u1")).thenReturn(true);
+        bookingRepository = mock(BookingRepository.class);
+        bookingService = new BookingService();
+        ReflectionTestUtils.setField(bookingService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(bookingService, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(bookingService, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(bookingService, "flightSearchIndex", mock(FlightSearchIndex.class));
+        ReflectionTestUtils.setField(bookingService, "meterRegistry", new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    void failedInsertHandsBackEveryReservedLeg() {
+        String outbound = flight(10);
+        String inbound = flight(10);
+        String hotelId = hotel(5);
+        when(bookingRepository.insert(anyIterable())).thenThrow(new DataAccessResourceFailureException("write failed"));
+
+        // The outbound flight is listed twice, so its leg is reserved for both items together
+        assertThatThrownBy(() -> bookingService.bookItinerary("u1", List.of(
+            item("Flight", outbound, 2), item("Hotel", hotelId, 3), item("Flight", inbound, 1), item("flight", outbound, 1))))
+            .isInstanceOf(DataAccessResourceFailureException.class);
+
+        assertThat(mongoTemplate.findById(outbound, Flight.class).getAvailableSeats()).isEqualTo(10);
+        assertThat(mongoTemplate.findById(inbound, Flight.class).getAvailableSeats()).isEqualTo(10);
+        assertThat(mongoTemplate.findById(hotelId, Hotel.class).getAvailableRooms()).isEqualTo(5);
+    }
+
+    @Test
+    void failedInsertHandsBackTheSeatsOfAFlightBooking() {
+        String flightId = flight(10);
+        when(bookingRepository.insert(any(BookingRecord.class))).thenThrow(new DataAccessResourceFailureException("write failed"));
+
+        assertThatThrownBy(() -> bookingService.bookFlight("u1", flightId, 3, 300))
+            .isInstanceOf(DataAccessResourceFailureException.class);
+
+        assertThat(mongoTemplate.findById(flightId, Flight.class).getAvailableSeats()).isEqualTo(10);
+    }
+
+    @Test
+    void failedInsertHandsBackTheRoomsOfAHotelBooking() {
+        String hotelId = hotel(5);
+        when(bookingRepository.insert(any(BookingRecord.class))).thenThrow(new DataAccessResourceFailureException("write failed"));
+
+        assertThatThrownBy(() -> bookingService.bookhotel("u1", hotelId, 2, 200))
+            .isInstanceOf(DataAccessResourceFailureException.class);
+
+        assertThat(mongoTemplate.findById(hotelId, Hotel.class).getAvailableRooms()).isEqualTo(5);
+    }
+
+    private String flight(int seats) {
+        Flight flight = new Flight();
+        flight.setFlightName("LegAir");
+        flight.setFrom("DEL");
+        flight.setTo("GOI");
+        flight.setPrice(100);
+        flight.setAvailableSeats(seats);
+        return mongoTemplate.save(flight).getId();
+    }
+
+    private String hotel(int rooms) {
+        Hotel hotel = new Hotel();
+        hotel.sethotelName("LegInn");
+        hotel.setLocation("GOI");
+        hotel.setAvailableRooms(rooms);
+        return mongoTemplate.save(hotel).getId();
+    }
+
+    private static BatchBookingRequest.Item item(String type, String id, int quantity) {
+        BatchBookingRequest.Item item = new BatchBookingRequest.Item();
+        item.setType(type);
+        item.setId(id);
+        item.setQuantity(quantity);
+        item.setPrice(100);
+        return item;
+    }
+}
@@ -0,0 +1,212 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.repositories.FlightRepository;
+import com.makemytrip.makemytrip.repositories.SearchQueries;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FlightSearchIndexTest {
+
+    private final FlightRepository flightRepository = mock(FlightRepository.class);
+    private final FlightSearchIndex index = new FlightSearchIndex();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(index, "flightRepository", flightRepository);
+    }
+
+    @Test
+    void looksUpARouteIgnoringCaseAndSortsByPrice() {
+        when(flightRepository.findAll()).thenReturn(List.of(
+            flight("1", "IndiGo 101", "Delhi", "Mumbai", 5000, 10),
+            flight("2", "Vistara 202", "Delhi", "Mumbai", 3000, 10),
+            flight("3", "IndiGo 303", "Delhi", "Goa", 4000, 10)));
+        index.rebuild();
+
+        assertThat(ids(index.search(" delhi", "MUMBAI ", null, null, null, null))).containsExactly("2", "1");
+        assertThat(ids(index.search("Delhi", "Chennai", null, null, null, null))).isEmpty();
+        assertThat(ids(index.search("Delhi", null, null, null, null, null))).containsExactly("2", "3", "1");
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void filtersOnPriceSeatsAndAirline() {
+        when(flightRepository.findAll()).thenReturn(List.of(
+            flight("1", "IndiGo 101", "Delhi", "Mumbai", 2000, 0),
+            flight("2", "IndiGo 102", "Delhi", "Mumbai", 3000, 5),
+            flight("3", "Vistara 202", "Delhi", "Mumbai", 4000, 50),
+            flight("4", "IndiGo 103", "Delhi", "Mumbai", 6000, 50)));
+        index.rebuild();
+
+        assertThat(ids(index.search("Delhi", "Mumbai", null, 3000.0, 4000.0, null))).containsExactly("2", "3");
+        assertThat(ids(index.search("Delhi", "Mumbai", null, null, null, 5))).containsExactly("2", "3", "4");
+        assertThat(ids(index.search("Delhi", "Mumbai", "indigo", null, 5000.0, 1))).containsExactly("2");
+    }
+
+    @Test
+    void singleLocationAndAirlineMatchWordStarts() {
+        when(flightRepository.findAll()).thenReturn(routesWithSharedLetters());
+        index.rebuild();
+
+        assertThat(ids(index.search("del", null, null, null, null, null))).containsExactly("2", "1");
+        assertThat(ids(index.search(null, "Mum", null, null, null, null))).containsExactly("1");
+        assertThat(ids(index.search("elhi", null, null, null, null, null))).isEmpty();
+        assertThat(ids(index.search(null, null, "india", null, null, null))).containsExactly("3");
+        assertThat(ids(index.search(null, null, "dia", null, null, null))).isEmpty();
+    }
+
+    @Test
+    void mongoFallbackMatchesTheSameFlights() {
+        List<Flight> flights = routesWithSharedLetters();
+        when(flightRepository.findAll()).thenReturn(flights);
+        index.rebuild();
+
+        MongoServer server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        try (MongoClient client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort())) {
+            MongoTemplate mongoTemplate = new MongoTemplate(client, "search");
+            for (Flight flight : flights) {
+                flight.refreshSearchKeys();
+                mongoTemplate.insert(flight);
+            }
+            String[][] searches = {
+                {" new delhi", "MUMBAI ", null}, {"Delhi", "Goa", null}, {"delhi", "mumbai", null},
+                {"del", null, null}, {null, "mum", null}, {"elhi", null, null},
+                {null, null, "india"}, {null, null, "dia"}
+            };
+            for (String[] search : searches) {
+                List<Flight> fromMongo = mongoTemplate.find(
+                    SearchQueries.flights(search[0], search[1], search[2], null, null, null), Flight.class);
+                assertThat(ids(fromMongo)).as(String.join(",", String.valueOf(search[0]), String.valueOf(search[1]),
+                        String.valueOf(search[2])))
+                    .containsExactlyInAnyOrderElementsOf(ids(index.search(search[0], search[1], search[2], null, null, null)));
+            }
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    @Test
+    void upsertMovesAFlightBetweenRoutes() {
+        when(flightRepository.findAll()).thenReturn(List.of(
+            flight("1", "IndiGo 101", "Delhi", "Mumbai", 5000, 10),
+            flight("2", "IndiGo 102", "Delhi", "Goa", 3000, 10)));
+        index.rebuild();
+
+        index.upsert(flight("1", "IndiGo 101", "Delhi", "Goa", 2500, 10));
+
+        assertThat(ids(index.search("Delhi", "Mumbai", null, null, null, null))).isEmpty();
+        assertThat(ids(index.search("Delhi", "Goa", null, null, null, null))).containsExactly("1", "2");
+        assertThat(index.size()).isEqualTo(2);
+
+        index.remove("2");
+        assertThat(ids(index.search("Delhi", "Goa", null, null, null, null))).containsExactly("1");
+    }
+
+    @Test
+    void writesDuringARebuildAreNotLostToTheOlderSnapshot() {
+        when(flightRepository.findAll()).thenAnswer(invocation -> {
+            // A booking and a deletion land after the snapshot was read
+            List<Flight> snapshot = List.of(
+                flight("1", "IndiGo 101", "Delhi", "Mumbai", 5000, 10),
+                flight("2", "IndiGo 102", "Delhi", "Mumbai", 6000, 10));
+            index.inventoryChanged(booked(flight("1", "IndiGo 101", "Delhi", "Mumbai", 5000, 9), 1));
+            index.remove("2");
+            return snapshot;
+        });
+        index.rebuild();
+
+        List<Flight> results = index.search("Delhi", "Mumbai", null, null, null, null);
+        assertThat(ids(results)).containsExactly("1");
+        assertThat(results.get(0).getAvailableSeats()).isEqualTo(9);
+    }
+
+    @Test
+    void bookingsReportedOutOfOrderKeepTheNewestSeatCount() {
+        when(flightRepository.findAll()).thenReturn(List.of(
+            flight("1", "IndiGo 101", "Delhi", "Mumbai", 5000, 10)));
+        index.rebuild();
+
+        // Two bookings of one seat each; the second one's document arrives first
+        index.inventoryChanged(booked(flight("1", "IndiGo 101", "Delhi", "Mumbai", 5000, 8), 2));
+        index.inventoryChanged(booked(flight("1", "IndiGo 101", "Delhi", "Mumbai", 5000, 9), 1));
+
+        assertThat(ids(index.search("Delhi", "Mumbai", null, null, null, 9))).isEmpty();
+        assertThat(index.search("Delhi", "Mumbai", null, null, null, null).get(0).getAvailableSeats()).isEqualTo(8);
+    }
+
+    @Test
+    void anAdminEditIsNotUndoneByAnOlderBooking() {
+        when(flightRepository.findAll()).thenReturn(List.of(
+            flight("1", "IndiGo 101", "Delhi", "Mumbai", 5000, 10)));
+        index.rebuild();
+
+        // The edit read version 0 and saved version 1; a booking that read version 0 reports back late
+        index.upsert(booked(flight("1", "IndiGo 999", "Delhi", "Mumbai", 4500, 50), 1));
+        index.inventoryChanged(booked(flight("1", "IndiGo 101", "Delhi", "Mumbai", 5000, 9), 1));
+        index.inventoryChanged(booked(flight("1", "IndiGo 999", "Delhi", "Mumbai", 4500, 49), 2));
+
+        Flight indexed = index.search("Delhi", "Mumbai", null, null, null, null).get(0);
+        assertThat(indexed.getFlightName()).isEqualTo("IndiGo 999");
+        assertThat(indexed.getAvailableSeats()).isEqualTo(49);
+    }
+
+    @Test
+    void callersGetCopies() {
+        Flight saved = flight("1", "IndiGo 101", "Delhi", "Mumbai", 5000, 10);
+        when(flightRepository.findAll()).thenReturn(List.of());
+        index.rebuild();
+        index.upsert(saved);
+
+        saved.setAvailableSeats(0);
+        index.search("Delhi", "Mumbai", null, null, null, null).get(0).setPrice(1);
+
+        Flight indexed = index.search("Delhi", "Mumbai", null, null, null, null).get(0);
+        assertThat(indexed.getAvailableSeats()).isEqualTo(10);
+        assertThat(indexed.getPrice()).isEqualTo(5000);
+    }
+
+    private static Flight booked(Flight flight, long inventoryVersion) {
+        flight.setInventoryVersion(inventoryVersion);
+        return flight;
+    }
+
+    private static Flight flight(String id, String name, String from, String to, double price, int seats) {
+        Flight flight = new Flight();
+        flight.setId(id);
+        flight.setFlightName(name);
+        flight.setFrom(from);
+        flight.setTo(to);
+        flight.setPrice(price);
+        flight.setAvailableSeats(seats);
+        return flight;
+    }
+
+    private static List<Flight> routesWithSharedLetters() {
+        return new ArrayList<>(List.of(
+            flight("1", "IndiGo 101", "New Delhi", "Mumbai", 5000, 10),
+            flight("2", "Vistara 202", "Delhi", "Goa", 3000, 10),
+            flight("3", "Air India Express", "Chennai", "Pune", 4000, 10)));
+    }
+
+    private static List<String> ids(List<Flight> flights) {
+        List<String> ids = new ArrayList<>();
+        flights.forEach(flight -> ids.add(flight.getId()));
+        return ids;
+    }
+}
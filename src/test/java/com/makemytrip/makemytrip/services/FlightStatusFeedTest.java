@@ -0,0 +1,210 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.FlightStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlightStatusFeedTest {
+
+    private static final FlightStatus AI101 = status("AI101", "Air India", "DEL", "BOM");
+    private static final FlightStatus E202 = status("6E202", "IndiGo", "BOM", "BLR");
+    private static final FlightStatus SG303 = status("SG303", "SpiceJet", "BLR", "CCU");
+
+    private FlightStatusFeed feed;
+
+    @AfterEach
+    void tearDown() {
+        feed.destroy();
+    }
+
+    @Test
+    void deltasOnlyReachTheClientsWhoseFiltersMatch() throws Exception {
+        feed = feed(2, 64, 5000);
+        Client byFlight = subscribe(" ai101 ", null, null, null);
+        Client byAirline = subscribe(null, "indigo", null, null);
+        Client byRoute = subscribe(null, null, "del", "BOM");
+        Client byOrigin = subscribe(null, null, "BLR", null);
+        Client byDestination = subscribe(null, null, null, "ccu");
+        Client everything = subscribe(null, null, null, null);
+        Client twoFilters = subscribe("AI101", "Air India", "DEL", "BOM");
+
+        feed.publish(List.of(AI101, E202, SG303));
+
+        await(() -> everything.flightNumbers().size() == 3);
+        await(() -> byFlight.flightNumbers().size() == 1 && byAirline.flightNumbers().size() == 1
+            && byRoute.flightNumbers().size() == 1 && byOrigin.flightNumbers().size() == 1
+            && byDestination.flightNumbers().size() == 1 && !twoFilters.flightNumbers().isEmpty());
+        assertThat(byFlight.flightNumbers()).containsExactly("AI101");
+        assertThat(byAirline.flightNumbers()).containsExactly("6E202");
+        assertThat(byRoute.flightNumbers()).containsExactly("AI101");
+        assertThat(byOrigin.flightNumbers()).containsExactly("SG303");
+        assertThat(byDestination.flightNumbers()).containsExactly("SG303");
+        assertThat(everything.flightNumbers()).containsExactlyInAnyOrder("AI101", "6E202", "SG303");
+        // Matched by flight, airline and route, delivered once
+        assertThat(twoFilters.flightNumbers()).containsExactly("AI101");
+    }
+
+    @Test
+    void aClientThatFallsBehindLosesItsOldestUpdatesAndIsToldToResync() throws Exception {
+        feed = feed(1, 2, 60000);
+        Client slow = subscribe(null, null, null, null);
+
+        slow.stall();
+        feed.publish(AI101);
+        assertThat(slow.blocked.await(5, TimeUnit.SECONDS)).isTrue();
+        feed.publish(List.of(E202, SG303, AI101, E202));
+        slow.resume();
+
+        await(() -> slow.flightNumbers().size() == 3);
+        assertThat(slow.eventNames()).containsExactly("status", "resync", "status");
+        assertThat(slow.flightNumbers()).containsExactly("AI101", "AI101", "6E202");
+        assertThat(feed.getDroppedUpdates()).isEqualTo(2);
+        assertThat(feed.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void aClientWhoseWriteStallsIsEvictedWithoutHoldingUpTheOthers() throws Exception {
+        feed = feed(1, 64, 200);
+        Client stalled = subscribe("AI101", null, null, null);
+        Client reading = subscribe(null, null, null, null);
+
+        stalled.stall();
+        feed.publish(AI101);
+        assertThat(stalled.blocked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        await(() -> feed.getEvictedSubscribers() == 1);
+        assertThat(feed.getSubscriberCount()).isEqualTo(1);
+        // The only dispatcher is stuck in the stalled write, so this needs the replacement thread
+        feed.publish(SG303);
+        await(() -> reading.flightNumbers().contains("SG303"));
+
+        stalled.resume();
+        await(stalled.completed::get);
+        feed.publish(AI101);
+        await(() -> reading.flightNumbers().size() == 3);
+        assertThat(stalled.flightNumbers()).containsExactly("AI101");
+    }
+
+    private static FlightStatusFeed feed(int dispatchThreads, int bufferSize, long sendTimeoutMillis) {
+        return new FlightStatusFeed(dispatchThreads, bufferSize, 1800000, 3600000, sendTimeoutMillis, 64);
+    }
+
+    // Attaches the emitter to a recording handler in place of a servlet response
+    private Client subscribe(String flightNumber, String airline, String origin, String destination) throws Exception {
+        SseEmitter emitter = feed.subscribe(flightNumber, airline, origin, destination);
+        Client client = new Client();
+        Class<?> handlerType = Class.forName(ResponseBodyEmitter.class.getName() + "$Handler");
+        Object handler = Proxy.newProxyInstance(handlerType.getClassLoader(), new Class<?>[] {handlerType}, client);
+        ReflectionTestUtils.invokeMethod(emitter, "initialize", handler);
+        // The keep-alive that opens the stream
+        await(() -> !client.sends.isEmpty());
+        client.sends.clear();
+        return client;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static FlightStatus status(String flightNumber, String airline, String origin, String destination) {
+        return new FlightStatus(flightNumber, airline, origin, destination);
+    }
+
+    private static final class Client implements InvocationHandler {
+        private final List<List<Object>> sends = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private volatile CountDownLatch stall;
+
+        void stall() {
+            stall = new CountDownLatch(1);
+        }
+
+        void resume() {
+            stall.countDown();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "send" -> {
+                    List<Object> parts = new ArrayList<>();
+                    if (args[0] instanceof Collection<?> items) {
+                        for (Object item : items) {
+                            parts.add(((ResponseBodyEmitter.DataWithMediaType) item).getData());
+                        }
+                    } else {
+                        parts.add(args[0]);
+                    }
+                    sends.add(parts);
+                    CountDownLatch latch = stall;
+                    if (latch != null) {
+                        blocked.countDown();
+                        latch.await(10, TimeUnit.SECONDS);
+                        stall = null;
+                    }
+                }
+                case "complete", "completeWithError" -> completed.set(true);
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "toString" -> {
+                    return "Client";
+                }
+                default -> {
+                }
+            }
+            return null;
+        }
+
+        List<String> eventNames() {
+            List<String> names = new ArrayList<>();
+            for (List<Object> parts : sends) {
+                for (Object part : parts) {
+                    if (part instanceof String text && text.startsWith("event:")) {
+                        names.add(text.substring("event:".length(), text.indexOf('\n')));
+                    }
+                }
+            }
+            return names;
+        }
+
+        List<String> flightNumbers() {
+            List<String> flightNumbers = new ArrayList<>();
+            for (List<Object> parts : sends) {
+                for (Object part : parts) {
+                    if (part instanceof List<?> batch) {
+                        for (Object status : batch) {
+                            flightNumbers.add(((FlightStatus) status).getFlightNumber());
+                        }
+                    }
+                }
+            }
+            return flightNumbers;
+        }
+    }
+}
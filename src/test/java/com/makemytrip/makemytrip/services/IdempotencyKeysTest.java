@@ -0,0 +1,179 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.BookingRecord;
+import com.makemytrip.makemytrip.models.BookingResult;
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.models.IdempotentResult;
+import com.makemytrip.makemytrip.models.Users;
+import com.makemytrip.makemytrip.support.EmbeddedMongoConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(EmbeddedMongoConfig.class)
+class IdempotencyKeysTest {
+
+    private static final int SEATS = 100;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private IdempotencyKeys idempotencyKeys;
+
+    @Autowired
+    private BookingService bookingService;
+
+    private String userId;
+    private String flightId;
+
+    @BeforeEach
+    void seed() {
+        Flight flight = new Flight();
+        flight.setFlightName("RetryAir");
+        flight.setFrom("DEL");
+        flight.setTo("BOM");
+        flight.setPrice(100);
+        flight.setAvailableSeats(SEATS);
+        flightId = mongoTemplate.save(flight).getId();
+        userId = mongoTemplate.save(new Users()).getId();
+    }
+
+    @Test
+    void concurrentRetriesBookOnce() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ResponseEntity<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return bookFlight(2, "retry-1");
+            }));
+        }
+        start.countDown();
+
+        List<String> bodies = new ArrayList<>();
+        for (Future<ResponseEntity<String>> future : futures) {
+            ResponseEntity<String> response = future.get(60, TimeUnit.SECONDS);
+            // Retries that arrive while the first request runs are told to come back
+            assertThat(response.getStatusCode().value()).isIn(200, 409);
+            if (response.getStatusCode().is2xxSuccessful()) {
+                bodies.add(response.getBody());
+            }
+        }
+        pool.shutdown();
+
+        assertThat(bodies).isNotEmpty();
+        assertThat(bodies).containsOnly(bodies.get(0));
+        assertThat(mongoTemplate.findById(flightId, Flight.class).getAvailableSeats()).isEqualTo(SEATS - 2);
+        assertThat(mongoTemplate.count(new Query(Criteria.where("userId").is(userId)), BookingRecord.class)).isEqualTo(1);
+    }
+
+    @Test
+    void replayReturnsTheFirstBooking() {
+        ResponseEntity<String> first = bookFlight(2, "replay-1");
+        ResponseEntity<String> again = bookFlight(2, "replay-1");
+
+        assertThat(first.getStatusCode().value()).isEqualTo(200);
+        assertThat(first.getHeaders().containsKey("Idempotent-Replayed")).isFalse();
+        assertThat(again.getStatusCode().value()).isEqualTo(200);
+        assertThat(again.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(again.getBody()).isEqualTo(first.getBody());
+        assertThat(mongoTemplate.findById(flightId, Flight.class).getAvailableSeats()).isEqualTo(SEATS - 2);
+    }
+
+    @Test
+    void keyReusedForADifferentRequestIsRefused() {
+        assertThat(bookFlight(2, "reuse-1").getStatusCode().value()).isEqualTo(200);
+
+        assertThat(bookFlight(3, "reuse-1").getStatusCode().value()).isEqualTo(422);
+        assertThat(mongoTemplate.findById(flightId, Flight.class).getAvailableSeats()).isEqualTo(SEATS - 2);
+    }
+
+    @Test
+    void retryWhileTheFirstRequestRunsIsAConflict() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<IdempotentResult<BookingResult>> first = CompletableFuture.supplyAsync(() ->
+            idempotencyKeys.run(userId, "slow-1", "flight:" + flightId + ":1:100.0", () -> {
+                running.countDown();
+                await(finish);
+                return bookingService.bookFlight(userId, flightId, 1, 100);
+            }));
+        assertThat(running.await(10, TimeUnit.SECONDS)).isTrue();
+
+        ResponseEntity<String> retry = bookFlight(1, "slow-1");
+        finish.countDown();
+
+        assertThat(retry.getStatusCode().value()).isEqualTo(409);
+        assertThat(retry.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(first.get(10, TimeUnit.SECONDS).getOutcome()).isEqualTo(IdempotentResult.Outcome.EXECUTED);
+        assertThat(bookFlight(1, "slow-1").getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(mongoTemplate.findById(flightId, Flight.class).getAvailableSeats()).isEqualTo(SEATS - 1);
+    }
+
+    @Test
+    void batchRetryReplaysTheItinerary() {
+        ResponseEntity<String> first = bookItinerary("Flight", "batch-1");
+        // Item types are matched however they are cased
+        ResponseEntity<String> again = bookItinerary("flight", "batch-1");
+
+        assertThat(first.getStatusCode().value()).isEqualTo(200);
+        assertThat(again.getStatusCode().value()).isEqualTo(200);
+        assertThat(again.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(again.getBody()).isEqualTo(first.getBody());
+        assertThat(mongoTemplate.findById(flightId, Flight.class).getAvailableSeats()).isEqualTo(SEATS - 2);
+        assertThat(bookFlight(2, "batch-1").getStatusCode().value()).isEqualTo(422);
+    }
+
+    private ResponseEntity<String> bookItinerary(String type, String key) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Idempotency-Key", key);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        String body = "{\"userId\":\"" + userId + "\",\"items\":[{\"type\":\"" + type + "\",\"id\":\"" + flightId
+            + "\",\"quantity\":2,\"price\":200}]}";
+        return rest.exchange("/booking/batch", HttpMethod.POST, new HttpEntity<>(body, headers), String.class);
+    }
+
+    private ResponseEntity<String> bookFlight(int seats, String key) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Idempotency-Key", key);
+        return rest.exchange("/booking/flight?userId=" + userId + "&flightId=" + flightId + "&seats=" + seats + "&price=100",
+            HttpMethod.POST, new HttpEntity<>(headers), String.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
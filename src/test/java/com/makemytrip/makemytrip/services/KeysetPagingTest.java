@@ -0,0 +1,175 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.CursorPage;
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.repositories.FlightRepository;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class KeysetPagingTest {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private final KeysetPaging paging = new KeysetPaging();
+
+    // Prices repeat so pages have to break ties on _id
+    private final List<Flight> flights = List.of(
+        flight("a1", 300), flight("a2", 100), flight("a3", 200), flight("a4", 100),
+        flight("a5", 200), flight("a6", 100), flight("a7", 300));
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "paging");
+        mongoTemplate.insertAll(flights);
+
+        ReflectionTestUtils.setField(paging, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(paging, "defaultSize", 3);
+        ReflectionTestUtils.setField(paging, "maxSize", 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    void cursorCarriesTheLastRowsSortKeyAndId() {
+        CursorPage<Flight> page = paging.page(flights, KeysetPaging.FLIGHT_SORTS, "price", null, 2);
+
+        assertThat(ids(page.getItems())).containsExactly("a2", "a4");
+        Document keys = Document.parse(new String(Base64.getUrlDecoder().decode(page.getNextCursor()), StandardCharsets.UTF_8));
+        assertThat(keys.get("price", Number.class).doubleValue()).isEqualTo(100.0);
+        assertThat(keys.getString("_id")).isEqualTo("a4");
+    }
+
+    @Test
+    void inMemoryPagesBreakTiesOnIdWithoutSkippingOrRepeating() {
+        assertThat(ids(allPages(null, "price", 2))).containsExactly("a2", "a4", "a6", "a3", "a5", "a1", "a7");
+        assertThat(ids(allPages(null, "-price", 3))).containsExactly("a1", "a7", "a3", "a5", "a2", "a4", "a6");
+    }
+
+    @Test
+    void mongoAndInMemoryPagesAgree() {
+        for (String sort : new String[] {"price", "-price", "availableSeats"}) {
+            assertThat(ids(allPages(mongoTemplate, sort, 2))).as(sort).isEqualTo(ids(allPages(null, sort, 2)));
+        }
+    }
+
+    @Test
+    void lastPageHasNoCursorAndSizeIsClamped() {
+        CursorPage<Flight> all = paging.page(flights, KeysetPaging.FLIGHT_SORTS, null, null, 50);
+        assertThat(all.getItems()).hasSize(5);
+        assertThat(all.hasNext()).isTrue();
+        assertThat(paging.page(flights, KeysetPaging.FLIGHT_SORTS, null, null, null).getItems()).hasSize(3);
+
+        CursorPage<Flight> last = paging.page(flights, KeysetPaging.FLIGHT_SORTS, null, all.getNextCursor(), 5);
+        assertThat(ids(last.getItems())).containsExactly("a1", "a7");
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    void rejectsUnknownSortsAndMalformedCursors() {
+        assertThatThrownBy(() -> paging.page(flights, KeysetPaging.FLIGHT_SORTS, "flightName", null, 2))
+            .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> paging.page(flights, KeysetPaging.FLIGHT_SORTS, "price", "not a cursor!", 2))
+            .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void aCursorOnlyContinuesTheSortItWasIssuedFor() {
+        String cursor = paging.page(flights, KeysetPaging.FLIGHT_SORTS, "price", null, 2).getNextCursor();
+
+        // No sort means the first option, which is the same sort
+        assertThat(ids(paging.page(flights, KeysetPaging.FLIGHT_SORTS, null, cursor, 2).getItems())).containsExactly("a6", "a3");
+        for (String other : new String[] {"-price", "availableSeats"}) {
+            assertThatThrownBy(() -> paging.page(flights, KeysetPaging.FLIGHT_SORTS, other, cursor, 2))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                    e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+            assertThatThrownBy(() -> paging.scroll(new Query(), Flight.class, KeysetPaging.FLIGHT_SORTS, other, cursor, 2))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                    e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        }
+    }
+
+    @Test
+    void indexedSearchSeeksToThePriceCursorWithoutSkippingTies() {
+        FlightRepository flightRepository = mock(FlightRepository.class);
+        when(flightRepository.findAll()).thenReturn(flights);
+        FlightSearchIndex index = new FlightSearchIndex();
+        ReflectionTestUtils.setField(index, "flightRepository", flightRepository);
+        index.rebuild();
+        EnhancedSearchService search = new EnhancedSearchService();
+        ReflectionTestUtils.setField(search, "flightSearchIndex", index);
+        ReflectionTestUtils.setField(search, "keysetPaging", paging);
+        ReflectionTestUtils.setField(search, "meterRegistry", new SimpleMeterRegistry());
+
+        for (String sort : new String[] {null, "price", "-price", "availableSeats"}) {
+            List<Flight> rows = new ArrayList<>();
+            String cursor = null;
+            do {
+                CursorPage<Flight> page = search.searchFlights("delhi", null, null, null, null, null, sort, cursor, 2);
+                rows.addAll(page.getItems());
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+            assertThat(ids(rows)).as(sort).isEqualTo(ids(allPages(mongoTemplate, sort, 2)));
+        }
+    }
+
+    private List<Flight> allPages(MongoTemplate source, String sort, int size) {
+        List<Flight> rows = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<Flight> page = source == null
+                ? paging.page(flights, KeysetPaging.FLIGHT_SORTS, sort, cursor, size)
+                : paging.scroll(new Query(), Flight.class, KeysetPaging.FLIGHT_SORTS, sort, cursor, size);
+            rows.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return rows;
+    }
+
+    private static Flight flight(String id, double price) {
+        Flight flight = new Flight();
+        flight.setId(id);
+        flight.setFlightName("IndiGo " + id);
+        flight.setFrom("Delhi");
+        flight.setTo("Mumbai");
+        flight.setPrice(price);
+        flight.setAvailableSeats(10);
+        return flight;
+    }
+
+    private static List<String> ids(List<Flight> flights) {
+        List<String> ids = new ArrayList<>();
+        flights.forEach(flight -> ids.add(flight.getId()));
+        return ids;
+    }
+}
@@ -0,0 +1,95 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.BookingRecord;
+import com.makemytrip.makemytrip.support.EmbeddedMongoConfig;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(EmbeddedMongoConfig.class)
+class LegacyBookingMigrationTest {
+
+    @Autowired
+    private LegacyBookingMigration migration;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void copiesEveryEmbeddedBookingOnceAndDropsTheArray() {
+        ObjectId first = user(List.of(booking("F1", 2), booking("H1", 1)));
+        // Two identical bookings are two bookings
+        ObjectId second = user(List.of(booking("F2", 1), booking("F2", 1)));
+
+        migration.migrate();
+        migration.migrate();
+
+        assertThat(records(first)).extracting(BookingRecord::getBookingId).containsExactlyInAnyOrder("F1", "H1");
+        assertThat(records(second)).extracting(BookingRecord::getBookingId).containsExactly("F2", "F2");
+        assertThat(usersDocument(first).containsKey("bookings")).isFalse();
+        assertThat(usersDocument(second).containsKey("bookings")).isFalse();
+    }
+
+    @Test
+    void bookingsAddedAfterMigrationAreCopiedWithoutOverwritingEarlierOnes() {
+        ObjectId userId = user(List.of(booking("F1", 2)));
+        migration.migrate();
+
+        // An old instance appends to the array again during a rolling deploy
+        mongoTemplate.getCollection("users").updateOne(Filters.eq("_id", userId), Updates.push("bookings", booking("F9", 4)));
+        migration.migrate();
+
+        List<BookingRecord> records = records(userId);
+        assertThat(records).extracting(BookingRecord::getBookingId).containsExactlyInAnyOrder("F1", "F9");
+        assertThat(records).filteredOn(record -> record.getBookingId().equals("F1"))
+            .extracting(BookingRecord::getQuantity).containsExactly(2);
+        assertThat(usersDocument(userId).containsKey("bookings")).isFalse();
+    }
+
+    @Test
+    void dropsEmptyArrays() {
+        ObjectId empty = user(new ArrayList<>());
+
+        migration.migrate();
+
+        assertThat(usersDocument(empty).containsKey("bookings")).isFalse();
+        assertThat(records(empty)).isEmpty();
+    }
+
+    private ObjectId user(List<Document> bookings) {
+        ObjectId id = new ObjectId();
+        mongoTemplate.getCollection("users").insertOne(new Document("_id", id).append("firstName", "legacy")
+            .append("bookings", bookings));
+        return id;
+    }
+
+    private Document usersDocument(ObjectId id) {
+        return mongoTemplate.getCollection("users").find(Filters.eq("_id", id)).first();
+    }
+
+    private List<BookingRecord> records(ObjectId userId) {
+        return mongoTemplate.find(new Query(Criteria.where("userId").is(userId.toHexString())), BookingRecord.class);
+    }
+
+    private static Document booking(String bookingId, int quantity) {
+        return new Document("type", "Flight")
+            .append("bookingId", bookingId)
+            .append("date", "2024-05-01")
+            .append("quantity", quantity)
+            .append("totalPrice", 100.0 * quantity);
+    }
+}
@@ -0,0 +1,129 @@
+package com.makemytrip.makemytrip.services;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.makemytrip.makemytrip.models.TravelPackage;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PackageQuoteCacheTest {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "quotes");
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    void quotesAreCachedUntilThePackageChanges() {
+        PackageQuoteCache cache = cache(100);
+        String packageId = travelPackage(List.of("F1"), List.of("H1"), 1000);
+
+        assertThat(cache.quote(packageId, 1).getDiscountedPrice()).isEqualTo(1000);
+        reprice(packageId, 800);
+        assertThat(cache.quote(packageId, 1).getDiscountedPrice()).isEqualTo(1000);
+
+        cache.packageChanged(packageId);
+        assertThat(cache.quote(packageId, 1).getDiscountedPrice()).isEqualTo(800);
+        assertThat(cache.quote(packageId, 4).isGroupDiscountApplied()).isTrue();
+        assertThat(cache.quote("missing", 1)).isNull();
+    }
+
+    @Test
+    void aComponentChangeDropsExactlyThePackagesThatReferenceIt() {
+        PackageQuoteCache cache = cache(100);
+        String withFlight = travelPackage(List.of("F1"), List.of("H1"), 1000);
+        String withOtherFlight = travelPackage(List.of("F2"), List.of("H1"), 2000);
+        String withoutComponents = travelPackage(null, null, 3000);
+        cache.quote(withFlight, 1);
+        cache.quote(withOtherFlight, 1);
+        cache.quote(withoutComponents, 1);
+        reprice(withFlight, 900);
+        reprice(withOtherFlight, 1900);
+        reprice(withoutComponents, 2900);
+
+        cache.flightChanged("F1");
+        assertThat(cache.quote(withFlight, 1).getDiscountedPrice()).isEqualTo(900);
+        assertThat(cache.quote(withOtherFlight, 1).getDiscountedPrice()).isEqualTo(2000);
+        assertThat(cache.quote(withoutComponents, 1).getDiscountedPrice()).isEqualTo(3000);
+
+        reprice(withFlight, 800);
+        cache.hotelChanged("H2");
+        assertThat(cache.quote(withFlight, 1).getDiscountedPrice()).isEqualTo(900);
+
+        // Both reference the hotel; the package reloaded above is still linked to it
+        cache.hotelChanged("H1");
+        assertThat(cache.quote(withFlight, 1).getDiscountedPrice()).isEqualTo(800);
+        assertThat(cache.quote(withOtherFlight, 1).getDiscountedPrice()).isEqualTo(1900);
+        assertThat(cache.quote(withoutComponents, 1).getDiscountedPrice()).isEqualTo(3000);
+    }
+
+    @Test
+    void evictedPackagesLeaveTheReverseIndex() {
+        PackageQuoteCache cache = cache(2);
+        for (int i = 0; i < 20; i++) {
+            cache.quote(travelPackage(List.of("F" + i), List.of("H" + i), 1000 + i), 1);
+        }
+        AsyncLoadingCache<?, ?> quotes = (AsyncLoadingCache<?, ?>) ReflectionTestUtils.getField(cache, "quotes");
+        quotes.synchronous().cleanUp();
+
+        assertThat(cache.size()).isLessThanOrEqualTo(2);
+        assertThat(reverseIndex(cache, "packagesByFlight")).hasSizeLessThanOrEqualTo(2);
+        assertThat(reverseIndex(cache, "packagesByHotel")).hasSizeLessThanOrEqualTo(2);
+    }
+
+    private PackageQuoteCache cache(long size) {
+        PackageQuoteCache cache = new PackageQuoteCache(size);
+        ReflectionTestUtils.setField(cache, "mongoTemplate", mongoTemplate);
+        return cache;
+    }
+
+    private String travelPackage(List<String> flightIds, List<String> hotelIds, double price) {
+        TravelPackage travelPackage = new TravelPackage();
+        travelPackage.setFlightIds(flightIds);
+        travelPackage.setHotelIds(hotelIds);
+        travelPackage.setOriginalPrice(price);
+        travelPackage.setDiscountedPrice(price);
+        travelPackage.setMinGroupSize(4);
+        travelPackage.setGroupDiscountPercentage(10);
+        return mongoTemplate.save(travelPackage).getId();
+    }
+
+    private void reprice(String packageId, double price) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(packageId)),
+            new Update().set("discountedPrice", price), TravelPackage.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Set<String>> reverseIndex(PackageQuoteCache cache, String field) {
+        return (Map<String, Set<String>>) ReflectionTestUtils.getField(cache, field);
+    }
+}
@@ -0,0 +1,115 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.models.Hotel;
+import com.makemytrip.makemytrip.models.TravelPackage;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class PackageRepricerTest {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private PackageRepricer repricer;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "packages");
+        repricer = new PackageRepricer(2);
+        ReflectionTestUtils.setField(repricer, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(repricer, "packageQuoteCache", mock(PackageQuoteCache.class));
+        ReflectionTestUtils.setField(repricer, "cacheManager", new ConcurrentMapCacheManager());
+        ReflectionTestUtils.setField(repricer, "chunkSize", 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repricer.destroy();
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    void repricesFromComponentsAndLeavesMockPricedPackagesAlone() {
+        String flightId = flight(3000);
+        String hotelId = hotel(1000);
+        TravelPackage built = travelPackage(List.of(flightId), List.of(hotelId), 3, 0);
+        // Priced like initializeMockData: a per-day base that no component accounts for
+        TravelPackage mock = travelPackage(null, null, 5, 1150);
+
+        assertThat(repricer.repriceAll()).isEqualTo(1);
+
+        assertThat(price(built)).isEqualTo(3000 + 1000 * 3 + 50);
+        assertThat(price(mock)).isEqualTo(1150);
+    }
+
+    @Test
+    void doesNotOverwriteAPackageEditedAfterItWasRead() {
+        String cheap = flight(1000);
+        String expensive = flight(9000);
+        TravelPackage stale = travelPackage(List.of(cheap), null, 3, 0);
+
+        // The admin swaps the flight between the repricer's read and its write
+        TravelPackage edited = mongoTemplate.findById(stale.getId(), TravelPackage.class);
+        edited.setFlightIds(List.of(expensive));
+        edited.setOriginalPrice(9050);
+        edited.setDiscountedPrice(9050);
+        mongoTemplate.save(edited);
+
+        int written = ReflectionTestUtils.invokeMethod(repricer, "repriceChunk", List.of(stale));
+
+        assertThat(written).isZero();
+        assertThat(price(stale)).isEqualTo(9050);
+    }
+
+    private double price(TravelPackage travelPackage) {
+        return mongoTemplate.findById(travelPackage.getId(), TravelPackage.class).getDiscountedPrice();
+    }
+
+    private String flight(double price) {
+        Flight flight = new Flight();
+        flight.setFlightName("IndiGo");
+        flight.setFrom("Delhi");
+        flight.setTo("Goa");
+        flight.setPrice(price);
+        return mongoTemplate.insert(flight).getId();
+    }
+
+    private String hotel(double pricePerNight) {
+        Hotel hotel = new Hotel();
+        hotel.sethotelName("Taj");
+        hotel.setLocation("Goa");
+        hotel.setPricePerNight(pricePerNight);
+        return mongoTemplate.insert(hotel).getId();
+    }
+
+    private TravelPackage travelPackage(List<String> flightIds, List<String> hotelIds, int duration, double price) {
+        TravelPackage travelPackage = new TravelPackage("Goa Getaway", "Goa", "PRE_BUILT");
+        travelPackage.setFlightIds(flightIds);
+        travelPackage.setHotelIds(hotelIds);
+        travelPackage.setDuration(duration);
+        travelPackage.setTourActivities(List.of("Sunset cruise"));
+        travelPackage.setDiscountPercentage(0);
+        travelPackage.setOriginalPrice(price);
+        travelPackage.setDiscountedPrice(price);
+        return mongoTemplate.insert(travelPackage);
+    }
+}
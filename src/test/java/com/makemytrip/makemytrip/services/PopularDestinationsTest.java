@@ -0,0 +1,123 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.SearchHistory;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PopularDestinationsTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Kolkata");
+
+    private final PopularDestinations destinations = new PopularDestinations();
+    private Instant now = LocalDateTime.of(2025, 3, 10, 12, 0).atZone(ZONE).toInstant();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(destinations, "windowDays", 2);
+        ReflectionTestUtils.setField(destinations, "topK", 3);
+        ReflectionTestUtils.setField(destinations, "clock", new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZONE;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now;
+            }
+        });
+    }
+
+    @Test
+    void keepsTheTopKByCountIgnoringCase() {
+        search("Goa", 3);
+        search("goa ", 1);
+        search("Delhi", 2);
+        search("Mumbai", 2);
+        search("Pune", 1);
+
+        assertThat(destinations.top(10)).containsExactly("Goa", "Delhi", "Mumbai");
+        assertThat(destinations.top(2)).containsExactly("Goa", "Delhi");
+
+        // Pune climbs past Delhi and Mumbai and pushes Mumbai (later in name order) out
+        search("Pune", 2);
+        assertThat(destinations.top(10)).containsExactly("Goa", "Pune", "Delhi");
+    }
+
+    @Test
+    void dropsDaysThatLeaveTheWindow() {
+        search("Goa", 3);
+        advance(Duration.ofDays(1));
+        search("Delhi", 2);
+        assertThat(destinations.top(10)).containsExactly("Goa", "Delhi");
+
+        // The first day falls out of the two-day window at midnight
+        advance(Duration.ofDays(1));
+        assertThat(destinations.top(10)).containsExactly("Delhi");
+
+        search("Goa", 1);
+        assertThat(destinations.top(10)).containsExactly("Delhi", "Goa");
+
+        // Searches dated before the window are not counted
+        destinations.searched("Pune", LocalDateTime.ofInstant(now, ZONE).minusDays(5));
+        assertThat(destinations.top(10)).containsExactly("Delhi", "Goa");
+    }
+
+    @Test
+    void mongoFallbackUsesTheSameWindowAndKeys() {
+        MongoServer server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        try (MongoClient client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort())) {
+            MongoTemplate mongoTemplate = new MongoTemplate(client, "popular");
+            ReflectionTestUtils.setField(destinations, "mongoTemplate", mongoTemplate);
+            LocalDateTime today = LocalDateTime.ofInstant(now, ZONE);
+            history(mongoTemplate, "Goa", today, 1);
+            history(mongoTemplate, " Goa ", today.minusDays(1), 2);
+            history(mongoTemplate, "Delhi", today, 2);
+            history(mongoTemplate, "Mumbai", today.minusDays(2), 5);
+
+            assertThat(destinations.aggregateTop(10)).containsExactly("Goa", "Delhi");
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    private void search(String destination, int times) {
+        for (int i = 0; i < times; i++) {
+            destinations.searched(destination, LocalDateTime.ofInstant(now, ZONE));
+        }
+    }
+
+    private void advance(Duration duration) {
+        now = now.plus(duration);
+    }
+
+    private static void history(MongoTemplate mongoTemplate, String destination, LocalDateTime when, int times) {
+        for (int i = 0; i < times; i++) {
+            SearchHistory history = new SearchHistory("user", "FLIGHT");
+            history.setDestination(destination);
+            history.setSearchDateTime(when);
+            mongoTemplate.insert(history);
+        }
+    }
+}
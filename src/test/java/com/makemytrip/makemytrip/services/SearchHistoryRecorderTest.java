@@ -0,0 +1,127 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.SearchHistory;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchHistoryRecorderTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private SearchHistoryRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "history");
+        recorder = recorder(100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    void flushWritesQueuedEntriesInBatches() {
+        for (int i = 0; i < 10; i++) {
+            recorder.record(history("user" + i, "Goa", i));
+        }
+        assertThat(recorder.getQueued()).isEqualTo(10);
+        assertThat(mongoTemplate.count(new Query(), SearchHistory.class)).isZero();
+
+        recorder.flush();
+
+        assertThat(recorder.getQueued()).isZero();
+        assertThat(recorder.getRecorded()).isEqualTo(10);
+        assertThat(mongoTemplate.count(new Query(), SearchHistory.class)).isEqualTo(10);
+    }
+
+    @Test
+    void flushTrimsEachUserToTheNewestEntries() {
+        for (int i = 0; i < 8; i++) {
+            recorder.record(history("alice", "Goa", i));
+        }
+        for (int i = 0; i < 3; i++) {
+            recorder.record(history("bob", "Delhi", i));
+        }
+        recorder.flush();
+
+        List<SearchHistory> alice = mongoTemplate.find(Query.query(Criteria.where("userId").is("alice"))
+            .with(Sort.by(Sort.Direction.DESC, "searchDateTime")), SearchHistory.class);
+        assertThat(alice).extracting(SearchHistory::getSearchDateTime)
+            .containsExactly(START.plusMinutes(7), START.plusMinutes(6), START.plusMinutes(5),
+                START.plusMinutes(4), START.plusMinutes(3));
+        assertThat(mongoTemplate.count(Query.query(Criteria.where("userId").is("bob")), SearchHistory.class))
+            .isEqualTo(3);
+        assertThat(recorder.getTrimmed()).isEqualTo(3);
+    }
+
+    @Test
+    void dropsEntriesWhenTheQueueIsFull() {
+        SearchHistoryRecorder small = recorder(4);
+        for (int i = 0; i < 6; i++) {
+            small.record(history("alice", "Goa", i));
+        }
+        assertThat(small.getQueued()).isEqualTo(4);
+        assertThat(small.getDropped()).isEqualTo(2);
+
+        small.flush();
+
+        assertThat(small.getRecorded()).isEqualTo(4);
+        assertThat(mongoTemplate.count(new Query(), SearchHistory.class)).isEqualTo(4);
+    }
+
+    @Test
+    void clearDropsQueuedEntriesSoTheyDoNotReappear() {
+        recorder.record(history("alice", "Goa", 0));
+        recorder.flush();
+        recorder.record(history("alice", "Goa", 1));
+        recorder.record(history("bob", "Delhi", 1));
+
+        recorder.clear("alice");
+        recorder.flush();
+
+        assertThat(mongoTemplate.count(Query.query(Criteria.where("userId").is("alice")), SearchHistory.class))
+            .isZero();
+        assertThat(mongoTemplate.count(Query.query(Criteria.where("userId").is("bob")), SearchHistory.class))
+            .isEqualTo(1);
+    }
+
+    private SearchHistoryRecorder recorder(int capacity) {
+        SearchHistoryRecorder recorder = new SearchHistoryRecorder(capacity);
+        ReflectionTestUtils.setField(recorder, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(recorder, "maxPerUser", 5);
+        ReflectionTestUtils.setField(recorder, "batchSize", 3);
+        return recorder;
+    }
+
+    private static SearchHistory history(String userId, String destination, int minute) {
+        SearchHistory history = new SearchHistory(userId, "FLIGHT");
+        history.setDestination(destination);
+        history.setSearchDateTime(START.plusMinutes(minute));
+        return history;
+    }
+}
@@ -0,0 +1,139 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.SearchKeys;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionTrieTest {
+
+    @Test
+    void ranksPrefixMatchesOnAnyWordByPopularity() {
+        SuggestionTrie trie = new SuggestionTrie(2);
+        trie.adjust("New Delhi", 3);
+        trie.adjust("Delhi Cantt", 1);
+        trie.adjust("Dehradun", 2);
+        trie.adjust("Mumbai", 5);
+
+        assertThat(trie.suggest("de", 10)).containsExactly("New Delhi", "Dehradun");
+        assertThat(trie.suggest("DEL", 10)).containsExactly("New Delhi", "Delhi Cantt");
+        assertThat(trie.suggest("cantt", 10)).containsExactly("Delhi Cantt");
+        assertThat(trie.suggest("de", 1)).containsExactly("New Delhi");
+        assertThat(trie.suggest("x", 10)).isEmpty();
+    }
+
+    @Test
+    void removesTermsNoLongerInTheCatalog() {
+        SuggestionTrie trie = new SuggestionTrie(2);
+        trie.adjust("New Delhi", 3);
+        trie.adjust("Delhi Cantt", 1);
+        trie.adjust("Dehradun", 2);
+
+        trie.adjust("New Delhi", -3);
+
+        assertThat(trie.suggest("de", 10)).containsExactly("Dehradun", "Delhi Cantt");
+        assertThat(trie.suggest("new", 10)).isEmpty();
+        assertThat(trie.size()).isEqualTo(2);
+    }
+
+    @Test
+    void boostsOnlyKnownTermsAndDropThemWithTheTerm() {
+        SuggestionTrie trie = new SuggestionTrie(3);
+        trie.adjust("Goa", 1);
+        trie.adjust("Gangtok", 2);
+
+        trie.boost("Gorakhpur", 5);
+        assertThat(trie.suggest("gor", 10)).isEmpty();
+
+        trie.boost("goa", 5);
+        assertThat(trie.suggest("g", 10)).containsExactly("Goa", "Gangtok");
+
+        // A boosted place that leaves the catalog is not suggested any more
+        trie.adjust("Goa", -1);
+        assertThat(trie.suggest("g", 10)).containsExactly("Gangtok");
+        trie.adjust("Goa", 1);
+        assertThat(trie.suggest("g", 10)).containsExactly("Gangtok", "Goa");
+    }
+
+    @Test
+    void boostsDecay() {
+        SuggestionTrie trie = new SuggestionTrie(3);
+        trie.adjust("Goa", 1);
+        trie.adjust("Gangtok", 2);
+        trie.boost("Goa", 3);
+        assertThat(trie.suggest("g", 10)).containsExactly("Goa", "Gangtok");
+
+        trie.decayBoosts();
+        assertThat(trie.suggest("g", 10)).containsExactly("Gangtok", "Goa");
+        trie.decayBoosts();
+        trie.decayBoosts();
+        assertThat(trie.suggest("goa", 10)).containsExactly("Goa");
+    }
+
+    @Test
+    void aTermThatDropsOutOfAFullListIsReplacedFromDeeperNodes() {
+        SuggestionTrie trie = new SuggestionTrie(2);
+        trie.adjust("Goa", 5);
+        trie.adjust("Gangtok", 4);
+        trie.adjust("Gangapur City", 3);
+        trie.adjust("Gwalior", 1);
+
+        trie.adjust("Goa", -4);
+        assertThat(trie.suggest("g", 10)).containsExactly("Gangtok", "Gangapur City");
+        trie.adjust("Gangtok", -4);
+        assertThat(trie.suggest("g", 10)).containsExactly("Gangapur City", "Goa");
+        assertThat(trie.suggest("city", 10)).containsExactly("Gangapur City");
+        assertThat(trie.suggest("gangt", 10)).isEmpty();
+    }
+
+    @Test
+    void staysInStepWithAFullRankingThroughRandomChanges() {
+        List<String> places = List.of("New Delhi", "Delhi Cantt", "Dehradun", "Goa", "Gangtok", "Go Go Goa",
+            "Navi Mumbai", "Mumbai", "Madurai", "Delhi", "Ne Ne");
+        SuggestionTrie trie = new SuggestionTrie(3);
+        Map<String, long[]> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int step = 0; step < 2000; step++) {
+            String place = places.get(random.nextInt(places.size()));
+            long[] rowsAndBoost = expected.computeIfAbsent(place, p -> new long[2]);
+            if (random.nextInt(3) == 0) {
+                long delta = random.nextInt(7) - 3;
+                trie.boost(place, delta);
+                if (rowsAndBoost[0] > 0) {
+                    rowsAndBoost[1] = Math.max(0, rowsAndBoost[1] + delta);
+                }
+            } else {
+                long delta = random.nextInt(5) - 2;
+                trie.adjust(place, delta);
+                if (delta > 0 || rowsAndBoost[0] > 0) {
+                    rowsAndBoost[0] = Math.max(0, rowsAndBoost[0] + delta);
+                }
+                if (rowsAndBoost[0] == 0) {
+                    rowsAndBoost[1] = 0;
+                }
+            }
+            for (String prefix : List.of("", "d", "de", "delhi", "g", "go", "n", "ne", "m")) {
+                assertThat(trie.suggest(prefix, 10)).as("step %d, prefix '%s'", step, prefix)
+                    .isEqualTo(ranking(expected, prefix, 3));
+            }
+        }
+    }
+
+    private static List<String> ranking(Map<String, long[]> expected, String prefix, int limit) {
+        Comparator<Map.Entry<String, long[]>> byWeight = Comparator.comparingLong(
+            (Map.Entry<String, long[]> e) -> e.getValue()[0] + e.getValue()[1]).reversed();
+        return expected.entrySet().stream()
+            .filter(e -> e.getValue()[0] > 0)
+            .filter(e -> SearchKeys.startsAWord(SearchKeys.prefix(prefix), e.getKey()))
+            .sorted(byWeight.thenComparing(e -> SuggestionTrie.normalize(e.getKey())))
+            .limit(limit)
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+}
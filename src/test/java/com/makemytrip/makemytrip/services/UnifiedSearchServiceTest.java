@@ -0,0 +1,181 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.models.Hotel;
+import com.makemytrip.makemytrip.models.TravelPackage;
+import com.makemytrip.makemytrip.models.UnifiedSearchResult;
+import com.makemytrip.makemytrip.models.UnifiedSearchResult.Hit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UnifiedSearchServiceTest {
+
+    private final EnhancedSearchService enhancedSearchService = mock(EnhancedSearchService.class);
+    private final TravelPackageService travelPackageService = mock(TravelPackageService.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private UnifiedSearchService service;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.destroy();
+    }
+
+    @Test
+    void ranksExactThenWordStartThenSecondaryFieldThenPrice() {
+        service = service(8, 64, 2000);
+        flights(List.of(
+            flight("F-exact-dear", "Delhi", "Goa", 9000),
+            flight("F-exact-cheap", "Delhi", "Goa", 3000),
+            flight("F-from", "Goa", "Delhi", 1000)));
+        hotels(List.of(hotel("H-word", "North Goa", "Taj", 2000)));
+        packages(List.of(travelPackage("P-exact", "Goa Getaway", "goa", 5000)));
+
+        UnifiedSearchResult result = service.search(" GOA ");
+
+        assertThat(result.isPartial()).isFalse();
+        assertThat(ids(result.getResults()))
+            .containsExactly("F-exact-cheap", "P-exact", "F-exact-dear", "H-word", "F-from");
+        assertThat(result.getResults()).extracting(Hit::getScore).containsExactly(5, 5, 5, 3, 2);
+    }
+
+    @Test
+    void dropsHitsThatOnlyMatchInsideAWord() {
+        service = service(8, 64, 2000);
+        flights(List.of(flight("F-inside", "Delhi", "Bogotá", 1000), flight("F-exact", "Delhi", "Goa", 2000)));
+        hotels(List.of());
+        packages(List.of(travelPackage("P-text", "Sunny Escape", "Kerala", 500)));
+
+        assertThat(ids(service.search("goa").getResults())).containsExactly("F-exact");
+    }
+
+    @Test
+    void reportsASlowOrFailingSourceAsUnavailable() {
+        service = service(8, 64, 200);
+        when(enhancedSearchService.searchFlights(isNull(), eq("goa"), isNull(), isNull(), isNull(), isNull(), any(Duration.class)))
+            .thenAnswer(invocation -> {
+                release.await(5, TimeUnit.SECONDS);
+                return List.of(flight("F-late", "Delhi", "Goa", 1000));
+            });
+        when(enhancedSearchService.searchHotels(eq("goa"), isNull(), isNull(), isNull(), isNull(), any(Duration.class)))
+            .thenThrow(new IllegalStateException("hotels down"));
+        packages(List.of(travelPackage("P-exact", "Goa Getaway", "Goa", 5000)));
+
+        UnifiedSearchResult result = service.search("goa");
+
+        assertThat(result.isPartial()).isTrue();
+        assertThat(result.getUnavailable()).containsExactly("FLIGHT", "HOTEL");
+        assertThat(ids(result.getResults())).containsExactly("P-exact");
+    }
+
+    @Test
+    void passesTheDeadlineToMongoAsMaxTime() {
+        service = service(8, 64, 750);
+        flights(List.of());
+        hotels(List.of());
+        packages(List.of());
+
+        service.search("goa");
+
+        verify(travelPackageService).searchPackages("goa", Duration.ofMillis(750));
+        verify(enhancedSearchService)
+            .searchHotels("goa", null, null, null, null, Duration.ofMillis(750));
+    }
+
+    @Test
+    void skipsSourcesWhileThePoolIsFull() {
+        // One worker, one queue slot: the first search's flight lookup blocks, its hotel lookup
+        // waits in the queue, and everything after that is rejected at once
+        service = service(1, 1, 200);
+        when(enhancedSearchService.searchFlights(isNull(), eq("goa"), isNull(), isNull(), isNull(), isNull(), any(Duration.class)))
+            .thenAnswer(invocation -> {
+                release.await(5, TimeUnit.SECONDS);
+                return List.of();
+            });
+        hotels(List.of(hotel("H-exact", "Goa", "Taj", 2000)));
+        packages(List.of(travelPackage("P-exact", "Goa Getaway", "Goa", 5000)));
+
+        UnifiedSearchResult result = service.search("goa");
+
+        assertThat(result.getUnavailable()).containsExactly("FLIGHT", "HOTEL", "PACKAGE");
+        assertThat(result.getResults()).isEmpty();
+    }
+
+    private UnifiedSearchService service(int threads, int queueCapacity, long timeoutMillis) {
+        UnifiedSearchService service = new UnifiedSearchService(threads, queueCapacity);
+        ReflectionTestUtils.setField(service, "enhancedSearchService", enhancedSearchService);
+        ReflectionTestUtils.setField(service, "travelPackageService", travelPackageService);
+        ReflectionTestUtils.setField(service, "timeoutMillis", timeoutMillis);
+        ReflectionTestUtils.setField(service, "limitPerSource", 20);
+        return service;
+    }
+
+    private void flights(List<Flight> flights) {
+        when(enhancedSearchService.searchFlights(isNull(), any(), isNull(), isNull(), isNull(), isNull(), any(Duration.class)))
+            .thenReturn(flights);
+    }
+
+    private void hotels(List<Hotel> hotels) {
+        when(enhancedSearchService.searchHotels(any(), isNull(), isNull(), isNull(), isNull(), any(Duration.class)))
+            .thenReturn(hotels);
+    }
+
+    private void packages(List<TravelPackage> packages) {
+        when(travelPackageService.searchPackages(any(), any(Duration.class))).thenReturn(packages);
+    }
+
+    private static Flight flight(String id, String from, String to, double price) {
+        Flight flight = new Flight();
+        flight.setId(id);
+        flight.setFrom(from);
+        flight.setTo(to);
+        flight.setPrice(price);
+        return flight;
+    }
+
+    private static Hotel hotel(String id, String location, String name, double price) {
+        Hotel hotel = new Hotel();
+        hotel.setId(id);
+        hotel.setLocation(location);
+        hotel.sethotelName(name);
+        hotel.setPricePerNight(price);
+        return hotel;
+    }
+
+    private static TravelPackage travelPackage(String id, String name, String destination, double price) {
+        TravelPackage travelPackage = new TravelPackage(name, destination, "PRE_BUILT");
+        travelPackage.setId(id);
+        travelPackage.setDiscountedPrice(price);
+        return travelPackage;
+    }
+
+    private static List<String> ids(List<Hit> hits) {
+        List<String> ids = new ArrayList<>();
+        for (Hit hit : hits) {
+            Object item = hit.getItem();
+            if (item instanceof Flight flight) {
+                ids.add(flight.getId());
+            } else if (item instanceof Hotel hotel) {
+                ids.add(hotel.getId());
+            } else if (item instanceof TravelPackage travelPackage) {
+                ids.add(travelPackage.getId());
+            }
+        }
+        return ids;
+    }
+}
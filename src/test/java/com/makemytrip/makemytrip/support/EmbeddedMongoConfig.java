@@ -0,0 +1,30 @@
+package com.makemytrip.makemytrip.support;
+
+import com.mongodb.ConnectionString;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.boot.autoconfigure.mongo.MongoConnectionDetails;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.net.InetSocketAddress;
+
+// In-process Mongo stand-in so tests run without a real cluster
+@TestConfiguration(proxyBeanMethods = false)
+public class EmbeddedMongoConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public MongoServer mongoServer() {
+        MongoServer server = new MongoServer(new MemoryBackend());
+        server.bind("localhost", 0);
+        return server;
+    }
+
+    @Bean
+    public MongoConnectionDetails mongoConnectionDetails(MongoServer mongoServer) {
+        InetSocketAddress address = mongoServer.getLocalAddress();
+        ConnectionString connectionString = new ConnectionString(
+            "mongodb://" + address.getHostString() + ":" + address.getPort() + "/makemytrip");
+        return () -> connectionString;
+    }
+}
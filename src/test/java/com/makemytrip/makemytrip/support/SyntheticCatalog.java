@@ -0,0 +1,165 @@
+package com.makemytrip.makemytrip.support;
+
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.models.FlightStatus;
+import com.makemytrip.makemytrip.models.Hotel;
+import com.makemytrip.makemytrip.models.SearchHistory;
+import com.makemytrip.makemytrip.models.TravelPackage;
+import com.makemytrip.makemytrip.models.Users;
+import com.makemytrip.makemytrip.services.AutocompleteIndex;
+import com.makemytrip.makemytrip.services.FlightSearchIndex;
+import com.makemytrip.makemytrip.services.PopularDestinations;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+// A synthetic catalog for benchmarks and load tests. The data comes from a fixed seed, so runs
+// before and after a change see the same documents for the same sizes.
+public final class SyntheticCatalog {
+
+    public static final String[] CITIES = {
+        "Delhi", "Mumbai", "Bangalore", "Chennai", "Kolkata", "Hyderabad", "Pune", "Ahmedabad",
+        "Jaipur", "Goa", "Kochi", "Lucknow", "Chandigarh", "Srinagar", "Varanasi", "Udaipur",
+        "Amritsar", "Guwahati", "Bhubaneswar", "Port Blair"
+    };
+    public static final String[] AIRLINES = {"IndiGo", "Air India", "Vistara", "SpiceJet", "Akasa Air", "Go First"};
+    public static final String[] AMENITIES = {"Pool", "Spa", "WiFi", "Gym", "Breakfast", "Parking", "Beach Access"};
+
+    private static final int BATCH = 10_000;
+    // Packages are built from the first flights and hotels only
+    private static final int PACKAGE_COMPONENTS = 1000;
+
+    private final List<String> flightIds = new ArrayList<>();
+    private final List<String> hotelIds = new ArrayList<>();
+    private final List<String> userIds = new ArrayList<>();
+    private final List<String> packageIds = new ArrayList<>();
+    private final List<String> flightNumbers = new ArrayList<>();
+
+    private SyntheticCatalog() {
+    }
+
+    public static SyntheticCatalog seed(MongoTemplate mongoTemplate, int flights, int hotels, int users,
+                                        int packages, int searches, int flightStatuses) {
+        SyntheticCatalog catalog = new SyntheticCatalog();
+        SplittableRandom random = new SplittableRandom(42);
+
+        insert(mongoTemplate, flights, Flight.class, Flight::getId, catalog.flightIds, i -> {
+            Flight flight = new Flight();
+            int from = random.nextInt(CITIES.length);
+            flight.setFlightName(AIRLINES[random.nextInt(AIRLINES.length)] + " " + (100 + i % 9000));
+            flight.setFrom(CITIES[from]);
+            flight.setTo(CITIES[(from + 1 + random.nextInt(CITIES.length - 1)) % CITIES.length]);
+            flight.setDepartureTime(LocalDateTime.now().plusHours(i % 720).toString());
+            flight.setPrice(1500 + random.nextInt(13_500));
+            flight.setAvailableSeats(random.nextInt(200));
+            return flight;
+        });
+        insert(mongoTemplate, hotels, Hotel.class, Hotel::getId, catalog.hotelIds, i -> {
+            Hotel hotel = new Hotel();
+            String city = CITIES[random.nextInt(CITIES.length)];
+            hotel.sethotelName(city + " Residency " + i);
+            hotel.setLocation(city);
+            hotel.setPricePerNight(800 + random.nextInt(20_000));
+            hotel.setAvailableRooms(random.nextInt(50));
+            hotel.setamenities(AMENITIES[random.nextInt(AMENITIES.length)] + ", " + AMENITIES[random.nextInt(AMENITIES.length)]);
+            return hotel;
+        });
+        insert(mongoTemplate, users, Users.class, Users::getId, catalog.userIds, i -> {
+            Users user = new Users();
+            user.setFirstName("User " + i);
+            user.setRole("USER");
+            return user;
+        });
+
+        List<String> packageFlights = catalog.flightIds.subList(0, Math.min(catalog.flightIds.size(), PACKAGE_COMPONENTS));
+        List<String> packageHotels = catalog.hotelIds.subList(0, Math.min(catalog.hotelIds.size(), PACKAGE_COMPONENTS));
+        if (!packageFlights.isEmpty() && !packageHotels.isEmpty()) {
+            insert(mongoTemplate, packages, TravelPackage.class, TravelPackage::getId, catalog.packageIds, i -> {
+                String city = CITIES[random.nextInt(CITIES.length)];
+                TravelPackage travelPackage = new TravelPackage(city + " Getaway " + i, city, "PRE_BUILT");
+                travelPackage.setDuration(2 + random.nextInt(10));
+                travelPackage.setFlightIds(List.of(
+                    packageFlights.get(random.nextInt(packageFlights.size())),
+                    packageFlights.get(random.nextInt(packageFlights.size()))));
+                travelPackage.setHotelIds(List.of(packageHotels.get(random.nextInt(packageHotels.size()))));
+                travelPackage.setTourActivities(List.of("Sightseeing", "Dinner cruise"));
+                travelPackage.setDiscountPercentage(10);
+                travelPackage.setMinGroupSize(4);
+                travelPackage.setGroupDiscountPercentage(5);
+                travelPackage.setActive(true);
+                return travelPackage;
+            });
+        }
+
+        insert(mongoTemplate, searches, SearchHistory.class, SearchHistory::getId, new ArrayList<>(), i -> {
+            SearchHistory history = new SearchHistory("user" + (i % 1000), "FLIGHT");
+            history.setOrigin(CITIES[random.nextInt(CITIES.length)]);
+            history.setDestination(CITIES[random.nextInt(CITIES.length)]);
+            history.setSearchDateTime(LocalDateTime.now().minusHours(random.nextInt(29 * 24)));
+            return history;
+        });
+        insert(mongoTemplate, flightStatuses, FlightStatus.class, FlightStatus::getFlightNumber, catalog.flightNumbers, i -> {
+            String airline = AIRLINES[i % AIRLINES.length];
+            int origin = random.nextInt(CITIES.length);
+            FlightStatus status = new FlightStatus(airline.substring(0, 2).toUpperCase() + (1000 + i), airline,
+                CITIES[origin], CITIES[(origin + 1 + random.nextInt(CITIES.length - 1)) % CITIES.length]);
+            status.setScheduledDeparture(LocalDateTime.now().plusMinutes(i % 1440));
+            status.setScheduledArrival(LocalDateTime.now().plusMinutes(i % 1440 + 120));
+            status.setEstimatedArrival(status.getScheduledArrival());
+            return status;
+        });
+        return catalog;
+    }
+
+    // The in-memory indexes and caches are filled at startup, before the catalog existed
+    public static void refresh(ApplicationContext context) {
+        context.getBean(FlightSearchIndex.class).rebuild();
+        context.getBean(AutocompleteIndex.class).load();
+        context.getBean(PopularDestinations.class).rebuild();
+        CacheManager cacheManager = context.getBean(CacheManager.class);
+        for (String name : cacheManager.getCacheNames()) {
+            cacheManager.getCache(name).clear();
+        }
+    }
+
+    public List<String> getFlightIds() {
+        return flightIds;
+    }
+
+    public List<String> getHotelIds() {
+        return hotelIds;
+    }
+
+    public List<String> getUserIds() {
+        return userIds;
+    }
+
+    public List<String> getPackageIds() {
+        return packageIds;
+    }
+
+    public List<String> getFlightNumbers() {
+        return flightNumbers;
+    }
+
+    private static <T> void insert(MongoTemplate mongoTemplate, int count, Class<T> type,
+                                   Function<T, String> key, List<String> keys, IntFunction<T> row) {
+        List<T> batch = new ArrayList<>(Math.min(count, BATCH));
+        for (int i = 0; i < count; i++) {
+            batch.add(row.apply(i));
+            if (batch.size() == BATCH || i == count - 1) {
+                // insert sets the generated ids on the documents
+                mongoTemplate.insert(batch, type);
+                batch.forEach(document -> keys.add(key.apply(document)));
+                batch = new ArrayList<>(Math.min(count - i - 1, BATCH));
+            }
+        }
+    }
+}